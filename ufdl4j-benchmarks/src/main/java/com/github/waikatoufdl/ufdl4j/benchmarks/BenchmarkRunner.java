@@ -0,0 +1,46 @@
+/*
+ * BenchmarkRunner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, which reports the
+ * allocation rate per operation ("gc.alloc.rate.norm"). Accepts the usual
+ * JMH command-line options, eg:
+ * <pre>
+ * java -jar ufdl4j-benchmarks/target/benchmarks.jar -p payloadSize=16384 "ClientBenchmark.(list|load)$"
+ * </pre>
+ * Without benchmark patterns, all {@link ClientBenchmark} benchmarks get run.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BenchmarkRunner {
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args	the JMH options
+   * @throws Exception	if running fails
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions		cmdline;
+    ChainedOptionsBuilder	options;
+
+    cmdline = new CommandLineOptions(args);
+    options = new OptionsBuilder()
+      .parent(cmdline)
+      .addProfiler(GCProfiler.class);
+    if (cmdline.getIncludes().isEmpty())
+      options.include(ClientBenchmark.class.getName());
+
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * ClientBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.benchmarks;
+
+import com.github.waikatoufdl.ufdl4j.Client;
+import com.github.waikatoufdl.ufdl4j.action.Datasets;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.ObjectDetectionDatasets;
+import com.github.waikatoufdl.ufdl4j.action.ObjectDetectionDatasets.Annotations;
+import com.github.waikatoufdl.ufdl4j.auth.MemoryOnlyStorage;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Benchmarks the request path of the client against the in-process
+ * {@link MockBackend}, measuring throughput and latency distribution per
+ * operation. Run via {@link BenchmarkRunner}, which also attaches the GC
+ * profiler for the allocation rate.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientBenchmark {
+
+  /**
+   * Channel that discards everything written to it.
+   */
+  public static class NullChannel
+    implements WritableByteChannel {
+
+    /**
+     * Discards the remaining bytes of the buffer.
+     *
+     * @param src	the buffer to discard
+     * @return		the number of bytes discarded
+     */
+    @Override
+    public int write(ByteBuffer src) {
+      int	result;
+
+      result = src.remaining();
+      src.position(src.limit());
+
+      return result;
+    }
+
+    /**
+     * Always open.
+     *
+     * @return		true
+     */
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void close() {
+    }
+  }
+
+  /** the logger of the library (kept to retain the level). */
+  protected static final Logger LOGGER = Logger.getLogger("com.github.waikatoufdl.ufdl4j");
+
+  /** the size of files and dataset archives in bytes. */
+  @Param({"16384", "4194304"})
+  public int payloadSize;
+
+  /** the number of datasets returned by list. */
+  @Param({"50"})
+  public int numDatasets;
+
+  /** the number of files per dataset. */
+  @Param({"100"})
+  public int numFiles;
+
+  /** the backend. */
+  protected MockBackend m_Backend;
+
+  /** the client. */
+  protected Client m_Client;
+
+  /** the datasets action. */
+  protected Datasets m_Datasets;
+
+  /** the object detection datasets action. */
+  protected ObjectDetectionDatasets m_ObjDet;
+
+  /** the file to upload. */
+  protected File m_Upload;
+
+  /** the content to stream. */
+  protected ByteBuffer m_UploadBuffer;
+
+  /** discards downloaded content. */
+  protected NullChannel m_Sink;
+
+  /**
+   * Starts the backend and connects the client.
+   *
+   * @throws Exception	if setup fails
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    byte[]	data;
+
+    // the per-call info messages would dominate the measurements
+    LOGGER.setLevel(java.util.logging.Level.WARNING);
+
+    m_Backend  = new MockBackend(numDatasets, numFiles, payloadSize).start(Runtime.getRuntime().availableProcessors());
+    m_Client   = new Client(m_Backend.getURL(), "admin", "admin", new MemoryOnlyStorage());
+    m_Datasets = m_Client.datasets();
+    m_ObjDet   = m_Client.action(ObjectDetectionDatasets.class);
+    m_Sink     = new NullChannel();
+
+    data = new byte[payloadSize];
+    new Random(2).nextBytes(data);
+    m_Upload = File.createTempFile("ufdl4j-benchmark-", ".bin");
+    m_Upload.deleteOnExit();
+    Files.write(m_Upload.toPath(), data);
+    m_UploadBuffer = ByteBuffer.allocateDirect(payloadSize);
+    m_UploadBuffer.put(data);
+    m_UploadBuffer.flip();
+  }
+
+  /**
+   * Disconnects the client and stops the backend.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    m_Client.close();
+    m_Backend.stop();
+    if (!m_Upload.delete())
+      m_Upload.deleteOnExit();
+  }
+
+  /**
+   * Lists the datasets.
+   *
+   * @return		the datasets
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public List<Dataset> list() throws Exception {
+    return m_Datasets.list();
+  }
+
+  /**
+   * Loads a dataset.
+   *
+   * @return		the dataset
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public Dataset load() throws Exception {
+    return m_Datasets.load(1);
+  }
+
+  /**
+   * Retrieves all annotations of an object detection dataset.
+   *
+   * @return		the annotations
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public Map<String, Annotations> getAnnotations() throws Exception {
+    return m_ObjDet.getAnnotations(1);
+  }
+
+  /**
+   * Uploads a file as attachment.
+   *
+   * @return		the success flag
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public boolean addFile() throws Exception {
+    return m_Datasets.addFile(1, m_Upload, "upload.bin");
+  }
+
+  /**
+   * Streams the content of a buffer as file.
+   *
+   * @return		the success flag
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public boolean addFileStream() throws Exception {
+    return m_Datasets.addFile(1, UploadSource.of(m_UploadBuffer.duplicate()), "upload.bin");
+  }
+
+  /**
+   * Retrieves a file.
+   *
+   * @return		the number of bytes
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public long getFile() throws Exception {
+    return m_Datasets.getFile(1, m_Backend.getFileName(), m_Sink);
+  }
+
+  /**
+   * Downloads the dataset archive.
+   *
+   * @return		the number of bytes
+   * @throws Exception	if the request fails
+   */
+  @Benchmark
+  public long download() throws Exception {
+    return m_Datasets.download(1, new String[0], "zip", m_Sink);
+  }
+}
@@ -0,0 +1,404 @@
+/*
+ * MockBackend.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.benchmarks;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.ContentRange;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process mock of the UFDL backend endpoints exercised by the benchmarks
+ * (authentication, listing/loading datasets, adding/getting files,
+ * downloading datasets and object detection annotations). All responses get
+ * generated upfront, so that the benchmarks measure the client rather than
+ * the server. Downloads honour Range requests.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class MockBackend
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 2154376320175826034L;
+
+  /** the content type for JSON. */
+  public static final String TYPE_JSON = "application/json";
+
+  /** the content type for binary data. */
+  public static final String TYPE_BINARY = "application/octet-stream";
+
+  /** the pattern for dataset URLs: pk, rest. */
+  public static final Pattern DATASET = Pattern.compile("/v1/datasets/([0-9]+)/?(.*)");
+
+  /** the pattern for object detection dataset URLs: pk, rest. */
+  public static final Pattern OBJDET_DATASET = Pattern.compile("/v1/objdet/datasets/([0-9]+)/?(.*)");
+
+  /** the pattern for single byte ranges: first, last (optional). */
+  public static final Pattern RANGE = Pattern.compile("bytes=([0-9]+)-([0-9]*)");
+
+  /** the number of datasets. */
+  protected int m_NumDatasets;
+
+  /** the number of files per dataset. */
+  protected int m_NumFiles;
+
+  /** the size of files and dataset archives in bytes. */
+  protected int m_PayloadSize;
+
+  /** the server. */
+  protected transient HttpServer m_Server;
+
+  /** the threads handling the requests. */
+  protected transient ExecutorService m_Executor;
+
+  /** the token response. */
+  protected byte[] m_Tokens;
+
+  /** the list response. */
+  protected byte[] m_List;
+
+  /** the load response. */
+  protected byte[] m_Dataset;
+
+  /** the annotations response. */
+  protected byte[] m_Annotations;
+
+  /** the file/archive content. */
+  protected byte[] m_Payload;
+
+  /**
+   * Initializes the backend.
+   *
+   * @param numDatasets	the number of datasets to list
+   * @param numFiles	the number of files per dataset
+   * @param payloadSize	the size of files and dataset archives in bytes
+   */
+  public MockBackend(int numDatasets, int numFiles, int payloadSize) {
+    m_NumDatasets = numDatasets;
+    m_NumFiles    = numFiles;
+    m_PayloadSize = payloadSize;
+    generate();
+  }
+
+  /**
+   * Generates the responses.
+   */
+  protected void generate() {
+    JsonObject	tokens;
+    JsonArray	list;
+    JsonObject	annotations;
+    JsonObject	image;
+    JsonArray	anns;
+    JsonObject	ann;
+    Random	rnd;
+    int		i;
+    int		n;
+
+    tokens = new JsonObject();
+    tokens.addProperty("access", "mock-access");
+    tokens.addProperty("refresh", "mock-refresh");
+    m_Tokens = bytes(tokens.toString());
+
+    list = new JsonArray();
+    for (i = 1; i <= m_NumDatasets; i++)
+      list.add(dataset(i));
+    m_List    = bytes(list.toString());
+    m_Dataset = bytes(dataset(1).toString());
+
+    rnd         = new Random(1);
+    annotations = new JsonObject();
+    for (i = 0; i < m_NumFiles; i++) {
+      anns = new JsonArray();
+      for (n = 0; n < 5; n++) {
+	ann = new JsonObject();
+	ann.addProperty("x", rnd.nextInt(500));
+	ann.addProperty("y", rnd.nextInt(500));
+	ann.addProperty("width", 1 + rnd.nextInt(100));
+	ann.addProperty("height", 1 + rnd.nextInt(100));
+	ann.addProperty("label", "label-" + rnd.nextInt(10));
+	anns.add(ann);
+      }
+      image = new JsonObject();
+      image.add("annotations", anns);
+      annotations.add(fileName(i), image);
+    }
+    m_Annotations = bytes(annotations.toString());
+
+    m_Payload = new byte[m_PayloadSize];
+    rnd.nextBytes(m_Payload);
+  }
+
+  /**
+   * Generates the JSON of a dataset.
+   *
+   * @param pk		the primary key
+   * @return		the dataset
+   */
+  protected JsonObject dataset(int pk) {
+    JsonObject	result;
+    JsonObject	files;
+    int		i;
+
+    files = new JsonObject();
+    for (i = 0; i < m_NumFiles; i++)
+      files.addProperty(fileName(i), "cache-" + pk + "-" + i);
+
+    result = new JsonObject();
+    result.addProperty("pk", pk);
+    result.addProperty("domain", "od");
+    result.addProperty("creator", 1);
+    result.addProperty("project", 1);
+    result.addProperty("name", "dataset-" + pk);
+    result.addProperty("description", "benchmark dataset " + pk);
+    result.addProperty("version", 1);
+    result.addProperty("licence", 1);
+    result.addProperty("tags", "");
+    result.addProperty("is_public", true);
+    result.add("files", files);
+
+    return result;
+  }
+
+  /**
+   * Returns the name of the file with the specified index.
+   *
+   * @param index	the index
+   * @return		the name
+   */
+  public static String fileName(int index) {
+    return "image-" + index + ".jpg";
+  }
+
+  /**
+   * Turns the string into UTF-8 bytes.
+   *
+   * @param s		the string to convert
+   * @return		the bytes
+   */
+  protected static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Starts the server on a free port of the loopback interface.
+   *
+   * @param threads	the number of threads handling requests
+   * @return		itself
+   * @throws IOException	if starting fails
+   */
+  public synchronized MockBackend start(int threads) throws IOException {
+    if (m_Server != null)
+      return this;
+    m_Executor = Executors.newFixedThreadPool(threads, r -> {
+      Thread result = new Thread(r, "mock-backend");
+      result.setDaemon(true);
+      return result;
+    });
+    m_Server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    m_Server.setExecutor(m_Executor);
+    m_Server.createContext("/", this::handle);
+    m_Server.start();
+    getLogger().info("Mock backend listening on " + getURL());
+    return this;
+  }
+
+  /**
+   * Stops the server.
+   */
+  public synchronized void stop() {
+    if (m_Server == null)
+      return;
+    m_Server.stop(0);
+    m_Executor.shutdownNow();
+    m_Server   = null;
+    m_Executor = null;
+  }
+
+  /**
+   * Returns the URL of the running server.
+   *
+   * @return		the URL
+   */
+  public synchronized String getURL() {
+    return "http://" + m_Server.getAddress().getHostString() + ":" + m_Server.getAddress().getPort();
+  }
+
+  /**
+   * Returns the name of an existing file.
+   *
+   * @return		the name
+   */
+  public String getFileName() {
+    return fileName(0);
+  }
+
+  /**
+   * Handles a request.
+   *
+   * @param exchange	the request/response
+   * @throws IOException	if sending fails
+   */
+  protected void handle(HttpExchange exchange) throws IOException {
+    String	method;
+    String	path;
+    Matcher	matcher;
+    String	rest;
+
+    try {
+      method = exchange.getRequestMethod();
+      path   = exchange.getRequestURI().getPath();
+      drain(exchange.getRequestBody());
+
+      if (path.startsWith("/v1/auth/")) {
+	send(exchange, 200, m_Tokens);
+	return;
+      }
+      if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+	send(exchange, 401, bytes("{\"detail\": \"not authenticated\"}"));
+	return;
+      }
+
+      if (path.equals("/v1/datasets/list") && method.equals("POST")) {
+	send(exchange, 200, m_List);
+	return;
+      }
+
+      matcher = OBJDET_DATASET.matcher(path);
+      if (matcher.matches() && matcher.group(2).equals("annotations") && method.equals("GET")) {
+	send(exchange, 200, m_Annotations);
+	return;
+      }
+
+      matcher = DATASET.matcher(path);
+      if (matcher.matches()) {
+	rest = matcher.group(2);
+	if (rest.isEmpty() && method.equals("GET")) {
+	  send(exchange, 200, m_Dataset);
+	  return;
+	}
+	if (rest.startsWith("files/") && method.equals("POST")) {
+	  send(exchange, 200, m_Dataset);
+	  return;
+	}
+	if (rest.startsWith("files/") && method.equals("GET")) {
+	  send(exchange, 200, TYPE_BINARY, m_Payload, 0, m_Payload.length);
+	  return;
+	}
+	if (rest.equals("download") && method.equals("POST")) {
+	  sendRange(exchange, m_Payload);
+	  return;
+	}
+      }
+
+      send(exchange, 404, bytes("{\"detail\": \"not found\"}"));
+    }
+    finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Reads and discards the request body.
+   *
+   * @param in		the body to drain
+   * @throws IOException	if reading fails
+   */
+  protected void drain(InputStream in) throws IOException {
+    byte[]	buffer;
+
+    buffer = new byte[8192];
+    while (in.read(buffer) != -1) {
+      // discard
+    }
+  }
+
+  /**
+   * Sends the JSON response.
+   *
+   * @param exchange	the request/response
+   * @param status	the status code
+   * @param body	the body
+   * @throws IOException	if sending fails
+   */
+  protected void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+    send(exchange, status, TYPE_JSON, body, 0, body.length);
+  }
+
+  /**
+   * Sends part of the body as response.
+   *
+   * @param exchange	the request/response
+   * @param status	the status code
+   * @param type	the content type
+   * @param body	the body
+   * @param offset	the offset in the body
+   * @param length	the number of bytes to send
+   * @throws IOException	if sending fails
+   */
+  protected void send(HttpExchange exchange, int status, String type, byte[] body, int offset, int length) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", type);
+    exchange.sendResponseHeaders(status, (length == 0) ? -1 : length);
+    if (length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+	out.write(body, offset, length);
+      }
+    }
+  }
+
+  /**
+   * Sends the body, honouring a Range header (single range only).
+   *
+   * @param exchange	the request/response
+   * @param body	the body
+   * @throws IOException	if sending fails
+   */
+  protected void sendRange(HttpExchange exchange, byte[] body) throws IOException {
+    String	header;
+    Matcher	matcher;
+    long	first;
+    long	last;
+
+    header = exchange.getRequestHeaders().getFirst(ContentRange.HEADER_RANGE);
+    matcher = (header == null) ? null : RANGE.matcher(header);
+    if ((matcher == null) || !matcher.matches()) {
+      send(exchange, 200, TYPE_BINARY, body, 0, body.length);
+      return;
+    }
+    first = Long.parseLong(matcher.group(1));
+    last  = matcher.group(2).isEmpty() ? body.length - 1 : Math.min(body.length - 1, Long.parseLong(matcher.group(2)));
+    if (first >= body.length) {
+      exchange.getResponseHeaders().set(ContentRange.HEADER_CONTENT_RANGE, "bytes */" + body.length);
+      send(exchange, 416, TYPE_BINARY, body, 0, 0);
+      return;
+    }
+    exchange.getResponseHeaders().set(ContentRange.HEADER_CONTENT_RANGE, "bytes " + first + "-" + last + "/" + body.length);
+    send(exchange, 206, TYPE_BINARY, body, (int) first, (int) (last - first + 1));
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "datasets=" + m_NumDatasets + ", files=" + m_NumFiles + ", payloadSize=" + m_PayloadSize + ", running=" + (m_Server != null);
+  }
+}
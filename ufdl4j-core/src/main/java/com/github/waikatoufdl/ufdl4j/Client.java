@@ -1,6 +1,6 @@
 /*
  * Client.java
- * Copyright (C) 2019-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j;
@@ -26,6 +26,7 @@ import com.github.waikatoufdl.ufdl4j.action.Users;
 import com.github.waikatoufdl.ufdl4j.auth.LocalStorage;
 import com.github.waikatoufdl.ufdl4j.auth.TokenStorageHandler;
 import com.github.waikatoufdl.ufdl4j.context.Connection;
+import com.github.waikatoufdl.ufdl4j.context.HttpConfig;
 import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
 
 import java.util.HashMap;
@@ -63,6 +64,9 @@ public class Client
   /** the write timeout. */
   protected int m_WriteTimeout;
 
+  /** the configuration of the HTTP connection pool/dispatcher. */
+  protected HttpConfig m_HttpConfig;
+
   /** the connection to use. */
   protected Connection m_Connection;
 
@@ -125,6 +129,7 @@ public class Client
    */
   public Client() {
     m_Connection = new Connection();
+    m_HttpConfig = m_Connection.httpConfig();
   }
 
   /**
@@ -169,6 +174,32 @@ public class Client
     m_ConnectTimeout = connectTimeout;
     m_ReadTimeout    = readTimeout;
     m_WriteTimeout   = writeTimeout;
+    m_HttpConfig     = new HttpConfig();
+  }
+
+  /**
+   * Sets the configuration of the connection pool/dispatcher of the pooled
+   * HTTP client that is used for raw transfers (file up-/downloads). The
+   * regular list/load/create/update/delete calls are not affected.
+   *
+   * @param value	the configuration
+   * @return		the client itself
+   */
+  public synchronized Client httpConfig(HttpConfig value) {
+    m_HttpConfig = value;
+    if (m_Connection != null)
+      m_Connection.httpConfig(value);
+    return this;
+  }
+
+  /**
+   * Returns the configuration of the connection pool/dispatcher of the pooled
+   * HTTP client that is used for raw transfers.
+   *
+   * @return		the configuration
+   */
+  public synchronized HttpConfig httpConfig() {
+    return m_HttpConfig;
   }
 
   /**
@@ -178,7 +209,7 @@ public class Client
    */
   public synchronized Connection connection() {
     if (m_Connection == null) {
-      m_Connection = new Connection(m_ConnectTimeout, m_ReadTimeout, m_WriteTimeout);
+      m_Connection = new Connection(m_ConnectTimeout, m_ReadTimeout, m_WriteTimeout, m_HttpConfig);
       m_Connection.server(m_Host);
       m_Connection.authentication(m_User, m_Password, m_TokenStorage);
     }
@@ -1,23 +1,70 @@
 /*
  * AbstractAction.java
- * Copyright (C) 2019-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
 
+import com.github.fracpete.requests4j.core.MediaTypeHelper;
 import com.github.fracpete.requests4j.request.Request;
+import com.github.fracpete.requests4j.response.BasicResponse;
 import com.github.fracpete.requests4j.response.FileResponse;
 import com.github.fracpete.requests4j.response.JsonResponse;
+import com.github.fracpete.requests4j.response.Response;
 import com.github.fracpete.requests4j.response.StreamResponse;
 import com.github.waikatoufdl.ufdl4j.Client;
+import com.github.waikatoufdl.ufdl4j.auth.Tokens;
 import com.github.waikatoufdl.ufdl4j.context.Connection;
+import com.github.waikatoufdl.ufdl4j.context.RateLimiter;
+import com.github.waikatoufdl.ufdl4j.context.RetryPolicy;
 import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.ContentRange;
+import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
+import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithPK;
+import com.github.waikatoufdl.ufdl4j.core.NameIndex;
+import com.github.waikatoufdl.ufdl4j.core.SingleFlight;
+import com.github.waikatoufdl.ufdl4j.core.TTLCache;
+import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
+import com.github.waikatoufdl.ufdl4j.filter.field.In;
+import com.github.waikatoufdl.ufdl4j.metrics.Metrics;
+import com.github.waikatoufdl.ufdl4j.metrics.RequestTrace;
+import com.github.waikatoufdl.ufdl4j.metrics.jfr.CacheEvent;
+import com.github.waikatoufdl.ufdl4j.metrics.jfr.DownloadEvent;
+import com.github.waikatoufdl.ufdl4j.metrics.jfr.UploadEvent;
+import com.google.gson.JsonObject;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Ancestor for actions.
@@ -33,12 +80,56 @@ public abstract class AbstractAction
 
   public static final String PREFIX_BEARER = "Bearer";
 
+  public static final String METHOD_GET = "GET";
+
+  /** the maximum number of PKs per list call when loading many objects. */
+  public static final int LOAD_ALL_CHUNK_SIZE = 100;
+
+  /** the size of the direct buffer used for copying downloads into channels. */
+  public static final int DOWNLOAD_BUFFER_SIZE = 1024 * 1024;
+
+  /** the minimum size in bytes of a segment for segmented downloads. */
+  public static final long MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+  /** the per-thread direct buffers for downloads. */
+  protected static final ThreadLocal<ByteBuffer> DOWNLOAD_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(DOWNLOAD_BUFFER_SIZE));
+
+  /**
+   * For loading an object via its primary key.
+   *
+   * @param <T>	the type of object
+   */
+  @FunctionalInterface
+  protected interface PKLoader<T> {
+
+    /**
+     * Loads the object.
+     *
+     * @param pk	the primary key of the object
+     * @return		the object, null if not found
+     * @throws Exception	if request fails
+     */
+    public T load(int pk) throws Exception;
+  }
+
+  /** the time in msec before expiry of the access token to refresh it before executing a request. */
+  public static final long EXPIRY_SKEW = 5000;
+
   /** the connection. */
   protected Connection m_Connection;
 
   /** the client. */
   protected Client m_Client;
 
+  /** the cache for list/load results, null if disabled. */
+  protected TTLCache<String, Object> m_Cache;
+
+  /** the index for resolving names to primary keys. */
+  protected NameIndex m_NameIndex;
+
+  /** the loaders for resolving references in batches, null if none created yet. */
+  protected transient List<BatchLoader<?>> m_BatchLoaders;
+
   /**
    * Initializes the action.
    */
@@ -46,6 +137,8 @@ public abstract class AbstractAction
     super();
     m_Connection = null;
     m_Client     = null;
+    m_Cache      = null;
+    m_NameIndex  = new NameIndex();
   }
 
   /**
@@ -98,6 +191,211 @@ public abstract class AbstractAction
     return m_Client;
   }
 
+  /**
+   * Enables caching of list/load results, for actions that support it.
+   * Creating/updating/deleting objects through the action invalidates the cache.
+   *
+   * @param ttl		the time-to-live in msec of the cached results
+   * @param maxSize	the maximum number of cached results
+   */
+  public synchronized void enableCache(long ttl, int maxSize) {
+    m_Cache = new TTLCache<>(ttl, maxSize);
+  }
+
+  /**
+   * Disables caching of list/load results.
+   */
+  public synchronized void disableCache() {
+    m_Cache = null;
+  }
+
+  /**
+   * Returns the cache for list/load results.
+   *
+   * @return		the cache, null if disabled
+   */
+  public synchronized TTLCache<String, Object> getCache() {
+    return m_Cache;
+  }
+
+  /**
+   * Removes all cached list/load results.
+   */
+  public void invalidateCache() {
+    TTLCache<String, Object>	cache;
+
+    cache = getCache();
+    if (cache != null)
+      cache.invalidateAll();
+    clearReferences();
+  }
+
+  /**
+   * Creates a loader for resolving references in batches and registers it,
+   * so that it gets cleared/evicted along with the action.
+   *
+   * @param function	for loading many objects at once
+   * @param <T>		the type of object
+   * @return		the loader
+   * @see		#clearReferences()
+   * @see		#evictReference(int)
+   */
+  protected synchronized <T extends JsonObjectWithPK> BatchLoader<T> newBatchLoader(BatchLoader.BatchFunction<T> function) {
+    BatchLoader<T>	result;
+
+    result = new BatchLoader<>(function);
+    if (m_BatchLoaders == null)
+      m_BatchLoaders = new ArrayList<>();
+    m_BatchLoaders.add(result);
+
+    return result;
+  }
+
+  /**
+   * Removes all objects resolved via references, as well as pending references.
+   */
+  public synchronized void clearReferences() {
+    if (m_BatchLoaders == null)
+      return;
+    for (BatchLoader<?> loader: m_BatchLoaders)
+      loader.clear();
+  }
+
+  /**
+   * Removes the object resolved via references, eg after it got updated or
+   * deleted.
+   *
+   * @param pk		the primary key of the object
+   */
+  public synchronized void evictReference(int pk) {
+    if (m_BatchLoaders == null)
+      return;
+    for (BatchLoader<?> loader: m_BatchLoaders)
+      loader.evict(pk);
+  }
+
+  /**
+   * Returns the result of the list call from the cache, if enabled and present.
+   * Otherwise performs the call and caches the result.
+   *
+   * @param filter	the filter of the list call, can be null
+   * @param list	the list call to perform
+   * @param <T>		the type of list element
+   * @return		the list (copy of the cached one)
+   * @throws Exception	if the list call fails
+   */
+  @SuppressWarnings("unchecked")  // "list:" keys only ever hold results of this action's list calls
+  protected <T> List<T> cachedList(Filter filter, Callable<List<T>> list) throws Exception {
+    TTLCache<String, Object>	cache;
+    Object			result;
+
+    cache = getCache();
+    if (cache == null)
+      return list.call();
+    result = cached(cache, "list:" + (filter == null ? "" : filter.toJsonObject().toString()), list);
+    return new ArrayList<>((List<T>) result);
+  }
+
+  /**
+   * Returns the result of the load call from the cache, if enabled and present.
+   * Otherwise performs the call and caches the result.
+   *
+   * @param pk		the primary key of the object to load
+   * @param load	the load call to perform
+   * @param <T>		the type of object
+   * @return		the object
+   * @throws Exception	if the load call fails
+   */
+  @SuppressWarnings("unchecked")  // "load:" keys only ever hold results of this action's load calls
+  protected <T> T cachedLoad(int pk, Callable<T> load) throws Exception {
+    TTLCache<String, Object>	cache;
+
+    cache = getCache();
+    if (cache == null)
+      return load.call();
+    return (T) cached(cache, "load:" + pk, load);
+  }
+
+  /**
+   * Returns the value from the cache, performing the call in case of a miss.
+   * The lookup gets recorded as flight recorder event.
+   *
+   * @param cache	the cache to use
+   * @param key		the key of the value
+   * @param call	the call to perform in case of a miss
+   * @return		the value
+   * @throws Exception	if the call fails
+   */
+  protected Object cached(TTLCache<String, Object> cache, String key, Callable<?> call) throws Exception {
+    CacheEvent	event;
+    Exception	error;
+
+    event     = new CacheEvent();
+    event.key = key;
+    event.hit = true;
+    event.begin();
+    error = null;
+    try {
+      return cache.get(key, () -> {
+	event.hit = false;
+	return call.call();
+      });
+    }
+    catch (Exception e) {
+      error = e;
+      throw e;
+    }
+    finally {
+      event.finish(getName(), getPath(), error);
+    }
+  }
+
+  /**
+   * Returns the index for resolving names to primary keys, for actions that
+   * support it.
+   *
+   * @return		the index
+   */
+  public NameIndex getNameIndex() {
+    return m_NameIndex;
+  }
+
+  /**
+   * Loads the object with the specified name via the primary key stored in
+   * the name index. The index only gets populated from name lookups and
+   * entries are removed when objects get updated/deleted successfully. Stale
+   * index entries (object no longer found or renamed) get removed.
+   *
+   * @param name	the name to look up
+   * @param nameOf	for obtaining the name of the loaded object
+   * @param load	for loading the object via its primary key
+   * @param <T>		the type of object
+   * @return		the object, null if not in index or stale
+   * @throws Exception	if loading fails
+   */
+  protected <T extends JsonObjectWithPK> T loadIndexed(String name, Function<T, String> nameOf, PKLoader<T> load) throws Exception {
+    T		result;
+    Integer	pk;
+
+    pk = m_NameIndex.get(name);
+    if (pk == null)
+      return null;
+
+    try {
+      result = load.load(pk);
+    }
+    catch (FailedRequestException e) {
+      result = null;
+    }
+    if ((result == null) || !name.equals(nameOf.apply(result))) {
+      getLogger().fine("stale name index entry: " + name + " -> " + pk);
+      m_NameIndex.remove(pk);
+      result = null;
+    }
+
+    return result;
+  }
+
   /**
    * Creates a new GET request.
    *
@@ -212,49 +510,314 @@ public abstract class AbstractAction
   }
 
   /**
-   * Performs checks before executing the request and sets the authentication data.
+   * Returns the current access token. Refreshes it beforehand if it is about
+   * to expire, obtains new tokens if the refresh fails.
    *
-   * @param request	the request to update
-   * @throws Exception	if checks fail
+   * @return		the access token
+   * @throws Exception	if no valid authentication available
    */
-  protected void preExecute(Request request) throws Exception {
+  protected String accessToken() throws Exception {
+    Tokens	tokens;
+    String	stale;
+
     if (m_Connection == null)
       throw new IllegalStateException("No connection set!");
-    if (!m_Connection.authentication().getTokens().isValid())
+    tokens = m_Connection.authentication().getTokens();
+    // about to expire (eg background renewal disabled)? avoid the 401 round trip
+    if (tokens.isValid() && tokens.expiresWithin(EXPIRY_SKEW)) {
+      // falls back to obtaining new tokens if the refresh fails
+      stale = tokens.getAccessToken();
+      m_Connection.authentication().refresh(stale);
+      tokens = m_Connection.authentication().getTokens();
+    }
+    if (!tokens.isValid())
       throw new IllegalStateException("No valid authentication available!");
-    request.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + m_Connection.authentication().getTokens().getAccessToken());
+
+    return tokens.getAccessToken();
   }
 
   /**
-   * Executes the request. Automatically fills in authentication.
+   * Performs checks before executing the request and sets the authentication data.
+   *
+   * @param request	the request to update
+   * @return		the access token that was used
+   * @throws Exception	if checks fail
+   */
+  protected String preExecute(Request request) throws Exception {
+    String	result;
+
+    result = accessToken();
+    request.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + result);
+
+    return result;
+  }
+
+  /**
+   * Waits until the rate limiters of the connection (global and for the path
+   * of this action) allow another request.
+   *
+   * @throws InterruptedException	if interrupted while waiting
+   * @see		Connection#rateLimiter()
+   * @see		Connection#pathRateLimiter(String)
+   */
+  protected void acquire() throws InterruptedException {
+    RateLimiter		global;
+    RateLimiter		path;
+
+    global = m_Connection.rateLimiter();
+    path   = m_Connection.pathRateLimiter(getPath());
+    if (global != null)
+      global.acquire();
+    if (path != null) {
+      try {
+	path.acquire();
+      }
+      catch (InterruptedException e) {
+	if (global != null)
+	  global.release();
+	throw e;
+      }
+    }
+  }
+
+  /**
+   * Signals the rate limiters of the connection that the request has finished.
+   *
+   * @see		#acquire()
+   */
+  protected void release() {
+    RateLimiter		global;
+    RateLimiter		path;
+
+    global = m_Connection.rateLimiter();
+    path   = m_Connection.pathRateLimiter(getPath());
+    if (path != null)
+      path.release();
+    if (global != null)
+      global.release();
+  }
+
+  /**
+   * Starts the trace for a single request attempt, notifying the request
+   * listeners of the connection.
+   *
+   * @param method	the HTTP method
+   * @param path	the path of the request
+   * @param attempt	the attempt (0-based)
+   * @param bytesSent	the size of the request body, -1 if unknown
+   * @return		the trace
+   * @see		Connection#addRequestListener(com.github.waikatoufdl.ufdl4j.metrics.RequestListener)
+   */
+  protected RequestTrace startTrace(String method, String path, int attempt, long bytesSent) {
+    RequestTrace	result;
+
+    result = new RequestTrace(m_Connection.requestListeners(), getName(), method, path, attempt);
+    result.started(bytesSent);
+
+    return result;
+  }
+
+  /**
+   * Records the outcome of a finished request attempt with the metrics of
+   * the connection, if enabled. The latency gets measured until the response
+   * headers (raw requests) or the full response (buffered requests) arrived.
+   *
+   * @param trace	the trace of the attempt
+   * @see		Connection#metrics()
+   */
+  protected void recordRequest(RequestTrace trace) {
+    Metrics	metrics;
+
+    metrics = m_Connection.metrics();
+    if (metrics != null)
+      metrics.record(getName(), trace.getMethod(), trace.getPath(), trace.getStatusCode(), trace.getElapsed(), trace.getBytesSent(), trace.getBytesReceived());
+  }
+
+  /**
+   * Records a retry with the metrics of the connection, if enabled.
+   *
+   * @param method	the HTTP method
+   * @param path	the path of the request
+   * @see		Connection#metrics()
+   */
+  protected void recordRetry(String method, String path) {
+    Metrics	metrics;
+
+    metrics = m_Connection.metrics();
+    if (metrics != null)
+      metrics.recordRetry(getName(), method, path);
+  }
+
+  /**
+   * Records a refresh/obtain of the tokens after a 401 with the metrics of
+   * the connection, if enabled, and notifies the request listeners that the
+   * request gets resent.
+   *
+   * @param method	the HTTP method
+   * @param path	the path of the request
+   * @see		Connection#metrics()
+   */
+  protected void recordAuthRetry(String method, String path) {
+    Metrics	metrics;
+
+    metrics = m_Connection.metrics();
+    if (metrics != null)
+      metrics.recordTokenRefresh();
+    if (!m_Connection.requestListeners().isEmpty())
+      new RequestTrace(m_Connection.requestListeners(), getName(), method, path, 0).authRetry(401);
+  }
+
+  /**
+   * Sends the request, retrying idempotent requests on transient failures
+   * according to the retry policy of the connection.
+   *
+   * @param request	the request to send
+   * @param response 	for creating a new response object per attempt
+   * @param replayable	whether the response can be re-created for another attempt (eg not when writing to a stream)
+   * @param <T>		the type of response
+   * @return		the response
+   * @throws Exception	if an error occurred
+   * @see		Connection#retryPolicy()
+   */
+  protected <T extends Response> T send(Request request, Supplier<T> response, boolean replayable) throws Exception {
+    T			result;
+    RetryPolicy		policy;
+    String		method;
+    String		path;
+    int			attempt;
+    RequestTrace	trace;
+    byte[]		body;
+
+    policy  = m_Connection.retryPolicy();
+    method  = String.valueOf(request.method());
+    path    = (request.url() == null) ? getPath() : request.url().getPath();
+    attempt = 0;
+    while (true) {
+      acquire();
+      trace = startTrace(method, path, attempt, -1);
+      try {
+	result = request.execute(response.get());
+      }
+      catch (IOException e) {
+	trace.failed(e);
+	recordRequest(trace);
+	if (replayable && policy.shouldRetry(method, e, attempt)) {
+	  getLogger().warning("Failed to execute " + method + " " + request.url() + ": " + e);
+	  recordRetry(method, path);
+	  policy.await(attempt++, -1);
+	  continue;
+	}
+	throw e;
+      }
+      finally {
+	release();
+      }
+      body = (result instanceof BasicResponse) ? ((BasicResponse) result).body() : null;
+      trace.completed(result.statusCode(), (body == null) ? -1 : body.length);
+      recordRequest(trace);
+      if (!replayable || !policy.shouldRetry(method, result.statusCode(), attempt))
+	return result;
+      getLogger().warning("Failed to execute " + method + " " + request.url() + ": " + result.statusCode());
+      recordRetry(method, path);
+      policy.await(attempt++, RetryPolicy.parseRetryAfter(result.headers()));
+    }
+  }
+
+  /**
+   * Executes the request. Automatically fills in authentication and, in case
+   * of expired tokens, refreshes/obtains them. Threads that encounter the same
+   * expired token share a single refresh/obtain.
    *
    * @param request	the request to execute
+   * @param response 	for creating a new response object per attempt
+   * @param <T>		the type of response
    * @return		the response
    * @throws Exception	if an error occurred
    */
-  protected JsonResponse execute(Request request) throws Exception {
-    JsonResponse 	result;
+  protected <T extends Response> T execute(Request request, Supplier<T> response) throws Exception {
+    return execute(request, response, true);
+  }
+
+  /**
+   * Executes the request. Automatically fills in authentication and, in case
+   * of expired tokens, refreshes/obtains them. Threads that encounter the same
+   * expired token share a single refresh/obtain.
+   *
+   * @param request	the request to execute
+   * @param response 	for creating a new response object per attempt
+   * @param replayable	whether the response can be re-created for another attempt (eg not when writing to a stream)
+   * @param <T>		the type of response
+   * @return		the response
+   * @throws Exception	if an error occurred
+   */
+  protected <T extends Response> T execute(Request request, Supplier<T> response, boolean replayable) throws Exception {
+    T		result;
+    String	token;
 
-    preExecute(request);
-    result = request.execute(new JsonResponse());
+    token  = preExecute(request);
+    result = send(request, response, replayable);
 
     // expired access token?
     if (result.statusCode() == 401) {
-      m_Connection.authentication().refresh();
-      preExecute(request);
-      result = request.execute(new JsonResponse());
+      recordAuthRetry(String.valueOf(request.method()), (request.url() == null) ? getPath() : request.url().getPath());
+      m_Connection.authentication().refresh(token);
+      token  = preExecute(request);
+      result = send(request, response, replayable);
     }
 
     // expired refresh token?
     if (result.statusCode() == 401) {
-      m_Connection.authentication().obtain();
+      recordAuthRetry(String.valueOf(request.method()), (request.url() == null) ? getPath() : request.url().getPath());
+      m_Connection.authentication().obtain(token);
       preExecute(request);
-      result = request.execute(new JsonResponse());
+      result = send(request, response, replayable);
     }
 
     return result;
   }
 
+  /**
+   * Generates the key for coalescing GET requests: the URL plus a digest of
+   * the access token, so that only requests with the same credentials share
+   * a response (without the token ending up in log messages).
+   *
+   * @param request	the request to generate the key for
+   * @param token	the access token the request gets sent with
+   * @return		the key
+   * @throws Exception	if generating the digest fails
+   */
+  protected String coalescingKey(Request request, String token) throws Exception {
+    StringBuilder	result;
+    MessageDigest	digest;
+
+    digest = MessageDigest.getInstance("SHA-256");
+    result = new StringBuilder(String.valueOf(request.url())).append("#");
+    for (byte b: digest.digest(token.getBytes(StandardCharsets.UTF_8)))
+      result.append(String.format("%02x", b));
+
+    return result.toString();
+  }
+
+  /**
+   * Executes the request. Automatically fills in authentication.
+   * If enabled, identical GET requests (same URL and access token) that are
+   * executed concurrently share a single response.
+   *
+   * @param request	the request to execute
+   * @return		the response
+   * @throws Exception	if an error occurred
+   * @see		Connection#coalesceGets(boolean)
+   */
+  protected JsonResponse execute(Request request) throws Exception {
+    SingleFlight<JsonResponse>	coalescer;
+
+    coalescer = m_Connection.getCoalescer();
+    if ((coalescer == null) || !METHOD_GET.equals(String.valueOf(request.method())))
+      return execute(request, JsonResponse::new);
+    else
+      return coalescer.execute(coalescingKey(request, accessToken()), () -> execute(request, JsonResponse::new));
+  }
+
   /**
    * Executes the request, downloading a file. Automatically fills in authentication.
    *
@@ -279,21 +842,7 @@ public abstract class AbstractAction
   protected FileResponse download(Request request, File output, boolean keepEmpty) throws Exception {
     FileResponse 	result;
 
-    preExecute(request);
-
-    result = request.execute(new FileResponse(output));
-
-    // expired access token?
-    if (result.statusCode() == 401) {
-      m_Connection.authentication().refresh();
-      result = request.execute(new FileResponse(output));
-    }
-
-    // expired refresh token?
-    if (result.statusCode() == 401) {
-      m_Connection.authentication().obtain();
-      result = request.execute(new FileResponse(output));
-    }
+    result = execute(request, () -> new FileResponse(output));
 
     if (!keepEmpty && output.exists() && (output.length() == 0)) {
       if (!output.delete())
@@ -312,27 +861,839 @@ public abstract class AbstractAction
    * @throws Exception	if an error occurred
    */
   protected StreamResponse stream(Request request, OutputStream stream) throws Exception {
-    StreamResponse 	result;
+    return execute(request, () -> new StreamResponse(stream), false);
+  }
+
+  /**
+   * Creates a new request builder for executing requests directly via the
+   * pooled HTTP client of the connection.
+   *
+   * @param path	the path to use (server gets automatically added)
+   * @return		the request builder
+   * @see		Connection#httpClient()
+   */
+  protected okhttp3.Request.Builder newRawRequest(String path) {
+    return new okhttp3.Request.Builder()
+      .url(m_Connection.server().build(path));
+  }
 
-    preExecute(request);
+  /**
+   * Executes the request directly via the pooled HTTP client of the connection,
+   * without buffering the response. Automatically fills in authentication and,
+   * in case of expired tokens, refreshes/obtains them. The caller must close
+   * the response.
+   *
+   * @param builder	the request to execute
+   * @return		the response
+   * @throws Exception	if an error occurred
+   * @see		Connection#httpClient()
+   */
+  protected okhttp3.Response executeRaw(okhttp3.Request.Builder builder) throws Exception {
+    okhttp3.Response	result;
+    String		token;
 
-    result = request.execute(new StreamResponse(stream));
+    token  = accessToken();
+    result = sendRaw(builder.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + token).build());
 
     // expired access token?
-    if (result.statusCode() == 401) {
-      m_Connection.authentication().refresh();
-      result = request.execute(new StreamResponse(stream));
+    if (result.code() == 401) {
+      result.close();
+      recordAuthRetry(result.request().method(), result.request().url().encodedPath());
+      m_Connection.authentication().refresh(token);
+      token  = accessToken();
+      result = sendRaw(builder.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + token).build());
     }
 
     // expired refresh token?
-    if (result.statusCode() == 401) {
-      m_Connection.authentication().obtain();
-      result = request.execute(new StreamResponse(stream));
+    if (result.code() == 401) {
+      result.close();
+      recordAuthRetry(result.request().method(), result.request().url().encodedPath());
+      m_Connection.authentication().obtain(token);
+      token  = accessToken();
+      result = sendRaw(builder.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + token).build());
+    }
+
+    return result;
+  }
+
+  /**
+   * Sends the request via the pooled HTTP client of the connection, retrying
+   * idempotent requests on transient failures according to the retry policy
+   * of the connection. Honours Retry-After headers. The rate limiters only
+   * cover the request until the response headers have been received.
+   *
+   * @param request	the request to send
+   * @return		the response
+   * @throws Exception	if an error occurred
+   * @see		Connection#retryPolicy()
+   */
+  protected okhttp3.Response sendRaw(okhttp3.Request request) throws Exception {
+    okhttp3.Response	result;
+    RetryPolicy		policy;
+    String		path;
+    int			attempt;
+    long		sent;
+    RequestTrace	trace;
+
+    policy  = m_Connection.retryPolicy();
+    path    = request.url().encodedPath();
+    sent    = (request.body() == null) ? 0 : request.body().contentLength();
+    attempt = 0;
+    while (true) {
+      acquire();
+      trace = startTrace(request.method(), path, attempt, sent);
+      try {
+	if (m_Connection.requestListeners().isEmpty())
+	  result = m_Connection.httpClient().newCall(request).execute();
+	else
+	  result = m_Connection.httpClient().newCall(request.newBuilder().tag(RequestTrace.class, trace).build()).execute();
+      }
+      catch (IOException e) {
+	trace.failed(e);
+	recordRequest(trace);
+	if (policy.shouldRetry(request.method(), e, attempt)) {
+	  getLogger().warning("Failed to execute " + request.method() + " " + request.url() + ": " + e);
+	  recordRetry(request.method(), path);
+	  policy.await(attempt++, -1);
+	  continue;
+	}
+	throw e;
+      }
+      finally {
+	release();
+      }
+      trace.completed(result.code(), (result.body() == null) ? -1 : result.body().contentLength());
+      recordRequest(trace);
+      if (!policy.shouldRetry(request.method(), result.code(), attempt))
+	return result;
+      getLogger().warning("Failed to execute " + request.method() + " " + request.url() + ": " + result.code());
+      recordRetry(request.method(), path);
+      result.close();
+      policy.await(attempt++, RetryPolicy.parseRetryAfter(result.header(RetryPolicy.HEADER_RETRY_AFTER)));
+    }
+  }
+
+  /**
+   * Uploads the content as multipart form data via the pooled HTTP client of
+   * the connection, streaming it into the request. Automatically fills in
+   * authentication. Since one-shot sources cannot be sent twice, they only
+   * get a single attempt (tokens that are about to expire get refreshed
+   * beforehand). The caller must close the response.
+   *
+   * @param path	the path to post to
+   * @param part	the name of the form part
+   * @param filename	the file name to send with the part
+   * @param source	the content to upload
+   * @return		the response
+   * @throws Exception	if an error occurred
+   */
+  protected okhttp3.Response uploadRaw(String path, String part, String filename, UploadSource source) throws Exception {
+    okhttp3.Response		result;
+    okhttp3.Request.Builder	builder;
+    MultipartBody		body;
+    UploadEvent			event;
+    Exception			error;
+
+    body = new MultipartBody.Builder()
+      .setType(MultipartBody.FORM)
+      .addFormDataPart(part, filename, source.toRequestBody())
+      .build();
+    builder = newRawRequest(path).post(body);
+
+    event            = new UploadEvent();
+    event.filename   = filename;
+    event.bytes      = source.length();
+    event.oneShot    = source.isOneShot();
+    event.statusCode = -1;
+    event.begin();
+    error = null;
+    try {
+      if (!source.isOneShot())
+	result = executeRaw(builder);
+      else
+	result = sendRaw(builder.header(HEADER_AUTHORIZATION, PREFIX_BEARER + " " + accessToken()).build());
+      event.statusCode = result.code();
+      return result;
+    }
+    catch (Exception e) {
+      error = e;
+      throw e;
+    }
+    finally {
+      event.finish(getName(), builder.build().url().encodedPath(), error);
+    }
+  }
+
+  /**
+   * Generates an exception for a failed request that was executed via
+   * {@link #executeRaw(okhttp3.Request.Builder)}. Closes the response.
+   *
+   * @param msg		the error message
+   * @param response	the response of the failed request
+   * @return		the exception
+   */
+  protected FailedRequestException newFailedRequest(String msg, okhttp3.Response response) {
+    String	body;
+
+    try (ResponseBody rbody = response.body()) {
+      body = (rbody == null) ? null : rbody.string();
+    }
+    catch (Exception e) {
+      body = null;
+    }
+
+    return new FailedRequestException(msg, response.code(), response.message(), body);
+  }
+
+  /**
+   * Copies all the data from the input channel into the output channel,
+   * using a large direct buffer.
+   *
+   * @param in		the channel to read from
+   * @param out		the channel to write to
+   * @return		the number of bytes copied
+   * @throws IOException	if reading or writing fails
+   */
+  protected long copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+    ByteBuffer	buffer;
+    long	result;
+
+    result = 0;
+    buffer = DOWNLOAD_BUFFER.get();
+    buffer.clear();
+    while (in.read(buffer) != -1) {
+      buffer.flip();
+      while (buffer.hasRemaining())
+	result += out.write(buffer);
+      buffer.clear();
+    }
+
+    return result;
+  }
+
+  /**
+   * Executes the request directly via the pooled HTTP client of the connection
+   * and streams the response body into the channel, without copying it
+   * through heap buffers. The caller needs to close the channel.
+   *
+   * @param builder	the request to execute
+   * @param channel	the channel to write to
+   * @param msg		the error message in case the request fails
+   * @return		the number of bytes written
+   * @throws Exception	if the request fails
+   */
+  protected long downloadRaw(okhttp3.Request.Builder builder, WritableByteChannel channel, String msg) throws Exception {
+    DownloadEvent	event;
+    Exception		error;
+
+    event          = new DownloadEvent();
+    event.bytes    = -1;
+    event.segments = 1;
+    event.begin();
+    error = null;
+    try (okhttp3.Response response = executeRaw(builder)) {
+      if (!response.isSuccessful())
+	throw newFailedRequest(msg, response);
+      event.bytes = (response.body() == null) ? 0 : copy(response.body().source(), channel);
+      return event.bytes;
+    }
+    catch (Exception e) {
+      error = e;
+      throw e;
+    }
+    finally {
+      event.finish(getName(), builder.build().url().encodedPath(), error);
+    }
+  }
+
+  /**
+   * Executes the request directly via the pooled HTTP client of the connection
+   * and streams the response body into the file via a file channel. The file
+   * only gets created/overwritten if the request was successful.
+   *
+   * @param builder	the request to execute
+   * @param output	the file to write to
+   * @param keepEmpty	whether to keep empty files or remove them automatically
+   * @param msg		the error message in case the request fails
+   * @return		the length of the file
+   * @throws Exception	if the request fails
+   * @see		#downloadRaw(okhttp3.Request.Builder, File, boolean, boolean, String)
+   */
+  protected long downloadRaw(okhttp3.Request.Builder builder, File output, boolean keepEmpty, String msg) throws Exception {
+    return downloadRaw(builder, output, keepEmpty, false, msg);
+  }
+
+  /**
+   * Executes the request directly via the pooled HTTP client of the connection
+   * and streams the response body into the file via a file channel. The file
+   * only gets created/overwritten if the request was successful.
+   * <br>
+   * If the connection drops while receiving the body of an idempotent request
+   * (as determined by the retry policy of the connection), the request gets
+   * retried as often as the policy allows. If the server sent a validator
+   * (strong ETag or Last-Modified), the download continues from the data
+   * received so far via a Range request with If-Range; otherwise, or if the
+   * resource changed in the meantime, it restarts from the beginning.
+   * Non-idempotent requests (eg POST) are not retried.
+   * <br>
+   * With resume enabled, an already existing (partial) output file gets
+   * continued via a Range request. Since no validator is available for it,
+   * the caller must ensure that it is a prefix of the same resource.
+   * Servers that ignore the Range header cause a full download. If the
+   * server announced the length, the length of the final file gets validated.
+   *
+   * @param builder	the request to execute
+   * @param output	the file to write to
+   * @param keepEmpty	whether to keep empty files or remove them automatically
+   * @param resume	whether to resume from an existing output file
+   * @param msg		the error message in case the request fails
+   * @return		the length of the file
+   * @throws Exception	if the request fails
+   */
+  protected long downloadRaw(okhttp3.Request.Builder builder, File output, boolean keepEmpty, boolean resume, String msg) throws Exception {
+    RetryPolicy			policy;
+    String			method;
+    String			path;
+    long			result;
+    long			offset;
+    int				attempt;
+    AtomicBoolean		written;
+    AtomicReference<String>	validator;
+    DownloadEvent		event;
+    Exception			error;
+
+    method = builder.build().method();
+    path   = builder.build().url().encodedPath();
+
+    event          = new DownloadEvent();
+    event.bytes    = -1;
+    event.segments = 1;
+    event.begin();
+    error = null;
+    try {
+      policy    = m_Connection.retryPolicy();
+      offset    = (resume && output.exists()) ? output.length() : 0;
+      attempt   = 0;
+      written   = new AtomicBoolean(false);
+      validator = new AtomicReference<>();
+      event.offset = offset;
+      while (true) {
+	try {
+	  result = downloadRange(builder, output, offset, validator, written, msg);
+	  break;
+	}
+	catch (IOException e) {
+	  if (!policy.shouldRetry(method, e, attempt))
+	    throw e;
+	  // only continue data that this download wrote and that the server can validate
+	  if (written.get())
+	    offset = ((validator.get() != null) && output.exists()) ? output.length() : 0;
+	  if (offset > 0)
+	    getLogger().warning("Download interrupted at " + offset + " bytes, resuming: " + output + "\n" + e);
+	  else
+	    getLogger().warning("Download interrupted, restarting: " + output + "\n" + e);
+	  recordRetry(method, path);
+	  policy.await(attempt++, -1);
+	}
+      }
+
+      if (!keepEmpty && (result == 0)) {
+	if (!output.delete())
+	  throw new IOException("Failed to remove empty file: " + output);
+      }
+      event.bytes = result;
+    }
+    catch (Exception e) {
+      error = e;
+      throw e;
+    }
+    finally {
+      event.finish(getName(), path, error);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the validator of the response that can be used with If-Range,
+   * i.e., a strong ETag or (if allowed) the Last-Modified date.
+   *
+   * @param response	the response to get the validator from
+   * @param strongOnly	whether only strong ETags are acceptable
+   * @return		the validator, null if none available
+   */
+  protected String rangeValidator(okhttp3.Response response, boolean strongOnly) {
+    String	etag;
+
+    etag = response.header(ContentRange.HEADER_ETAG);
+    if (ContentRange.isStrongETag(etag))
+      return etag.trim();
+    if (strongOnly)
+      return null;
+    return response.header(ContentRange.HEADER_LAST_MODIFIED);
+  }
+
+  /**
+   * Downloads the file starting at the offset (appending to the existing
+   * data), falling back to a full download if the server does not support
+   * ranges or the resource no longer matches the validator.
+   *
+   * @param builder	the request to execute
+   * @param output	the file to write to
+   * @param offset	the number of bytes already present in the file, 0 for full download
+   * @param validator	the If-Range validator to send (if any), gets updated from the response
+   * @param written	gets set once the file has been opened for writing
+   * @param msg		the error message in case the request fails
+   * @return		the length of the file
+   * @throws Exception	if the request fails or the file is incomplete
+   */
+  protected long downloadRange(okhttp3.Request.Builder builder, File output, long offset, AtomicReference<String> validator, AtomicBoolean written, String msg) throws Exception {
+    ContentRange	range;
+    FileChannel		channel;
+    boolean		restart;
+    long		expected;
+    long		result;
+
+    builder.removeHeader(ContentRange.HEADER_RANGE);
+    builder.removeHeader(ContentRange.HEADER_IF_RANGE);
+    if (offset > 0) {
+      builder.header(ContentRange.HEADER_RANGE, ContentRange.toRangeHeader(offset, -1));
+      if (validator.get() != null)
+	builder.header(ContentRange.HEADER_IF_RANGE, validator.get());
+    }
+
+    restart  = false;
+    expected = -1;
+    result   = 0;
+    try (okhttp3.Response response = executeRaw(builder)) {
+      range = ContentRange.parse(response.header(ContentRange.HEADER_CONTENT_RANGE));
+
+      // nothing left to download?
+      if ((response.code() == 416) && (offset > 0)) {
+	if ((range != null) && (range.getTotal() == offset))
+	  return offset;
+	getLogger().warning("Range not satisfiable, restarting download: " + output);
+	restart = true;
+      }
+      else {
+	if (!response.isSuccessful())
+	  throw newFailedRequest(msg, response);
+
+	if ((response.code() == 206) && (offset > 0) && ((range == null) || (range.getStart() != offset))) {
+	  getLogger().warning("Unexpected range " + range + ", restarting download: " + output);
+	  restart = true;
+	}
+	else {
+	  if ((response.code() == 206) && (offset > 0)) {
+	    expected = range.getTotal();
+	    if (validator.get() == null)
+	      validator.set(rangeValidator(response, false));
+	    channel  = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+	    channel.truncate(offset);
+	    channel.position(offset);
+	  }
+	  else {
+	    if (offset > 0)
+	      getLogger().info("Server ignored range or resource changed, downloading full file: " + output);
+	    expected = (response.body() == null) ? 0 : response.body().contentLength();
+	    validator.set(rangeValidator(response, false));
+	    channel  = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	  }
+	  written.set(true);
+
+	  try {
+	    if (response.body() != null)
+	      copy(response.body().source(), channel);
+	    result = channel.size();
+	  }
+	  finally {
+	    channel.close();
+	  }
+	}
+      }
+    }
+
+    // restart outside the try block, so that the previous response is closed
+    if (restart)
+      return downloadRange(builder, output, 0, validator, written, msg);
+
+    if ((expected > -1) && (result != expected))
+      throw new IOException("Incomplete download, expected " + expected + " bytes but got " + result + ": " + output);
+
+    return result;
+  }
+
+  /**
+   * Downloads the file by splitting it into byte ranges that get fetched
+   * concurrently (using the fan-out executor of the connection) and written
+   * positionally into a preallocated file. A first request for a single byte
+   * determines the total length and the strong ETag of the resource; if the
+   * server ignores the range, its response gets used as a normal download.
+   * Without a strong ETag, there is no guarantee that the segments stem from
+   * the same content, so the file gets downloaded as a single stream instead.
+   * Every segment request sends the ETag via If-Range and the download fails
+   * if the resource changes in the meantime. Segments that get interrupted
+   * are resumed as often as the retry policy of the connection allows
+   * (idempotent requests only). Segments are at least {@link #MIN_SEGMENT_SIZE}
+   * bytes. If the download fails, the output file gets removed.
+   *
+   * @param request	for creating the request (gets called once per segment)
+   * @param output	the file to write to
+   * @param segments	the maximum number of segments, 1 for a normal download
+   * @param msg		the error message in case the request fails
+   * @return		the length of the file
+   * @throws Exception	if the download fails
+   */
+  protected long downloadSegmented(Supplier<okhttp3.Request.Builder> request, File output, int segments, String msg) throws Exception {
+    List<CompletableFuture<Long>>	futures;
+    ContentRange			range;
+    String				etag;
+    FileChannel				channel;
+    long				total;
+    long				size;
+    long				expected;
+    int					i;
+    DownloadEvent			event;
+    Exception				error;
+
+    if (segments <= 1)
+      return downloadRaw(request.get(), output, true, msg);
+
+    event          = new DownloadEvent();
+    event.bytes    = -1;
+    event.segments = segments;
+    event.begin();
+    error = null;
+    try {
+      // determine length
+      try (okhttp3.Response response = executeRaw(request.get().header(ContentRange.HEADER_RANGE, ContentRange.toRangeHeader(0, 0)))) {
+	if (!response.isSuccessful())
+	  throw newFailedRequest(msg, response);
+	range = ContentRange.parse(response.header(ContentRange.HEADER_CONTENT_RANGE));
+	if ((response.code() != 206) || (range == null) || (range.getTotal() < 0)) {
+	  getLogger().info("Server does not support ranges, downloading as single stream: " + output);
+	  expected = (response.body() == null) ? 0 : response.body().contentLength();
+	  try (FileChannel out = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+	    if (response.body() != null)
+	      copy(response.body().source(), out);
+	    total = out.size();
+	  }
+	  if ((expected > -1) && (total != expected))
+	    throw new IOException("Incomplete download, expected " + expected + " bytes but got " + total + ": " + output);
+	  event.segments = 1;
+	  event.bytes    = total;
+	  return total;
+	}
+	etag = rangeValidator(response, true);
+      }
+
+      // segments can only be combined if they are guaranteed to come from the same content
+      if (etag == null) {
+	getLogger().info("Server did not send a strong ETag, downloading as single stream: " + output);
+	event.segments = 1;
+	event.bytes    = downloadRaw(request.get(), output, true, msg);
+	return event.bytes;
+      }
+
+      total    = range.getTotal();
+      segments = (int) Math.max(1, Math.min(segments, (total + MIN_SEGMENT_SIZE - 1) / MIN_SEGMENT_SIZE));
+      size     = (total + segments - 1) / segments;
+      event.segments = segments;
+      getLogger().info("downloading " + total + " bytes in " + segments + " segments: " + output);
+
+      channel = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      futures = new ArrayList<>();
+      try {
+	// preallocate
+	if (total > 0)
+	  channel.write(ByteBuffer.wrap(new byte[1]), total - 1);
+	for (i = 0; i < segments; i++) {
+	  final long first = i * size;
+	  final long last  = Math.min(total, first + size) - 1;
+	  if (first > last)
+	    break;
+	  futures.add(fanOut(() -> downloadSegment(request, etag, channel, first, last, msg)));
+	}
+	for (CompletableFuture<Long> future: futures)
+	  future.join();
+      }
+      catch (Exception e) {
+	for (CompletableFuture<Long> future: futures)
+	  future.cancel(false);
+	channel.close();
+	if (!output.delete())
+	  getLogger().warning("Failed to remove incomplete file: " + output);
+	if ((e instanceof CompletionException) && (e.getCause() instanceof Exception))
+	  throw (Exception) e.getCause();
+	throw e;
+      }
+      finally {
+	channel.close();
+      }
+
+      event.bytes = total;
+      return total;
+    }
+    catch (Exception e) {
+      error = e;
+      throw e;
+    }
+    finally {
+      event.finish(getName(), request.get().build().url().encodedPath(), error);
+    }
+  }
+
+
+  /**
+   * Downloads a single byte range and writes it into the channel at the
+   * corresponding position, resuming it if interrupted. The range only gets
+   * accepted if the resource still matches the ETag.
+   *
+   * @param request	for creating the request
+   * @param etag	the strong ETag of the resource, sent via If-Range
+   * @param channel	the channel to write to
+   * @param first	the first byte of the range (inclusive)
+   * @param last	the last byte of the range (inclusive)
+   * @param msg		the error message in case the request fails
+   * @return		the number of bytes in the range
+   * @throws Exception	if the download fails
+   */
+  protected long downloadSegment(Supplier<okhttp3.Request.Builder> request, String etag, FileChannel channel, long first, long last, String msg) throws Exception {
+    RetryPolicy		policy;
+    ContentRange	range;
+    ByteBuffer		buffer;
+    String		method;
+    String		received;
+    long		position;
+    int			attempt;
+
+    policy   = m_Connection.retryPolicy();
+    method   = request.get().build().method();
+    position = first;
+    attempt  = 0;
+    buffer   = DOWNLOAD_BUFFER.get();
+    while (position <= last) {
+      try (okhttp3.Response response = executeRaw(request.get()
+	.header(ContentRange.HEADER_RANGE, ContentRange.toRangeHeader(position, last))
+	.header(ContentRange.HEADER_IF_RANGE, etag))) {
+	if (!response.isSuccessful())
+	  throw newFailedRequest(msg, response);
+	range    = ContentRange.parse(response.header(ContentRange.HEADER_CONTENT_RANGE));
+	received = response.header(ContentRange.HEADER_ETAG);
+	if ((response.code() == 200) || ((received != null) && !etag.equals(received.trim())))
+	  throw new IllegalStateException("Resource changed during segmented download, expected ETag " + etag + " but received: " + received);
+	if ((response.code() != 206) || (range == null) || (range.getStart() != position))
+	  throw new IllegalStateException("Server did not honour range " + position + "-" + last + ", received: " + range);
+	buffer.clear();
+	buffer.limit((int) Math.min(buffer.capacity(), last - position + 1));
+	while ((buffer.limit() > 0) && (response.body().source().read(buffer) != -1)) {
+	  buffer.flip();
+	  while (buffer.hasRemaining())
+	    position += channel.write(buffer, position);
+	  buffer.clear();
+	  buffer.limit((int) Math.min(buffer.capacity(), last - position + 1));
+	}
+	if (position <= last)
+	  throw new IOException("Incomplete segment, expected " + (last - first + 1) + " bytes but got " + (position - first));
+      }
+      catch (IOException e) {
+	if (!policy.shouldRetry(method, e, attempt))
+	  throw e;
+	getLogger().warning("Segment " + first + "-" + last + " interrupted at " + position + ", resuming\n" + e);
+	recordRetry(method, request.get().build().url().encodedPath());
+	policy.await(attempt++, -1);
+      }
+    }
+
+    return last - first + 1;
+  }
+
+  /**
+   * Lists the objects of the action incrementally, i.e., the response gets
+   * parsed while iterating rather than loaded into memory in one go.
+   * The caller must close the iterator if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param wrapper	for turning the JSON objects into wrappers
+   * @param msg		the error message in case the request fails
+   * @param <T>		the type of wrapper
+   * @return		the iterator
+   * @throws Exception	if request fails
+   */
+  protected <T> JsonArrayIterator<T> iterate(Filter filter, Function<JsonObject, T> wrapper, String msg) throws Exception {
+    okhttp3.Response	response;
+    RequestBody		body;
+
+    if (filter == null)
+      body = RequestBody.create(new byte[0], null);
+    else
+      body = RequestBody.create(filter.toJsonObject().toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
+    response = executeRaw(newRawRequest(getPath() + "list").post(body));
+    if (!response.isSuccessful())
+      throw newFailedRequest(msg + (filter == null ? "" : "\nFilter: " + filter.toJsonObject()), response);
+
+    try {
+      return new JsonArrayIterator<>(response.body().charStream(), wrapper);
+    }
+    catch (Exception e) {
+      response.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Loads the objects with the specified PKs, using list calls with chunks of
+   * at most {@link #LOAD_ALL_CHUNK_SIZE} PKs that get executed in parallel.
+   * Inactive objects get included, like when loading them individually.
+   *
+   * @param list	the list call to use
+   * @param pks		the primary keys of the objects to load
+   * @param <T>		the type of object
+   * @return		the objects keyed by PK (in order of the PKs), unknown PKs are omitted
+   * @throws Exception	if a list call fails
+   */
+  protected <T extends JsonObjectWithPK> Map<Integer, T> loadAll(PagingIterator.PageLoader<T> list, int... pks) throws Exception {
+    Map<Integer, T>			result;
+    Map<Integer, T>			loaded;
+    List<CompletableFuture<List<T>>>	chunks;
+    int[]				unique;
+    int					i;
+
+    result = new LinkedHashMap<>();
+    unique = Arrays.stream(pks).distinct().toArray();
+    if (unique.length == 0)
+      return result;
+
+    getLogger().info("loading " + unique.length + " objects in chunks of " + LOAD_ALL_CHUNK_SIZE);
+
+    chunks = new ArrayList<>();
+    for (i = 0; i < unique.length; i += LOAD_ALL_CHUNK_SIZE) {
+      final Filter filter = new GenericFilter(
+	new AbstractExpression[]{new In("pk", Arrays.copyOfRange(unique, i, Math.min(unique.length, i + LOAD_ALL_CHUNK_SIZE)), false)},
+	null, true);
+      if (unique.length <= LOAD_ALL_CHUNK_SIZE)
+	chunks.add(CompletableFuture.completedFuture(list.list(filter)));
+      else
+	chunks.add(fanOut(() -> list.list(filter)));
+    }
+
+    loaded = new HashMap<>();
+    try {
+      for (CompletableFuture<List<T>> chunk: chunks) {
+	for (T obj: chunk.join())
+	  loaded.put(obj.getPK(), obj);
+      }
+    }
+    catch (CompletionException e) {
+      for (CompletableFuture<List<T>> chunk: chunks)
+	chunk.cancel(false);
+      if (e.getCause() instanceof Exception)
+	throw (Exception) e.getCause();
+      throw e;
+    }
+
+    for (int pk: unique) {
+      if (loaded.containsKey(pk))
+	result.put(pk, loaded.get(pk));
     }
 
     return result;
   }
 
+  /**
+   * Executes the call asynchronously, using the executor of the connection.
+   * The call blocks an executor thread until it completes, i.e., the number
+   * of concurrent calls is capped by the size of the executor (see
+   * {@link Connection#asyncThreads(int)}) and further calls get queued.
+   *
+   * @param call	the call to execute
+   * @param <T>		the type of result
+   * @return		the future result
+   * @see		Connection#executor()
+   */
+  public <T> CompletableFuture<T> async(Callable<T> call) {
+    if (m_Connection == null)
+      throw new IllegalStateException("No connection set!");
+
+    return supplyAsync(call, m_Connection.executor());
+  }
+
+  /**
+   * Executes a part of a call in parallel, using the fan-out executor of the
+   * connection. Unlike {@link #async(Callable)}, the caller may wait for the
+   * result while itself running on the async executor.
+   *
+   * @param call	the call to execute
+   * @param <T>		the type of result
+   * @return		the future result
+   * @see		Connection#fanOutExecutor()
+   */
+  protected <T> CompletableFuture<T> fanOut(Callable<T> call) {
+    if (m_Connection == null)
+      throw new IllegalStateException("No connection set!");
+
+    return supplyAsync(call, m_Connection.fanOutExecutor());
+  }
+
+  /**
+   * Executes the call with the executor, wrapping checked exceptions in
+   * {@link CompletionException}s.
+   *
+   * @param call	the call to execute
+   * @param executor	the executor to use
+   * @param <T>		the type of result
+   * @return		the future result
+   */
+  protected <T> CompletableFuture<T> supplyAsync(Callable<T> call, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+	return call.call();
+      }
+      catch (CompletionException e) {
+	throw e;
+      }
+      catch (Exception e) {
+	throw new CompletionException(e);
+      }
+    }, executor);
+  }
+
+  /**
+   * Executes the request asynchronously. Automatically fills in authentication.
+   *
+   * @param request	the request to execute
+   * @return		the future response
+   * @see		#execute(Request)
+   */
+  protected CompletableFuture<JsonResponse> executeAsync(Request request) {
+    return async(() -> execute(request));
+  }
+
+  /**
+   * Executes the request asynchronously, downloading a file. Automatically fills in authentication.
+   *
+   * @param request	the request to execute
+   * @param output 	the file to write to
+   * @param keepEmpty 	whether to keep empty files or remove them automatically
+   * @return		the future response
+   * @see		#download(Request, File, boolean)
+   */
+  protected CompletableFuture<FileResponse> downloadAsync(Request request, File output, boolean keepEmpty) {
+    return async(() -> download(request, output, keepEmpty));
+  }
+
+  /**
+   * Executes the request asynchronously, downloads the file as stream. Automatically fills in authentication.
+   *
+   * @param request	the request to execute
+   * @param stream 	the output stream to use (caller needs to close it)
+   * @return		the future response
+   * @see		#stream(Request, OutputStream)
+   */
+  protected CompletableFuture<StreamResponse> streamAsync(Request request, OutputStream stream) {
+    return async(() -> stream(request, stream));
+  }
+
   /**
    * Returns a short description of the state.
    *
@@ -0,0 +1,257 @@
+/*
+ * BatchLoader.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.action;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithPK;
+import com.github.waikatoufdl.ufdl4j.core.TTLCache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the PKs of references that still need resolving and, once the
+ * first of them gets dereferenced, loads all pending ones in a single
+ * batch. Resolved objects expire after a time-to-live and can be evicted
+ * individually (eg after an update) or via {@link #clear()}.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T>	the type of object
+ */
+public class BatchLoader<T extends JsonObjectWithPK>
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = -3000431937706285604L;
+
+  /**
+   * For loading many objects at once.
+   *
+   * @param <T>	the type of object
+   */
+  @FunctionalInterface
+  public interface BatchFunction<T> {
+
+    /**
+     * Loads the objects.
+     *
+     * @param pks	the primary keys of the objects to load
+     * @return		the objects keyed by PK, unknown PKs are omitted
+     * @throws Exception	if loading fails
+     */
+    public Map<Integer, T> loadAll(int... pks) throws Exception;
+  }
+
+  /** the default time-to-live in msec of resolved objects. */
+  public static final long DEFAULT_TTL = 60000;
+
+  /** the default maximum number of resolved objects to keep. */
+  public static final int DEFAULT_MAX_SIZE = 10000;
+
+  /** for loading the objects. */
+  protected transient BatchFunction<T> m_Function;
+
+  /** the PKs waiting to be resolved. */
+  protected Set<Integer> m_Pending;
+
+  /** the PKs currently being loaded. */
+  protected Set<Integer> m_Loading;
+
+  /** the resolved objects. */
+  protected TTLCache<Integer, T> m_Resolved;
+
+  /** the PKs that could not be resolved. */
+  protected TTLCache<Integer, Boolean> m_Missing;
+
+  /** gets incremented with every eviction, to discard batches that predate it. */
+  protected long m_Generation;
+
+  /**
+   * Initializes the loader with the default time-to-live and size.
+   *
+   * @param function	for loading the objects
+   * @see		#DEFAULT_TTL
+   * @see		#DEFAULT_MAX_SIZE
+   */
+  public BatchLoader(BatchFunction<T> function) {
+    this(function, DEFAULT_TTL, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Initializes the loader.
+   *
+   * @param function	for loading the objects
+   * @param ttl		the time-to-live in msec of resolved objects
+   * @param maxSize	the maximum number of resolved objects to keep
+   */
+  public BatchLoader(BatchFunction<T> function, long ttl, int maxSize) {
+    m_Function = function;
+    m_Pending  = new LinkedHashSet<>();
+    m_Loading  = new HashSet<>();
+    m_Resolved = new TTLCache<>(ttl, maxSize);
+    m_Missing  = new TTLCache<>(ttl, maxSize);
+  }
+
+  /**
+   * Returns a lazy reference to the object with the specified PK. The PK
+   * gets queued for the next batch.
+   *
+   * @param pk		the primary key of the object
+   * @return		the reference
+   */
+  public synchronized Reference<T> reference(int pk) {
+    if (!isResolved(pk) && !m_Loading.contains(pk))
+      m_Pending.add(pk);
+    return new Reference<>(this, pk);
+  }
+
+  /**
+   * Returns whether the object with the specified PK has been resolved already.
+   *
+   * @param pk		the primary key of the object
+   * @return		true if resolved (or known to be missing)
+   */
+  public synchronized boolean isResolved(int pk) {
+    return (m_Resolved.get(pk) != null) || (m_Missing.get(pk) != null);
+  }
+
+  /**
+   * Waits for the batch that is loading the PK, if any.
+   *
+   * @param pk		the primary key of the object
+   * @throws InterruptedException	if interrupted while waiting
+   */
+  protected synchronized void awaitLoading(int pk) throws InterruptedException {
+    while (m_Loading.contains(pk))
+      wait();
+  }
+
+  /**
+   * Returns the object with the specified PK, loading it along with all
+   * other pending PKs if necessary. The loading happens outside the lock,
+   * references to objects in a batch that is in progress wait for it.
+   *
+   * @param pk		the primary key of the object
+   * @return		the object, null if not found
+   * @throws Exception	if loading fails
+   */
+  public T resolve(int pk) throws Exception {
+    Map<Integer, T>	batch;
+    T			result;
+
+    while (true) {
+      synchronized (this) {
+	awaitLoading(pk);
+	result = m_Resolved.get(pk);
+	if ((result != null) || (m_Missing.get(pk) != null))
+	  return result;
+	m_Pending.add(pk);
+      }
+      batch = loadPending();
+      if (batch.containsKey(pk))
+	return batch.get(pk);
+      // picked up by the batch of another thread, check again
+    }
+  }
+
+  /**
+   * Loads all pending PKs in a single batch.
+   *
+   * @throws Exception	if loading fails
+   */
+  public void resolvePending() throws Exception {
+    loadPending();
+  }
+
+  /**
+   * Loads all pending PKs in a single batch. The pending PKs get taken
+   * under the lock, the objects get loaded outside of it.
+   *
+   * @return		the objects of the batch keyed by PK, null values for unknown PKs
+   * @throws Exception	if loading fails (the PKs are queued again)
+   */
+  protected Map<Integer, T> loadPending() throws Exception {
+    Map<Integer, T>	result;
+    Map<Integer, T>	loaded;
+    Set<Integer>	batch;
+    long		generation;
+
+    synchronized (this) {
+      batch = new LinkedHashSet<>(m_Pending);
+      m_Pending.clear();
+      m_Loading.addAll(batch);
+      generation = m_Generation;
+    }
+
+    result = new HashMap<>();
+    if (batch.isEmpty())
+      return result;
+
+    getLogger().info("resolving " + batch.size() + " references");
+    try {
+      loaded = m_Function.loadAll(batch.stream().mapToInt(Integer::intValue).toArray());
+    }
+    catch (Exception e) {
+      synchronized (this) {
+	m_Loading.removeAll(batch);
+	m_Pending.addAll(batch);
+	notifyAll();
+      }
+      throw e;
+    }
+
+    synchronized (this) {
+      for (int pk: batch) {
+	result.put(pk, loaded.get(pk));
+	// don't store objects that might predate an eviction
+	if (generation != m_Generation)
+	  continue;
+	if (loaded.containsKey(pk))
+	  m_Resolved.put(pk, loaded.get(pk));
+	else
+	  m_Missing.put(pk, Boolean.TRUE);
+      }
+      m_Loading.removeAll(batch);
+      notifyAll();
+    }
+
+    return result;
+  }
+
+  /**
+   * Removes the object with the specified PK, eg after it got updated or
+   * deleted. It gets loaded again when dereferenced the next time.
+   *
+   * @param pk		the primary key of the object
+   */
+  public synchronized void evict(int pk) {
+    m_Generation++;
+    m_Resolved.invalidate(pk);
+    m_Missing.invalidate(pk);
+  }
+
+  /**
+   * Removes all resolved objects and pending PKs.
+   */
+  public synchronized void clear() {
+    m_Generation++;
+    m_Pending.clear();
+    m_Resolved.invalidateAll();
+    m_Missing.invalidateAll();
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public synchronized String toString() {
+    return "pending=" + m_Pending.size() + ", loading=" + m_Loading.size() + ", resolved=" + m_Resolved.size() + ", missing=" + m_Missing.size();
+  }
+}
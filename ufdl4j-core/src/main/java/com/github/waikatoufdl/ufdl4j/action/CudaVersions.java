@@ -1,6 +1,6 @@
 /*
  * CudaVersions.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,9 +10,11 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithVersion;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.VersionFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -20,6 +22,9 @@ import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates cuda version operations.
@@ -108,6 +113,9 @@ public class CudaVersions
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<CudaVersion> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -146,6 +154,17 @@ public class CudaVersions
    * @throws Exception	if request fails
    */
   public List<CudaVersion> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the cuda versions, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of cuda versions
+   * @throws Exception	if request fails
+   */
+  protected List<CudaVersion> listUncached(Filter filter) throws Exception {
     List<CudaVersion>	result;
     JsonResponse 	response;
     JsonElement		element;
@@ -175,6 +194,58 @@ public class CudaVersions
     return result;
   }
 
+  /**
+   * For listing the cuda versions asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of cuda versions
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<CudaVersion>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the cuda versions incrementally, parsing the response while iterating.
+   * Only the current CudaVersion object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the cuda versions
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<CudaVersion> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating cuda versions" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, CudaVersion::new, "Failed to list cuda versions!");
+  }
+
+  /**
+   * For listing the cuda versions as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of cuda versions
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<CudaVersion> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the cuda versions page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of cuda versions per page
+   * @return		the iterator over the cuda versions
+   * @see		#list(Filter)
+   */
+  public PagingIterator<CudaVersion> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific cuda version by primary key.
    *
@@ -183,6 +254,17 @@ public class CudaVersions
    * @throws Exception	if request fails
    */
   public CudaVersion load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific cuda version by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the cuda version to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected CudaVersion loadUncached(int pk) throws Exception {
     CudaVersion		result;
     JsonResponse response;
     JsonElement		element;
@@ -205,6 +287,44 @@ public class CudaVersions
     return result;
   }
 
+  /**
+   * For loading a specific cuda version by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the cuda version to load
+   * @return		the future cuda version
+   * @see		#load(int)
+   */
+  public CompletableFuture<CudaVersion> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many cuda versions by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the cuda versions to load
+   * @return		the cuda versions keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, CudaVersion> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the cuda version with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the cuda version
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<CudaVersion> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific cuda version by version.
    *
@@ -254,6 +374,7 @@ public class CudaVersions
     request = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new CudaVersion(response.jsonObject());
     else
@@ -301,6 +422,7 @@ public class CudaVersions
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new CudaVersion(response.jsonObject());
     else
@@ -351,6 +473,7 @@ public class CudaVersions
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new CudaVersion(response.jsonObject());
     else
@@ -388,6 +511,7 @@ public class CudaVersions
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
@@ -1,6 +1,6 @@
 /*
  * Datasets.java
- * Copyright (C) 2019-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -9,32 +9,46 @@ import com.github.fracpete.requests4j.attachment.FileAttachment;
 import com.github.fracpete.requests4j.core.MediaTypeHelper;
 import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.BasicResponse;
-import com.github.fracpete.requests4j.response.FileResponse;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.fracpete.requests4j.response.Response;
 import com.github.fracpete.requests4j.response.StreamResponse;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
+import com.github.waikatoufdl.ufdl4j.action.Projects.Project;
+import com.github.waikatoufdl.ufdl4j.action.Users.User;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithDomain;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithIntVersion;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
+import com.github.waikatoufdl.ufdl4j.transfer.BulkUpload;
+import com.github.waikatoufdl.ufdl4j.transfer.DatasetMirror;
+import com.github.waikatoufdl.ufdl4j.transfer.DatasetPush;
+import com.github.waikatoufdl.ufdl4j.transfer.TransferItem;
+import com.github.waikatoufdl.ufdl4j.transfer.TransferSummary;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import okhttp3.RequestBody;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates dataset operations.
@@ -238,6 +252,9 @@ public class Datasets
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Dataset> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -305,6 +322,58 @@ public class Datasets
     return result;
   }
 
+  /**
+   * For listing the datasets asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of datasets
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Dataset>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the datasets incrementally, parsing the response while iterating.
+   * Only the current Dataset object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the datasets
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Dataset> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating datasets" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Dataset::new, "Failed to list datasets!");
+  }
+
+  /**
+   * For listing the datasets as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of datasets
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Dataset> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the datasets page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of datasets per page
+   * @return		the iterator over the datasets
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Dataset> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific dataset by primary key.
    *
@@ -335,6 +404,86 @@ public class Datasets
     return result;
   }
 
+  /**
+   * For loading a specific dataset by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the dataset to load
+   * @return		the future dataset
+   * @see		#load(int)
+   */
+  public CompletableFuture<Dataset> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many datasets by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the datasets to load
+   * @return		the datasets keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Dataset> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the dataset with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the dataset
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Dataset> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
+  /**
+   * Returns a lazy reference to the project of the dataset. All pending
+   * project references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param dataset 	the dataset to get the project for
+   * @return		the reference, null if none set
+   */
+  public Reference<Project> project(Dataset dataset) {
+    if (dataset.getProject() == -1)
+      return null;
+    return getClient().projects().reference(dataset.getProject());
+  }
+
+  /**
+   * Returns a lazy reference to the license of the dataset. All pending
+   * license references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param dataset 	the dataset to get the license for
+   * @return		the reference, null if none set
+   */
+  public Reference<License> license(Dataset dataset) {
+    if (dataset.getLicense() == -1)
+      return null;
+    return getClient().licenses().reference(dataset.getLicense());
+  }
+
+  /**
+   * Returns a lazy reference to the creator of the dataset. All pending
+   * creator references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param dataset 	the dataset to get the creator for
+   * @return		the reference, null if none set
+   */
+  public Reference<User> creator(Dataset dataset) {
+    if (dataset.getCreator() == -1)
+      return null;
+    return getClient().users().reference(dataset.getCreator());
+  }
+
   /**
    * For loading a specific dataset by name.
    *
@@ -347,7 +496,9 @@ public class Datasets
 
     getLogger().info("loading dataset with name: " + name);
 
-    result = null;
+    result = loadIndexed(name, Dataset::getName, this::load);
+    if (result != null)
+      return result;
 
     for (Dataset dataset : list(new NameFilter(name))) {
       result = dataset;
@@ -356,6 +507,8 @@ public class Datasets
 
     if (result == null)
       getLogger().warning("failed to load dataset: " + name);
+    else
+      getNameIndex().add(name, result.getPK());
 
     return result;
   }
@@ -462,8 +615,11 @@ public class Datasets
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Dataset(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update dataset: " + pk, response);
 
@@ -524,8 +680,11 @@ public class Datasets
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Dataset(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to partially update dataset: " + pk, response);
 
@@ -569,6 +728,82 @@ public class Datasets
       throw new FailedRequestException("Failed to add file '" + name + "' to dataset " + pk + ": " + file, response);
   }
 
+  /**
+   * Adds the content to the dataset (uploads it to the server), streaming it
+   * from the source rather than a file.
+   *
+   * @param pk		the dataset ID
+   * @param source	the content to upload, eg from a stream, channel or buffer
+   * @param name	the name to use in the dataset
+   * @return		true if successfully added/uploaded
+   * @throws Exception	if request fails, eg invalid dataset PK
+   */
+  public boolean addFile(int pk, UploadSource source, String name) throws Exception {
+    getLogger().info("adding stream '" + name + "' to: " + pk);
+
+    try (okhttp3.Response response = uploadRaw(getPath() + pk + "/files/" + name, "file", name, source)) {
+      if (!response.isSuccessful())
+	throw newFailedRequest("Failed to add stream '" + name + "' to dataset " + pk, response);
+      return true;
+    }
+  }
+
+  /**
+   * Adds the file to the dataset (uploads it to the server) asynchronously.
+   *
+   * @param pk		the dataset ID
+   * @param file	the file to upload
+   * @param name	the name to use in the dataset
+   * @return		the future success flag
+   * @see		#addFile(int, File, String)
+   */
+  public CompletableFuture<Boolean> addFileAsync(int pk, File file, String name) {
+    return async(() -> addFile(pk, file, name));
+  }
+
+  /**
+   * Adds all regular files in the directory (not recursive) to the dataset,
+   * uploading them concurrently. Use {@link BulkUpload} directly for
+   * configuring concurrency, retries and progress listeners.
+   *
+   * @param pk		the dataset ID
+   * @param dir		the directory with the files to upload
+   * @return		the per-file results
+   * @throws Exception	if listing the directory fails or interrupted
+   */
+  public TransferSummary addFiles(int pk, Path dir) throws Exception {
+    return new BulkUpload(this, pk).upload(dir);
+  }
+
+  /**
+   * Adds the files to the dataset, uploading them concurrently. Use
+   * {@link BulkUpload} directly for configuring concurrency, retries and
+   * progress listeners.
+   *
+   * @param pk		the dataset ID
+   * @param items	the files and their names in the dataset
+   * @return		the per-file results
+   * @throws Exception	if interrupted
+   */
+  public TransferSummary addFiles(int pk, Iterable<TransferItem> items) throws Exception {
+    return new BulkUpload(this, pk).upload(items);
+  }
+
+  /**
+   * Pushes the directory to the dataset, uploading only new files and
+   * files that changed since the last push. Use {@link DatasetPush}
+   * directly for configuring concurrency, retries and progress listeners.
+   *
+   * @param pk		the dataset ID
+   * @param dir		the directory to push
+   * @param deleteRemote	whether to delete files from the dataset that do not exist locally
+   * @return		the per-file results
+   * @throws Exception	if loading the dataset fails or interrupted
+   */
+  public TransferSummary push(int pk, Path dir, boolean deleteRemote) throws Exception {
+    return new DatasetPush(this, pk, dir).deleteRemote(deleteRemote).push();
+  }
+
   /**
    * Retrieves the specified file from the dataset (downloads it from the server).
    *
@@ -592,17 +827,52 @@ public class Datasets
    * @throws Exception	if request fails, eg invalid dataset PK
    */
   public boolean getFile(int pk, String name, File output) throws Exception {
-    Request 	request;
-    Response 	response;
+    getLogger().info("getting file '" + name + "' from: " + pk);
+    downloadRaw(newRawRequest(getPath() + pk + "/files/" + name).get(), output, true, "Failed to get file from dataset " + pk + ": " + name);
+    return true;
+  }
 
+  /**
+   * Retrieves the specified file from the dataset (downloads it from the server),
+   * streaming it into the channel.
+   *
+   * @param pk		the dataset ID
+   * @param name	the name used in the dataset
+   * @param channel	the channel to write to (caller needs to close it)
+   * @return		the number of bytes downloaded
+   * @throws Exception	if request fails, eg invalid dataset PK
+   */
+  public long getFile(int pk, String name, WritableByteChannel channel) throws Exception {
     getLogger().info("getting file '" + name + "' from: " + pk);
+    return downloadRaw(newRawRequest(getPath() + pk + "/files/" + name).get(), channel, "Failed to get file from dataset " + pk + ": " + name);
+  }
 
-    request = newGet(getPath() + pk + "/files/" + name);
-    response = download(request, output);
-    if (response.ok())
-      return true;
-    else
-      throw new FailedRequestException("Failed to get file from dataset " + pk + ": " + name, response);
+  /**
+   * Retrieves the specified file from the dataset (downloads it from the server) asynchronously.
+   *
+   * @param pk		the dataset ID
+   * @param output	the output file
+   * @param name	the name used in the dataset
+   * @return		the future success flag
+   * @see		#getFile(int, String, File)
+   */
+  public CompletableFuture<Boolean> getFileAsync(int pk, String name, File output) {
+    return async(() -> getFile(pk, name, output));
+  }
+
+  /**
+   * Mirrors all files of the dataset into the directory, downloading them
+   * concurrently. Files that are already present and unchanged since the
+   * last mirror are skipped. Use {@link DatasetMirror} directly for
+   * configuring concurrency, retries and progress listeners.
+   *
+   * @param pk		the dataset ID
+   * @param dir		the directory to mirror into
+   * @return		the per-file results
+   * @throws Exception	if loading the dataset fails or interrupted
+   */
+  public TransferSummary mirror(int pk, Path dir) throws Exception {
+    return new DatasetMirror(this, pk, dir).mirror();
   }
 
   /**
@@ -639,6 +909,18 @@ public class Datasets
       throw new FailedRequestException("Failed to get file from dataset " + pk + ": " + name, response);
   }
 
+  /**
+   * Retrieves the specified file from the dataset (downloads it from the server) asynchronously.
+   *
+   * @param pk		the dataset ID
+   * @param name	the name used in the dataset
+   * @return		the future file content as byte array
+   * @see		#getFile(int, String)
+   */
+  public CompletableFuture<byte[]> getFileAsync(int pk, String name) {
+    return async(() -> getFile(pk, name));
+  }
+
   /**
    * Retrieves the specified file from the dataset and outputs it using the output stream.
    *
@@ -895,21 +1177,76 @@ public class Datasets
    * @throws Exception	if request fails
    */
   public boolean download(int pk, String[] params, File output) throws Exception {
-    FileResponse 	response;
-    Request 		request;
+    return download(pk, params, output, false);
+  }
+
+  /**
+   * For downloading a specific dataset. An existing partial output file can
+   * be continued via a range request where the server supports it; this is
+   * only safe if the server generates an identical archive again.
+   *
+   * @param pk 		the primary key of the dataset to download
+   * @param params 	the parameters for <a href="https://github.com/waikato-ufdl/wai-annotations">wai.annotations</a>
+   *                    to generate the output (eg ["vgg", "-o", "ann.json"] or ["tfrecords", "-o", "train.tfrecords"])
+   * @param output	the file to save the downloaded dataset to (zip or tar.gz)
+   * @param resume	whether to resume from an existing partial output file rather than overwrite it
+   * @return		true if successful
+   * @throws Exception	if request fails or the downloaded file is incomplete
+   */
+  public boolean download(int pk, String[] params, File output, boolean resume) throws Exception {
     String 		filetype;
-    JsonObject		data;
-    JsonObject		parameters;
-    JsonArray		parameterArray;
 
+    filetype = filetype(output);
+    getLogger().info("downloading dataset with id: " + pk);
+    downloadRaw(newDownload(pk, params, filetype), output, true, resume, "Failed to download dataset: " + pk);
+
+    return true;
+  }
+
+  /**
+   * For downloading a specific dataset, streaming it into the channel.
+   *
+   * @param pk 		the primary key of the dataset to download
+   * @param params 	the parameters for <a href="https://github.com/waikato-ufdl/wai-annotations">wai.annotations</a>
+   *                    to generate the output (eg ["vgg", "-o", "ann.json"] or ["tfrecords", "-o", "train.tfrecords"])
+   * @param filetype	the type of archive to generate (zip or tar.gz)
+   * @param channel	the channel to write the downloaded dataset to (caller needs to close it)
+   * @return		the number of bytes downloaded
+   * @throws Exception	if request fails
+   */
+  public long download(int pk, String[] params, String filetype, WritableByteChannel channel) throws Exception {
     getLogger().info("downloading dataset with id: " + pk);
+    return downloadRaw(newDownload(pk, params, filetype), channel, "Failed to download dataset: " + pk);
+  }
 
+  /**
+   * Determines the type of archive to download from the output file.
+   *
+   * @param output	the file to save the downloaded dataset to (zip or tar.gz)
+   * @return		the file type
+   * @throws IllegalArgumentException	if unsupported type of archive
+   */
+  protected String filetype(File output) {
     if (output.getName().endsWith(".zip"))
-      filetype = "zip";
+      return "zip";
     else if (output.getName().endsWith(".tar.gz"))
-      filetype = "tar.gz";
+      return "tar.gz";
     else
       throw new IllegalArgumentException("Only zip or tar.gz available for download: " + output);
+  }
+
+  /**
+   * Generates the request for downloading a dataset.
+   *
+   * @param pk 		the primary key of the dataset to download
+   * @param params 	the parameters for wai.annotations
+   * @param filetype	the type of archive to generate (zip or tar.gz)
+   * @return		the request
+   */
+  protected okhttp3.Request.Builder newDownload(int pk, String[] params, String filetype) {
+    JsonObject		data;
+    JsonObject		parameters;
+    JsonArray		parameterArray;
 
     parameterArray = new JsonArray();
     for (String param: params)
@@ -919,13 +1256,9 @@ public class Datasets
     parameters = new JsonObject();
     data.add("params", parameters);
     parameters.add("annotations_args", parameterArray);
-    request = newPost(getPath() + pk + "/download")
-      .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
-    response = download(request, output);
-    if (!response.ok())
-      throw new FailedRequestException("Failed to download dataset: " + pk, response);
 
-    return true;
+    return newRawRequest(getPath() + pk + "/download")
+      .post(RequestBody.create(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8));
   }
 
   /**
@@ -1091,8 +1424,11 @@ public class Datasets
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : ""));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      getNameIndex().remove(pk);
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete dataset (hard=" + hard + "): " + pk, response);
   }
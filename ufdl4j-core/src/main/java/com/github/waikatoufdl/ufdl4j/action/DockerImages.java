@@ -1,6 +1,6 @@
 /*
  * DockerImages.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,6 +10,7 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithDomain;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
@@ -17,6 +18,7 @@ import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithVersion;
 import com.github.waikatoufdl.ufdl4j.core.JsonUtils;
 import com.github.waikatoufdl.ufdl4j.core.Utils;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameAndVersionFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -25,6 +27,9 @@ import com.google.gson.JsonObject;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates docker image operations.
@@ -226,6 +231,9 @@ public class DockerImages
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<DockerImage> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -264,6 +272,17 @@ public class DockerImages
    * @throws Exception	if request fails
    */
   public List<DockerImage> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the docker images, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of docker images
+   * @throws Exception	if request fails
+   */
+  protected List<DockerImage> listUncached(Filter filter) throws Exception {
     List<DockerImage>		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -293,6 +312,58 @@ public class DockerImages
     return result;
   }
 
+  /**
+   * For listing the docker images asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of docker images
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<DockerImage>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the docker images incrementally, parsing the response while iterating.
+   * Only the current DockerImage object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the docker images
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<DockerImage> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating docker images" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, DockerImage::new, "Failed to list docker images!");
+  }
+
+  /**
+   * For listing the docker images as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of docker images
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<DockerImage> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the docker images page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of docker images per page
+   * @return		the iterator over the docker images
+   * @see		#list(Filter)
+   */
+  public PagingIterator<DockerImage> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific docker image by primary key.
    *
@@ -301,6 +372,17 @@ public class DockerImages
    * @throws Exception	if request fails
    */
   public DockerImage load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific docker image by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the docker image to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected DockerImage loadUncached(int pk) throws Exception {
     DockerImage		result;
     JsonResponse response;
     JsonElement		element;
@@ -323,6 +405,44 @@ public class DockerImages
     return result;
   }
 
+  /**
+   * For loading a specific docker image by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the dockerImage to load
+   * @return		the future dockerImage
+   * @see		#load(int)
+   */
+  public CompletableFuture<DockerImage> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many docker images by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the docker images to load
+   * @return		the docker images keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, DockerImage> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the docker image with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the docker image
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<DockerImage> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific docker image by name.
    *
@@ -397,6 +517,7 @@ public class DockerImages
     request = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new DockerImage(response.jsonObject());
     else
@@ -486,6 +607,7 @@ public class DockerImages
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new DockerImage(response.jsonObject());
     else
@@ -588,6 +710,7 @@ public class DockerImages
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new DockerImage(response.jsonObject());
     else
@@ -625,6 +748,7 @@ public class DockerImages
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
@@ -1,6 +1,6 @@
 /*
  * Domain.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,10 +10,12 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.filter.DescriptionFilter;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -22,6 +24,9 @@ import com.google.gson.JsonObject;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates domain operations.
@@ -101,6 +106,9 @@ public class Domains
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Domain> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -139,6 +147,17 @@ public class Domains
    * @throws Exception	if request fails
    */
   public List<Domain> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the domains, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of domains
+   * @throws Exception	if request fails
+   */
+  protected List<Domain> listUncached(Filter filter) throws Exception {
     List<Domain>	result;
     JsonResponse 	response;
     JsonElement		element;
@@ -168,6 +187,58 @@ public class Domains
     return result;
   }
 
+  /**
+   * For listing the domains asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of domains
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Domain>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the domains incrementally, parsing the response while iterating.
+   * Only the current Domain object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the domains
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Domain> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating domains" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Domain::new, "Failed to list domains!");
+  }
+
+  /**
+   * For listing the domains as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of domains
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Domain> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the domains page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of domains per page
+   * @return		the iterator over the domains
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Domain> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific domain by primary key.
    *
@@ -176,6 +247,17 @@ public class Domains
    * @throws Exception	if request fails
    */
   public Domain load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific domain by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the domain to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected Domain loadUncached(int pk) throws Exception {
     Domain result;
     JsonResponse 	response;
     JsonElement		element;
@@ -198,6 +280,44 @@ public class Domains
     return result;
   }
 
+  /**
+   * For loading a specific domain by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the domain to load
+   * @return		the future entry
+   * @see		#load(int)
+   */
+  public CompletableFuture<Domain> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many domains by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the domains to load
+   * @return		the domains keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Domain> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the domain with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the domain
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Domain> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific domain by name.
    *
@@ -1,6 +1,6 @@
 /*
  * Frameworks.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,10 +10,12 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithVersion;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameAndVersionFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -21,6 +23,9 @@ import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates framework operations.
@@ -101,6 +106,9 @@ public class Frameworks
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Framework> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -139,6 +147,17 @@ public class Frameworks
    * @throws Exception	if request fails
    */
   public List<Framework> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the frameworks, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of frameworks
+   * @throws Exception	if request fails
+   */
+  protected List<Framework> listUncached(Filter filter) throws Exception {
     List<Framework>		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -168,6 +187,58 @@ public class Frameworks
     return result;
   }
 
+  /**
+   * For listing the frameworks asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of frameworks
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Framework>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the frameworks incrementally, parsing the response while iterating.
+   * Only the current Framework object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the frameworks
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Framework> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating frameworks" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Framework::new, "Failed to list frameworks!");
+  }
+
+  /**
+   * For listing the frameworks as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of frameworks
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Framework> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the frameworks page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of frameworks per page
+   * @return		the iterator over the frameworks
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Framework> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific framework by primary key.
    *
@@ -176,6 +247,17 @@ public class Frameworks
    * @throws Exception	if request fails
    */
   public Framework load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific framework by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the framework to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected Framework loadUncached(int pk) throws Exception {
     Framework		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -198,6 +280,44 @@ public class Frameworks
     return result;
   }
 
+  /**
+   * For loading a specific framework by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the framework to load
+   * @return		the future framework
+   * @see		#load(int)
+   */
+  public CompletableFuture<Framework> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many frameworks by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the frameworks to load
+   * @return		the frameworks keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Framework> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the framework with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the framework
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Framework> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific framework by name.
    *
@@ -245,6 +365,7 @@ public class Frameworks
     request = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new Framework(response.jsonObject());
     else
@@ -289,6 +410,7 @@ public class Frameworks
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new Framework(response.jsonObject());
     else
@@ -335,6 +457,7 @@ public class Frameworks
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new Framework(response.jsonObject());
     else
@@ -372,6 +495,7 @@ public class Frameworks
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
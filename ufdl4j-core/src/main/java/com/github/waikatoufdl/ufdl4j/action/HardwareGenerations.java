@@ -1,6 +1,6 @@
 /*
  * CudaVersions.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,6 +10,7 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
@@ -21,6 +22,9 @@ import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates hardware generation operations.
@@ -107,6 +111,9 @@ public class HardwareGenerations
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<HardwareGeneration> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -145,6 +152,17 @@ public class HardwareGenerations
    * @throws Exception	if request fails
    */
   public List<HardwareGeneration> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the hardware generations, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of hardware generations
+   * @throws Exception	if request fails
+   */
+  protected List<HardwareGeneration> listUncached(Filter filter) throws Exception {
     List<HardwareGeneration>		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -174,6 +192,58 @@ public class HardwareGenerations
     return result;
   }
 
+  /**
+   * For listing the hardware generations asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of hardware generations
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<HardwareGeneration>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the hardware generations incrementally, parsing the response while iterating.
+   * Only the current HardwareGeneration object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the hardware generations
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<HardwareGeneration> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating hardware generations" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, HardwareGeneration::new, "Failed to list hardware generations!");
+  }
+
+  /**
+   * For listing the hardware generations as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of hardware generations
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<HardwareGeneration> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the hardware generations page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of hardware generations per page
+   * @return		the iterator over the hardware generations
+   * @see		#list(Filter)
+   */
+  public PagingIterator<HardwareGeneration> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific hardware generation by primary key.
    *
@@ -182,6 +252,17 @@ public class HardwareGenerations
    * @throws Exception	if request fails
    */
   public HardwareGeneration load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific hardware generation by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the hardware generation to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected HardwareGeneration loadUncached(int pk) throws Exception {
     HardwareGeneration result;
     JsonResponse 	response;
     JsonElement		element;
@@ -204,6 +285,44 @@ public class HardwareGenerations
     return result;
   }
 
+  /**
+   * For loading a specific hardware generation by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the hardware generation to load
+   * @return		the future hardware generation
+   * @see		#load(int)
+   */
+  public CompletableFuture<HardwareGeneration> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many hardware generations by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the hardware generations to load
+   * @return		the hardware generations keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, HardwareGeneration> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the hardware generation with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the hardware generation
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<HardwareGeneration> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific hardware generation by name.
    *
@@ -259,6 +378,7 @@ public class HardwareGenerations
     request = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new HardwareGeneration(response.jsonObject());
     else
@@ -306,6 +426,7 @@ public class HardwareGenerations
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new HardwareGeneration(response.jsonObject());
     else
@@ -356,6 +477,7 @@ public class HardwareGenerations
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new HardwareGeneration(response.jsonObject());
     else
@@ -393,6 +515,7 @@ public class HardwareGenerations
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
@@ -1,6 +1,6 @@
 /*
  * JobTemplates.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -12,6 +12,7 @@ import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapper;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithDomain;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithIntVersion;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
@@ -37,6 +38,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static com.github.waikatoufdl.ufdl4j.core.JsonUtils.mapToJson;
 
@@ -380,6 +383,9 @@ public class JobTemplates
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<JobTemplate> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -447,6 +453,58 @@ public class JobTemplates
     return result;
   }
 
+  /**
+   * For listing the job templates asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of job templates
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<JobTemplate>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the job templates incrementally, parsing the response while iterating.
+   * Only the current JobTemplate object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the job templates
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<JobTemplate> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating job templates" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, JobTemplate::new, "Failed to list job templates!");
+  }
+
+  /**
+   * For listing the job templates as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of job templates
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<JobTemplate> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the job templates page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of job templates per page
+   * @return		the iterator over the job templates
+   * @see		#list(Filter)
+   */
+  public PagingIterator<JobTemplate> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * Returns all the templates that match the contract name.
    *
@@ -528,6 +586,44 @@ public class JobTemplates
     return result;
   }
 
+  /**
+   * For loading a specific job template by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the job template to load
+   * @return		the future job template
+   * @see		#load(int)
+   */
+  public CompletableFuture<JobTemplate> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many job templates by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the job templates to load
+   * @return		the job templates keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, JobTemplate> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the job template with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the job template
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<JobTemplate> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific job template by name.
    *
@@ -720,8 +816,10 @@ public class JobTemplates
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : ""));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete job template (hard=" + hard + "): " + pk, response);
   }
@@ -1,6 +1,6 @@
 /*
  * JobTypes.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,8 +10,10 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -19,6 +21,9 @@ import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates job type operations.
@@ -105,6 +110,9 @@ public class JobTypes
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<JobType> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -143,6 +151,17 @@ public class JobTypes
    * @throws Exception	if request fails
    */
   public List<JobType> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the job types, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of job types
+   * @throws Exception	if request fails
+   */
+  protected List<JobType> listUncached(Filter filter) throws Exception {
     List<JobType>	result;
     JsonResponse 	response;
     JsonElement		element;
@@ -172,6 +191,58 @@ public class JobTypes
     return result;
   }
 
+  /**
+   * For listing the job types asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of job types
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<JobType>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the job types incrementally, parsing the response while iterating.
+   * Only the current JobType object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the job types
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<JobType> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating job types" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, JobType::new, "Failed to list job types!");
+  }
+
+  /**
+   * For listing the job types as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of job types
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<JobType> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the job types page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of job types per page
+   * @return		the iterator over the job types
+   * @see		#list(Filter)
+   */
+  public PagingIterator<JobType> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific job type by primary key.
    *
@@ -180,6 +251,17 @@ public class JobTypes
    * @throws Exception	if request fails
    */
   public JobType load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific job type by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the job type to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected JobType loadUncached(int pk) throws Exception {
     JobType		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -202,6 +284,44 @@ public class JobTypes
     return result;
   }
 
+  /**
+   * For loading a specific job type by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the job type to load
+   * @return		the future job type
+   * @see		#load(int)
+   */
+  public CompletableFuture<JobType> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many job types by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the job types to load
+   * @return		the job types keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, JobType> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the job type with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the job type
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<JobType> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific job type by name.
    *
@@ -251,6 +371,7 @@ public class JobTypes
     request = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new JobType(response.jsonObject());
     else
@@ -298,6 +419,7 @@ public class JobTypes
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new JobType(response.jsonObject());
     else
@@ -348,6 +470,7 @@ public class JobTypes
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       result = new JobType(response.jsonObject());
     else
@@ -385,6 +508,7 @@ public class JobTypes
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
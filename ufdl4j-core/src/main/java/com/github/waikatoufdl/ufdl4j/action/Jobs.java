@@ -1,6 +1,6 @@
 /*
  * Jobs.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -13,22 +13,31 @@ import com.github.fracpete.requests4j.response.BasicResponse;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.fracpete.requests4j.response.Response;
 import com.github.fracpete.requests4j.response.StreamResponse;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
+import com.github.waikatoufdl.ufdl4j.action.Nodes.Node;
+import com.github.waikatoufdl.ufdl4j.action.Users.User;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static com.github.waikatoufdl.ufdl4j.core.JsonUtils.jsonToMap;
 
@@ -276,6 +285,9 @@ public class Jobs
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Job> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -343,6 +355,58 @@ public class Jobs
     return result;
   }
 
+  /**
+   * For listing the jobs asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of jobs
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Job>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the jobs incrementally, parsing the response while iterating.
+   * Only the current Job object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the jobs
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Job> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating jobs" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Job::new, "Failed to list jobs!");
+  }
+
+  /**
+   * For listing the jobs as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of jobs
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Job> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the jobs page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of jobs per page
+   * @return		the iterator over the jobs
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Job> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific job by primary key.
    *
@@ -373,6 +437,84 @@ public class Jobs
     return result;
   }
 
+  /**
+   * For loading a specific job by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the job to load
+   * @return		the future job
+   * @see		#load(int)
+   */
+  public CompletableFuture<Job> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many jobs by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the jobs to load
+   * @return		the jobs keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Job> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the job with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the job
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Job> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
+  /**
+   * Returns a lazy reference to the job template of the job. All pending
+   * job template references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param job 	the job to get the job template for
+   * @return		the reference
+   */
+  public Reference<JobTemplate> jobTemplate(Job job) {
+    return getClient().jobTemplates().reference(job.getJobTemplate());
+  }
+
+  /**
+   * Returns a lazy reference to the node of the job. All pending
+   * node references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param job 	the job to get the node for
+   * @return		the reference, null if none set
+   */
+  public Reference<Node> node(Job job) {
+    if (job.getNode() == -1)
+      return null;
+    return getClient().nodes().reference(job.getNode());
+  }
+
+  /**
+   * Returns a lazy reference to the creator of the job. All pending
+   * creator references get resolved in a single batch when the first one
+   * gets dereferenced.
+   *
+   * @param job 	the job to get the creator for
+   * @return		the reference, null if none set
+   */
+  public Reference<User> creator(Job job) {
+    if (job.getCreator() == -1)
+      return null;
+    return getClient().users().reference(job.getCreator());
+  }
+
   /**
    * Adds the file as an output to the job.
    *
@@ -447,6 +589,25 @@ public class Jobs
       throw new FailedRequestException("Failed to add byte array to job " + pk + " as output '" + name + "/" + type + "'", response);
   }
 
+  /**
+   * Adds the content as output to the job, streaming it from the source
+   * rather than holding it in a byte array.
+   *
+   * @param pk		the job ID
+   * @param name	the name of the output
+   * @param type 	the type of the output
+   * @param source	the content to upload, eg from a stream, channel or buffer
+   * @return		true if successfully added/uploaded
+   * @throws Exception	if request fails, eg invalid job PK
+   */
+  public boolean addOutput(int pk, String name, String type, UploadSource source) throws Exception {
+    try (okhttp3.Response response = uploadRaw(getPath() + pk + "/outputs/" + name + "/" + type, "file", name, source)) {
+      if (!response.isSuccessful())
+	throw newFailedRequest("Failed to add stream to job " + pk + " as output '" + name + "/" + type + "'", response);
+      return true;
+    }
+  }
+
   /**
    * Downloads the specified output from the job.
    *
@@ -506,15 +667,26 @@ public class Jobs
    * @throws Exception	if request fails, eg invalid job PK
    */
   public boolean getOutput(int pk, String name, String type, File output) throws Exception {
-    Request 	request;
-    Response 	response;
+    downloadRaw(
+      newRawRequest(getPath() + pk + "/outputs/" + name + "/" + type).get(), output, true,
+      "Failed to download output '" + name + "/" + type + "' from job " + pk + " as: " + output);
+    return true;
+  }
 
-    request = newGet(getPath() + pk + "/outputs/" + name + "/" + type);
-    response = download(request, output);
-    if (response.ok())
-      return true;
-    else
-      throw new FailedRequestException("Failed to download output '" + name + "/" + type + "' from job " + pk + " as: " + output, response);
+  /**
+   * Downloads the output of the job, streaming it into the channel.
+   *
+   * @param pk		the job ID
+   * @param name	the name of the output
+   * @param type 	the type of the output
+   * @param channel	the channel to write the output to (caller needs to close it)
+   * @return		the number of bytes downloaded
+   * @throws Exception	if request fails, eg invalid job PK
+   */
+  public long getOutput(int pk, String name, String type, WritableByteChannel channel) throws Exception {
+    return downloadRaw(
+      newRawRequest(getPath() + pk + "/outputs/" + name + "/" + type).get(), channel,
+      "Failed to download output '" + name + "/" + type + "' from job " + pk + " as channel!");
   }
 
   /**
@@ -618,8 +790,10 @@ public class Jobs
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : ""));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete job (hard=" + hard + "): " + pk, response);
   }
@@ -1,6 +1,6 @@
 /*
  * Licenses.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -11,10 +11,12 @@ import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.CustomDisplayEnum;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.JsonUtils;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -24,7 +26,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates user operations.
@@ -591,6 +596,9 @@ public class Licenses
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<License> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -629,6 +637,17 @@ public class Licenses
    * @throws Exception	if request fails
    */
   public List<License> list(Filter filter) throws Exception {
+    return cachedList(filter, () -> listUncached(filter));
+  }
+
+  /**
+   * For listing the licenses, bypassing the cache.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the list of licenses
+   * @throws Exception	if request fails
+   */
+  protected List<License> listUncached(Filter filter) throws Exception {
     List<License>	result;
     JsonResponse 	response;
     JsonElement		element;
@@ -658,6 +677,58 @@ public class Licenses
     return result;
   }
 
+  /**
+   * For listing the licenses asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of licenses
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<License>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the licenses incrementally, parsing the response while iterating.
+   * Only the current License object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the licenses
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<License> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating licenses" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, License::new, "Failed to list licenses!");
+  }
+
+  /**
+   * For listing the licenses as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of licenses
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<License> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the licenses page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of licenses per page
+   * @return		the iterator over the licenses
+   * @see		#list(Filter)
+   */
+  public PagingIterator<License> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For creating a license.
    *
@@ -682,6 +753,7 @@ public class Licenses
     request  = newPost(getPath() + "create")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok()) {
       element = response.json();
       if (element.isJsonObject())
@@ -732,6 +804,7 @@ public class Licenses
     request  = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok()) {
       element = response.json();
       if (element.isJsonObject())
@@ -784,6 +857,7 @@ public class Licenses
     request  = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok()) {
       element = response.json();
       if (element.isJsonObject())
@@ -823,6 +897,7 @@ public class Licenses
     request  = newPatch(getPath() + pk + "/subdescriptors")
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
@@ -940,6 +1015,7 @@ public class Licenses
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
+    invalidateCache();
     if (response.ok())
       return true;
     else
@@ -954,6 +1030,17 @@ public class Licenses
    * @throws Exception	if request fails
    */
   public License load(int pk) throws Exception {
+    return cachedLoad(pk, () -> loadUncached(pk));
+  }
+
+  /**
+   * For loading a specific license by primary key, bypassing the cache.
+   *
+   * @param pk 		the primary key of the license to load
+   * @return		the entry
+   * @throws Exception	if request fails
+   */
+  protected License loadUncached(int pk) throws Exception {
     License		result;
     JsonResponse 	response;
     JsonElement		element;
@@ -976,6 +1063,44 @@ public class Licenses
     return result;
   }
 
+  /**
+   * For loading a specific license by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the license to load
+   * @return		the future license
+   * @see		#load(int)
+   */
+  public CompletableFuture<License> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many licenses by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the licenses to load
+   * @return		the licenses keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, License> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the license with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the license
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<License> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific license by name.
    *
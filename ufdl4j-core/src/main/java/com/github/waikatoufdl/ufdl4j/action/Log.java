@@ -1,6 +1,6 @@
 /*
  * Log.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,7 +10,9 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -19,6 +21,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates log operations.
@@ -113,6 +118,9 @@ public class Log
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<LogEntry> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -180,6 +188,58 @@ public class Log
     return result;
   }
 
+  /**
+   * For listing the log entries asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of log entries
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<LogEntry>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the log entries incrementally, parsing the response while iterating.
+   * Only the current LogEntry object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the log entries
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<LogEntry> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating log entries" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, LogEntry::new, "Failed to list log entries!");
+  }
+
+  /**
+   * For listing the log entries as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of log entries
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<LogEntry> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the log entries page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of log entries per page
+   * @return		the iterator over the log entries
+   * @see		#list(Filter)
+   */
+  public PagingIterator<LogEntry> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific log entry by primary key.
    *
@@ -210,6 +270,44 @@ public class Log
     return result;
   }
 
+  /**
+   * For loading a specific log entry by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the log entry to load
+   * @return		the future entry
+   * @see		#load(int)
+   */
+  public CompletableFuture<LogEntry> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many log entries by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the log entries to load
+   * @return		the log entries keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, LogEntry> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the log entry with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the log entry
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<LogEntry> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * Creates the log entry a "now" timestamp.
    *
@@ -308,8 +406,10 @@ public class Log
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete log entry: " + pk, response);
   }
@@ -1,6 +1,6 @@
 /*
  * Nodes.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,6 +10,7 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
@@ -22,6 +23,9 @@ import com.google.gson.JsonObject;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates node operations.
@@ -144,6 +148,9 @@ public class Nodes
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Node> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -211,6 +218,58 @@ public class Nodes
     return result;
   }
 
+  /**
+   * For listing the nodes asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of nodes
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Node>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the nodes incrementally, parsing the response while iterating.
+   * Only the current Node object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the nodes
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Node> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating nodes" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Node::new, "Failed to list nodes!");
+  }
+
+  /**
+   * For listing the nodes as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of nodes
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Node> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the nodes page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of nodes per page
+   * @return		the iterator over the nodes
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Node> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific node by primary key.
    *
@@ -241,6 +300,44 @@ public class Nodes
     return result;
   }
 
+  /**
+   * For loading a specific node by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the node to load
+   * @return		the future node
+   * @see		#load(int)
+   */
+  public CompletableFuture<Node> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many nodes by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the nodes to load
+   * @return		the nodes keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Node> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the node with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the node
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Node> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific node by IP.
    *
@@ -358,8 +455,10 @@ public class Nodes
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Node(response.jsonObject());
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update node: " + pk, response);
 
@@ -420,8 +519,10 @@ public class Nodes
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Node(response.jsonObject());
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to partially update node: " + pk, response);
 
@@ -457,8 +558,10 @@ public class Nodes
 
     request  = newDelete(getPath() + pk);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete node: " + pk, response);
   }
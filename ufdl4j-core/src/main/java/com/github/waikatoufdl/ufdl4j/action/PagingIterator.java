@@ -0,0 +1,239 @@
+/*
+ * PagingIterator.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.action;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithPK;
+import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
+import com.github.waikatoufdl.ufdl4j.filter.OrderBy;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.github.waikatoufdl.ufdl4j.filter.field.NumericCompare;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over all the elements matching a filter by issuing successive
+ * list calls, using keyset pagination: the elements get ordered by PK and
+ * each page only requests elements with a PK larger than the last one seen.
+ * The next page gets retrieved in the background while the current one is
+ * being consumed. Any ordering of the base filter gets ignored.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T>	the type of element
+ */
+public class PagingIterator<T extends JsonObjectWithPK>
+  extends AbstractLoggingObject
+  implements Iterator<T>, Closeable {
+
+  private static final long serialVersionUID = -1684723507295237011L;
+
+  /** the field to use for paging. */
+  public static final String FIELD_PK = "pk";
+
+  /**
+   * For listing the elements using a filter.
+   *
+   * @param <T>	the type of element
+   */
+  @FunctionalInterface
+  public interface PageLoader<T> {
+
+    /**
+     * Lists the elements that match the filter.
+     *
+     * @param filter	the filter to apply
+     * @return		the elements
+     * @throws Exception	if request fails
+     */
+    public List<T> list(Filter filter) throws Exception;
+  }
+
+  /** for listing the elements. */
+  protected transient PageLoader<T> m_Loader;
+
+  /** the base filter, can be null. */
+  protected GenericFilter m_Filter;
+
+  /** the page size. */
+  protected int m_PageSize;
+
+  /** the executor for retrieving the next page. */
+  protected transient ExecutorService m_Executor;
+
+  /** the current page. */
+  protected List<T> m_Page;
+
+  /** the index in the current page. */
+  protected int m_Index;
+
+  /** the next page being retrieved, null if no more pages. */
+  protected transient CompletableFuture<List<T>> m_Next;
+
+  /**
+   * Initializes the iterator and starts retrieving the first page.
+   *
+   * @param loader	for listing the elements
+   * @param filter	the base filter, can be null
+   * @param pageSize	the maximum number of elements per page
+   * @param executor	for retrieving the pages in the background
+   */
+  public PagingIterator(PageLoader<T> loader, GenericFilter filter, int pageSize, ExecutorService executor) {
+    if (pageSize < 1)
+      throw new IllegalArgumentException("Page size must be at least 1, provided: " + pageSize);
+    m_Loader   = loader;
+    m_Filter   = filter;
+    m_PageSize = pageSize;
+    m_Executor = executor;
+    m_Page     = new ArrayList<>();
+    m_Index    = 0;
+    m_Next     = fetch(null);
+  }
+
+  /**
+   * Returns the page size.
+   *
+   * @return		the maximum number of elements per page
+   */
+  public int getPageSize() {
+    return m_PageSize;
+  }
+
+  /**
+   * Generates the filter for the page following the specified PK.
+   *
+   * @param after	the last PK seen, null for the first page
+   * @return		the filter
+   */
+  protected GenericFilter pageFilter(Integer after) {
+    GenericFilter		result;
+    List<AbstractExpression>	expressions;
+
+    expressions = new ArrayList<>();
+    if (m_Filter != null)
+      expressions.addAll(Arrays.asList(m_Filter.getExpressions()));
+    if (after != null)
+      expressions.add(new NumericCompare(FIELD_PK, after, Comparison.GREATER_THAN));
+    result = new GenericFilter(
+      expressions.toArray(new AbstractExpression[0]),
+      new OrderBy[]{new OrderBy(FIELD_PK)},
+      (m_Filter != null) && m_Filter.isIncludeInactive());
+    result.setLimit(m_PageSize);
+
+    return result;
+  }
+
+  /**
+   * Starts retrieving the page following the specified PK in the background.
+   *
+   * @param after	the last PK seen, null for the first page
+   * @return		the future page
+   */
+  protected CompletableFuture<List<T>> fetch(Integer after) {
+    final GenericFilter	filter;
+
+    filter = pageFilter(after);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+	getLogger().fine("retrieving page: " + filter.toJsonObject());
+	return m_Loader.list(filter);
+      }
+      catch (Exception e) {
+	throw new CompletionException(e);
+      }
+    }, m_Executor);
+  }
+
+  /**
+   * Returns whether there are more elements, waits for the next page if
+   * necessary.
+   *
+   * @return		true if more elements available
+   */
+  @Override
+  public boolean hasNext() {
+    List<T>	page;
+
+    while (m_Index >= m_Page.size()) {
+      if (m_Next == null)
+	return false;
+      try {
+	page = m_Next.join();
+      }
+      catch (CompletionException e) {
+	m_Next = null;
+	throw new IllegalStateException("Failed to retrieve page!", (e.getCause() != null) ? e.getCause() : e);
+      }
+      m_Page  = page;
+      m_Index = 0;
+      // a full page means there might be more (a larger page means the limit got ignored)
+      if (page.size() == m_PageSize)
+	m_Next = fetch(page.get(page.size() - 1).getPK());
+      else
+	m_Next = null;
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns the next element.
+   *
+   * @return		the element
+   */
+  @Override
+  public T next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    return m_Page.get(m_Index++);
+  }
+
+  /**
+   * Returns the remaining elements as stream.
+   *
+   * @return		the stream
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+      .onClose(this::close);
+  }
+
+  /**
+   * Stops retrieving further pages.
+   */
+  @Override
+  public void close() {
+    if (m_Next != null) {
+      m_Next.cancel(false);
+      m_Next = null;
+    }
+    m_Page  = new ArrayList<>();
+    m_Index = 0;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "pageSize=" + m_PageSize + ", filter=" + m_Filter;
+  }
+}
@@ -1,6 +1,6 @@
 /*
  * PretrainedModels.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,24 +10,32 @@ import com.github.fracpete.requests4j.attachment.ByteArrayAttachment;
 import com.github.fracpete.requests4j.attachment.FileAttachment;
 import com.github.fracpete.requests4j.core.MediaTypeHelper;
 import com.github.fracpete.requests4j.request.Request;
-import com.github.fracpete.requests4j.response.FileResponse;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import okhttp3.RequestBody;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates pretrained model operations.
@@ -179,6 +187,9 @@ public class PretrainedModels
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<PretrainedModel> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -246,6 +257,58 @@ public class PretrainedModels
     return result;
   }
 
+  /**
+   * For listing the pretrained models asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of pretrained models
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<PretrainedModel>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the pretrained models incrementally, parsing the response while iterating.
+   * Only the current PretrainedModel object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the pretrained models
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<PretrainedModel> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating pretrained models" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, PretrainedModel::new, "Failed to list pretrained models!");
+  }
+
+  /**
+   * For listing the pretrained models as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of pretrained models
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<PretrainedModel> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the pretrained models page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of pretrained models per page
+   * @return		the iterator over the pretrained models
+   * @see		#list(Filter)
+   */
+  public PagingIterator<PretrainedModel> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific pretrained model by primary key.
    *
@@ -276,6 +339,44 @@ public class PretrainedModels
     return result;
   }
 
+  /**
+   * For loading a specific pretrained model by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the pretrained model to load
+   * @return		the future pretrained model
+   * @see		#load(int)
+   */
+  public CompletableFuture<PretrainedModel> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many pretrained models by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the pretrained models to load
+   * @return		the pretrained models keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, PretrainedModel> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the pretrained model with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the pretrained model
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<PretrainedModel> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific pretrained model by name.
    *
@@ -288,7 +389,9 @@ public class PretrainedModels
 
     getLogger().info("loading pretrained model: " + name);
 
-    result = null;
+    result = loadIndexed(name, PretrainedModel::getName, this::load);
+    if (result != null)
+      return result;
 
     for (PretrainedModel template : list(new NameFilter(name))) {
       result = template;
@@ -297,6 +400,8 @@ public class PretrainedModels
 
     if (result == null)
       getLogger().warning("failed to load pretrained model: " + name);
+    else
+      getNameIndex().add(name, result.getPK());
 
     return result;
   }
@@ -409,8 +514,11 @@ public class PretrainedModels
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new PretrainedModel(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update pretrained model: " + pk, response);
 
@@ -475,8 +583,11 @@ public class PretrainedModels
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new PretrainedModel(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to partially update pretrained model: " + pk, response);
 
@@ -516,23 +627,72 @@ public class PretrainedModels
    * @throws Exception	if request fails, eg invalid pretrained model PK
    */
   public boolean download(int pk, File output) throws Exception {
-    FileResponse 	response;
+    return download(pk, output, false);
+  }
+
+  /**
+   * For downloading a specific pretrained model. An existing partial output
+   * file can be continued via a range request where the server supports it;
+   * this is only safe if the model has not changed since.
+   *
+   * @param pk 		the ID of the pretrained model
+   * @param output	the file to save the model to
+   * @param resume	whether to resume from an existing partial output file rather than overwrite it
+   * @return		true if successfully downloaded
+   * @throws Exception	if request fails or the downloaded file is incomplete
+   */
+  public boolean download(int pk, File output, boolean resume) throws Exception {
+    getLogger().info("downloading pretrained model with PK: " + pk);
+    downloadRaw(newDownload(pk), output, true, resume, "Failed to download pretrained model: " + pk);
+    return true;
+  }
+
+  /**
+   * For downloading a specific pretrained model, fetching the given number of
+   * byte ranges concurrently. Falls back to a single stream if the server does
+   * not support ranges or does not identify the model via a strong ETag.
+   *
+   * @param pk 		the ID of the pretrained model
+   * @param output	the file to save the model to
+   * @param segments	the number of ranges to download concurrently
+   * @return		true if successfully downloaded
+   * @throws Exception	if request fails, eg invalid pretrained model PK
+   */
+  public boolean download(int pk, File output, int segments) throws Exception {
+    getLogger().info("downloading pretrained model with PK: " + pk);
+    downloadSegmented(() -> newDownload(pk), output, segments, "Failed to download pretrained model: " + pk);
+    return true;
+  }
+
+  /**
+   * For downloading a specific pretrained model, streaming it into the channel.
+   *
+   * @param pk 		the ID of the pretrained model
+   * @param channel	the channel to write the model to (caller needs to close it)
+   * @return		the number of bytes downloaded
+   * @throws Exception	if request fails, eg invalid pretrained model PK
+   */
+  public long download(int pk, WritableByteChannel channel) throws Exception {
+    getLogger().info("downloading pretrained model with PK: " + pk);
+    return downloadRaw(newDownload(pk), channel, "Failed to download pretrained model: " + pk);
+  }
+
+  /**
+   * Generates the request for downloading a pretrained model.
+   *
+   * @param pk 		the ID of the pretrained model
+   * @return		the request
+   */
+  protected okhttp3.Request.Builder newDownload(int pk) {
     JsonObject		data;
-    Request 		request;
 
     if (pk == -1)
       throw new IllegalArgumentException("Invalid PK: " + pk);
 
-    getLogger().info("downloading pretrained model with PK: " + pk);
-
-    data     = new JsonObject();
+    data = new JsonObject();
     data.addProperty("filetype", "data");
-    request  = newPost(getPath() + pk + "/download")
-      .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
-    response = download(request, output);
-    if (!response.ok())
-      throw new FailedRequestException("Failed to download dataset: " + pk, response);
-    return true;
+    return newRawRequest(getPath() + pk + "/download")
+      .post(RequestBody.create(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8));
   }
 
   /**
@@ -617,6 +777,33 @@ public class PretrainedModels
     return upload(pk, new ByteArrayAttachment(binary, MediaTypeHelper.OCTECT_STREAM));
   }
 
+  /**
+   * For uploading a pretrained model (replacing any existing one), streaming
+   * it from the source rather than holding it in a byte array.
+   *
+   * @param pk 		the primary key to associate the model with
+   * @param source	the model to upload, eg from a stream, channel or buffer
+   * @return		the pretrained model
+   * @throws Exception	if request fails
+   */
+  public PretrainedModel upload(int pk, UploadSource source) throws Exception {
+    PretrainedModel	result;
+    JsonElement		element;
+
+    getLogger().info("uploading pretrained model for id: " + pk);
+
+    result = null;
+    try (okhttp3.Response response = uploadRaw(getPath() + pk + "/data", "data", "data", source)) {
+      if (!response.isSuccessful())
+	throw newFailedRequest("Failed to upload pretrained model: " + pk, response);
+      element = JsonParser.parseString(response.body().string());
+      if (element.isJsonObject())
+	result = new PretrainedModel(element.getAsJsonObject());
+    }
+
+    return result;
+  }
+
   /**
    * For deleting a specific pretrained model.
    *
@@ -648,8 +835,11 @@ public class PretrainedModels
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : "/"));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      getNameIndex().remove(pk);
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete pretrained model (hard=" + hard + "): " + pk, response);
   }
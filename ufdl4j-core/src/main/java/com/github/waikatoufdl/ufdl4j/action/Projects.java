@@ -1,6 +1,6 @@
 /*
  * Projects.java
- * Copyright (C) 2019-2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,10 +10,12 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -22,6 +24,9 @@ import com.google.gson.JsonObject;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates project operations.
@@ -128,6 +133,9 @@ public class Projects
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Project> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -195,6 +203,58 @@ public class Projects
     return result;
   }
 
+  /**
+   * For listing the projects asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of projects
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Project>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the projects incrementally, parsing the response while iterating.
+   * Only the current Project object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the projects
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Project> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating projects" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Project::new, "Failed to list projects!");
+  }
+
+  /**
+   * For listing the projects as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of projects
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Project> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the projects page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of projects per page
+   * @return		the iterator over the projects
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Project> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific project by primary key.
    *
@@ -225,6 +285,44 @@ public class Projects
     return result;
   }
 
+  /**
+   * For loading a specific project by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the project to load
+   * @return		the future project
+   * @see		#load(int)
+   */
+  public CompletableFuture<Project> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many projects by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the projects to load
+   * @return		the projects keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Project> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the project with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the project
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Project> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific project by name.
    *
@@ -237,7 +335,9 @@ public class Projects
 
     getLogger().info("loading project with name: " + name);
 
-    result = null;
+    result = loadIndexed(name, Project::getName, this::load);
+    if (result != null)
+      return result;
 
     for (Project project : list(new NameFilter(name))) {
       result = project;
@@ -246,6 +346,8 @@ public class Projects
 
     if (result == null)
       getLogger().warning("failed to load project: " + name);
+    else
+      getNameIndex().add(name, result.getPK());
 
     return result;
   }
@@ -316,8 +418,11 @@ public class Projects
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Project(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update project: " + pk, response);
 
@@ -362,8 +467,11 @@ public class Projects
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Project(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to partially update project: " + pk, response);
 
@@ -401,8 +509,11 @@ public class Projects
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : "/"));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      getNameIndex().remove(pk);
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete project (hard=" + hard + "): " + pk, response);
   }
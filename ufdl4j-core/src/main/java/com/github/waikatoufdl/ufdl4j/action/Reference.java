@@ -0,0 +1,80 @@
+/*
+ * Reference.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.action;
+
+import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithPK;
+
+import java.io.Serializable;
+
+/**
+ * Lazy reference to an object, resolved in a batch with all other pending
+ * references of the same type when first dereferenced.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T>	the type of object
+ * @see		BatchLoader
+ */
+public class Reference<T extends JsonObjectWithPK>
+  implements Serializable {
+
+  private static final long serialVersionUID = 7410285317290671392L;
+
+  /** the loader to use for resolving. */
+  protected transient BatchLoader<T> m_Loader;
+
+  /** the primary key of the object. */
+  protected int m_PK;
+
+  /**
+   * Initializes the reference.
+   *
+   * @param loader	the loader to use for resolving
+   * @param pk		the primary key of the object
+   */
+  public Reference(BatchLoader<T> loader, int pk) {
+    m_Loader = loader;
+    m_PK     = pk;
+  }
+
+  /**
+   * Returns the primary key of the object.
+   *
+   * @return		the primary key
+   */
+  public int getPK() {
+    return m_PK;
+  }
+
+  /**
+   * Returns whether the object has been resolved already.
+   *
+   * @return		true if resolved
+   */
+  public boolean isResolved() {
+    return m_Loader.isResolved(m_PK);
+  }
+
+  /**
+   * Returns the object, resolving it (and all other pending references of
+   * the same type) if necessary.
+   *
+   * @return		the object, null if not found
+   * @throws Exception	if resolving fails
+   */
+  public T get() throws Exception {
+    return m_Loader.resolve(m_PK);
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "pk=" + m_PK + ", resolved=" + isResolved();
+  }
+}
@@ -1,6 +1,6 @@
 /*
  * Teams.java
- * Copyright (C) 2019-2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -11,10 +11,12 @@ import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.action.Users.User;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithName;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.GenericFilter;
 import com.github.waikatoufdl.ufdl4j.filter.NameFilter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -23,6 +25,9 @@ import com.google.gson.JsonObject;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates team operations.
@@ -164,6 +169,9 @@ public class Teams
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<Team> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -231,6 +239,58 @@ public class Teams
     return result;
   }
 
+  /**
+   * For listing the teams asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of teams
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<Team>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the teams incrementally, parsing the response while iterating.
+   * Only the current Team object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the teams
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<Team> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating teams" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, Team::new, "Failed to list teams!");
+  }
+
+  /**
+   * For listing the teams as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of teams
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<Team> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the teams page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of teams per page
+   * @return		the iterator over the teams
+   * @see		#list(Filter)
+   */
+  public PagingIterator<Team> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific team by primary key.
    *
@@ -261,6 +321,44 @@ public class Teams
     return result;
   }
 
+  /**
+   * For loading a specific team by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the team to load
+   * @return		the future team
+   * @see		#load(int)
+   */
+  public CompletableFuture<Team> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many teams by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the teams to load
+   * @return		the teams keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, Team> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the team with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the team
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<Team> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific team by name.
    *
@@ -273,7 +371,9 @@ public class Teams
 
     getLogger().info("loading team with name: " + name);
 
-    result = null;
+    result = loadIndexed(name, Team::getName, this::load);
+    if (result != null)
+      return result;
 
     for (Team team : list(new NameFilter(name))) {
       result = team;
@@ -282,6 +382,8 @@ public class Teams
 
     if (result == null)
       getLogger().warning("failed to load team: " + name);
+    else
+      getNameIndex().add(name, result.getPK());
 
     return result;
   }
@@ -347,8 +449,11 @@ public class Teams
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new Team(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update team: " + pk, response);
 
@@ -386,8 +491,11 @@ public class Teams
 
     request  = newDelete(getPath() + pk + (hard ? "/hard" : "/"));
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      getNameIndex().remove(pk);
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete team (hard=" + hard + "): " + pk, response);
   }
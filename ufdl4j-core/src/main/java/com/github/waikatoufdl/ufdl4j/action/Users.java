@@ -1,6 +1,6 @@
 /*
  * Users.java
- * Copyright (C) 2019-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -10,6 +10,7 @@ import com.github.fracpete.requests4j.request.Request;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapperWithPK;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+import com.github.waikatoufdl.ufdl4j.core.JsonArrayIterator;
 import com.github.waikatoufdl.ufdl4j.core.JsonObjectWithShortDescription;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
@@ -22,6 +23,9 @@ import com.google.gson.JsonObject;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Encapsulates user operations.
@@ -163,6 +167,9 @@ public class Users
     }
   }
 
+  /** for resolving references in batches, null if not yet created. */
+  protected transient BatchLoader<User> m_BatchLoader;
+
   /**
    * Returns the name of the action.
    *
@@ -230,6 +237,58 @@ public class Users
     return result;
   }
 
+  /**
+   * For listing the users asynchronously.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the future list of users
+   * @see		#list(Filter)
+   */
+  public CompletableFuture<List<User>> listAsync(Filter filter) {
+    return async(() -> list(filter));
+  }
+
+  /**
+   * For listing the users incrementally, parsing the response while iterating.
+   * Only the current User object is held in memory. The iterator needs closing
+   * if not iterated to the end.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the iterator over the users
+   * @throws Exception	if request fails
+   * @see		#list(Filter)
+   */
+  public JsonArrayIterator<User> iterate(Filter filter) throws Exception {
+    getLogger().info("iterating users" + (filter == null ? "" : ", filter: " + filter.toJsonObject()));
+    return iterate(filter, User::new, "Failed to list users!");
+  }
+
+  /**
+   * For listing the users as stream, parsing the response incrementally.
+   * The stream needs closing if not consumed completely.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @return		the stream of users
+   * @throws Exception	if request fails
+   * @see		#iterate(Filter)
+   */
+  public Stream<User> stream(Filter filter) throws Exception {
+    return iterate(filter).stream();
+  }
+
+  /**
+   * For listing the users page by page, ordered by PK. The next page gets
+   * retrieved in the background while the current one is being consumed.
+   *
+   * @param filter 	the filter to apply, can be null
+   * @param pageSize	the maximum number of users per page
+   * @return		the iterator over the users
+   * @see		#list(Filter)
+   */
+  public PagingIterator<User> paged(GenericFilter filter, int pageSize) {
+    return new PagingIterator<>(this::list, filter, pageSize, m_Connection.fanOutExecutor());
+  }
+
   /**
    * For loading a specific user by primary key.
    *
@@ -260,6 +319,44 @@ public class Users
     return result;
   }
 
+  /**
+   * For loading a specific user by primary key asynchronously.
+   *
+   * @param pk 		the primary key of the user to load
+   * @return		the future user
+   * @see		#load(int)
+   */
+  public CompletableFuture<User> loadAsync(int pk) {
+    return async(() -> load(pk));
+  }
+
+  /**
+   * For loading many users by primary key, using chunked list calls that
+   * get executed in parallel.
+   *
+   * @param pks 	the primary keys of the users to load
+   * @return		the users keyed by PK, unknown PKs are omitted
+   * @throws Exception	if request fails
+   */
+  public Map<Integer, User> loadAll(int... pks) throws Exception {
+    return loadAll(this::list, pks);
+  }
+
+  /**
+   * Returns a lazy reference to the user with the specified primary key.
+   * All pending references get resolved in a single batch when the first
+   * one gets dereferenced.
+   *
+   * @param pk 		the primary key of the user
+   * @return		the reference
+   * @see		#loadAll(int...)
+   */
+  public synchronized Reference<User> reference(int pk) {
+    if (m_BatchLoader == null)
+      m_BatchLoader = newBatchLoader(this::loadAll);
+    return m_BatchLoader.reference(pk);
+  }
+
   /**
    * For loading a specific user by name.
    *
@@ -273,7 +370,9 @@ public class Users
 
     getLogger().info("loading user with name: " + name);
 
-    result = null;
+    result = loadIndexed(name, User::getUserName, this::load);
+    if (result != null)
+      return result;
 
     filter = new GenericFilter(
       new AbstractExpression[]{
@@ -287,6 +386,8 @@ public class Users
 
     if (result == null)
       getLogger().warning("failed to load user: " + name);
+    else
+      getNameIndex().add(name, result.getPK());
 
     return result;
   }
@@ -375,8 +476,11 @@ public class Users
     request = newPut(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new User(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to update user: " + pk, response);
 
@@ -437,8 +541,11 @@ public class Users
     request = newPatch(getPath() + pk)
       .body(data.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8);
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
       result = new User(response.jsonObject());
+      getNameIndex().remove(pk);
+      evictReference(pk);
+    }
     else
       throw new FailedRequestException("Failed to partially update user: " + pk, response);
 
@@ -474,8 +581,11 @@ public class Users
 
     request  = newDelete(getPath() + pk + "/");
     response = execute(request);
-    if (response.ok())
+    if (response.ok()) {
+      getNameIndex().remove(pk);
+      evictReference(pk);
       return true;
+    }
     else
       throw new FailedRequestException("Failed to delete user: " + pk, response);
   }
@@ -1,6 +1,6 @@
 /*
  * Authentication.java
- * Copyright (C) 2019-2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.auth;
@@ -9,8 +9,11 @@ import com.github.fracpete.requests4j.core.MediaTypeHelper;
 import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.context.Server;
 import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.metrics.jfr.TokenRefreshEvent;
 import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 /**
@@ -45,11 +48,14 @@ public class Authentication
   protected String m_Password;
 
   /** the tokens. */
-  protected Tokens m_Tokens;
+  protected volatile Tokens m_Tokens;
 
   /** for handling the storage of the tokens. */
   protected TokenStorageHandler m_Storage;
 
+  /** the listeners for changes to the tokens. */
+  protected transient List<TokensListener> m_TokensListeners;
+
   /**
    * Initializes the authentication with empty user/password.
    */
@@ -81,6 +87,37 @@ public class Authentication
     m_Storage  = storage;
   }
 
+  /**
+   * Adds the listener for changes to the tokens.
+   *
+   * @param l		the listener to add
+   */
+  public synchronized void addTokensListener(TokensListener l) {
+    if (m_TokensListeners == null)
+      m_TokensListeners = new ArrayList<>();
+    m_TokensListeners.add(l);
+  }
+
+  /**
+   * Removes the listener for changes to the tokens.
+   *
+   * @param l		the listener to remove
+   */
+  public synchronized void removeTokensListener(TokensListener l) {
+    if (m_TokensListeners != null)
+      m_TokensListeners.remove(l);
+  }
+
+  /**
+   * Notifies all the listeners that the tokens have changed.
+   */
+  protected synchronized void notifyTokensListeners() {
+    if (m_TokensListeners == null)
+      return;
+    for (TokensListener l: m_TokensListeners)
+      l.tokensChanged(this, m_Tokens);
+  }
+
   /**
    * Returns the user.
    *
@@ -104,9 +141,11 @@ public class Authentication
    *
    * @return		the tokens
    */
-  public Tokens getTokens() {
-    if (m_Tokens == null)
+  public synchronized Tokens getTokens() {
+    if (m_Tokens == null) {
       m_Tokens = m_Storage.load(this);
+      notifyTokensListeners();
+    }
 
     // obtain
     if (!m_Tokens.isValid()) {
@@ -148,66 +187,135 @@ public class Authentication
     return m_Storage;
   }
 
+  /**
+   * Checks whether the tokens got renewed since the specified access token
+   * was handed out.
+   *
+   * @param stale	the access token that the server rejected
+   * @return		true if renewed
+   */
+  protected boolean isRenewed(String stale) {
+    return (m_Tokens != null) && (stale != null) && !stale.equals(m_Tokens.getAccessToken());
+  }
+
+  /**
+   * Obtains the tokens, using the supplied user/password, unless another
+   * thread has already renewed the specified (rejected) access token.
+   * Concurrent callers wait for the renewal in progress and then continue
+   * with the new tokens, resulting in a single request per expiry.
+   *
+   * @param stale	the access token that the server rejected
+   * @return		null if successful or already renewed, otherwise error message
+   */
+  public synchronized String obtain(String stale) throws Exception {
+    if (isRenewed(stale)) {
+      getLogger().fine("Tokens already obtained");
+      return null;
+    }
+    return obtain();
+  }
+
   /**
    * Obtains the tokens, using the supplied user/password.
    *
    * @return		null if successful, otherwise error message
    */
-  public String obtain() throws Exception {
+  public synchronized String obtain() throws Exception {
     JsonResponse 	response;
     JsonObject 		body;
     JsonObject 		tokens;
+    TokenRefreshEvent	event;
 
     getLogger().info("Obtaining tokens");
-    body = new JsonObject();
-    body.addProperty(KEY_USERNAME, m_User);
-    body.addProperty(KEY_PASSWORD, m_Password);
-    response = m_Server.getSession()
-      .post(m_Server.build(URL_OBTAIN))
-      .body(body.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8)
-      .execute(new JsonResponse());
-    if (response.ok()) {
-      tokens   = response.jsonObject();
-      m_Tokens = new Tokens(tokens.get(KEY_REFRESH).getAsString(), tokens.get(KEY_ACCESS).getAsString());
-      m_Storage.store(this, m_Tokens);
-      return null;
+    event = new TokenRefreshEvent();
+    event.begin();
+    try {
+      body = new JsonObject();
+      body.addProperty(KEY_USERNAME, m_User);
+      body.addProperty(KEY_PASSWORD, m_Password);
+      response = m_Server.getSession()
+	.post(m_Server.build(URL_OBTAIN))
+	.body(body.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8)
+	.execute(new JsonResponse());
+      if (response.ok()) {
+	tokens   = response.jsonObject();
+	m_Tokens = new Tokens(tokens.get(KEY_REFRESH).getAsString(), tokens.get(KEY_ACCESS).getAsString());
+	m_Storage.store(this, m_Tokens);
+	notifyTokensListeners();
+	event.success = true;
+	return null;
+      }
+      else {
+	m_Tokens = new Tokens();
+	notifyTokensListeners();
+	getLogger().severe("Failed to obtain tokens: " + response.toString());
+	return response.toString();
+      }
     }
-    else {
-      m_Tokens = new Tokens();
-      getLogger().severe("Failed to obtain tokens: " + response.toString());
-      return response.toString();
+    finally {
+      event.finish("obtain", m_User);
     }
   }
 
+  /**
+   * Updates the access token, using the refresh token, unless another
+   * thread has already renewed the specified (rejected) access token.
+   * If the refresh fails (eg expired refresh token), new tokens get obtained
+   * right away. Concurrent callers wait for the refresh in progress and then
+   * continue with the new tokens, resulting in a single request per expiry.
+   *
+   * @param stale	the access token that the server rejected
+   * @return		null if successful or already refreshed, otherwise error message
+   */
+  public synchronized String refresh(String stale) throws Exception {
+    if (isRenewed(stale)) {
+      getLogger().fine("Tokens already refreshed");
+      return null;
+    }
+    if (refresh() == null)
+      return null;
+    return obtain();
+  }
+
   /**
    * Updates the access token, using the refresh token.
    * Automatically obtains refresh/access tokens if none set.
    *
    * @return		null if successful, otherwise error message
    */
-  public String refresh() throws Exception {
+  public synchronized String refresh() throws Exception {
     JsonResponse	response;
     JsonObject 		body;
     JsonObject		tokens;
+    TokenRefreshEvent	event;
 
-    if (m_Tokens.getRefreshToken() == null)
+    if ((m_Tokens == null) || (m_Tokens.getRefreshToken() == null))
       return obtain();
 
     getLogger().info("Refreshing tokens");
-    body = new JsonObject();
-    body.addProperty(KEY_REFRESH, m_Tokens.getRefreshToken());
-    response = m_Server.getSession()
-      .post(m_Server.build(URL_REFRESH))
-      .body(body.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8)
-      .execute(new JsonResponse());
-    if (response.ok()) {
-      tokens   = response.jsonObject();
-      m_Tokens = new Tokens(m_Tokens.getRefreshToken(), tokens.get(KEY_ACCESS).getAsString());
-      return null;
+    event = new TokenRefreshEvent();
+    event.begin();
+    try {
+      body = new JsonObject();
+      body.addProperty(KEY_REFRESH, m_Tokens.getRefreshToken());
+      response = m_Server.getSession()
+	.post(m_Server.build(URL_REFRESH))
+	.body(body.toString(), MediaTypeHelper.APPLICATION_JSON_UTF8)
+	.execute(new JsonResponse());
+      if (response.ok()) {
+	tokens   = response.jsonObject();
+	m_Tokens = new Tokens(m_Tokens.getRefreshToken(), tokens.get(KEY_ACCESS).getAsString());
+	notifyTokensListeners();
+	event.success = true;
+	return null;
+      }
+      else {
+	getLogger().severe("Failed to refresh tokens: " + response.toString());
+	return response.toString();
+      }
     }
-    else {
-      getLogger().severe("Failed to refresh tokens: " + response.toString());
-      return response.toString();
+    finally {
+      event.finish("refresh", m_User);
     }
   }
 
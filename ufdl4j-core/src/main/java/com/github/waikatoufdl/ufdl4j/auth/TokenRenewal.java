@@ -0,0 +1,156 @@
+/*
+ * TokenRenewal.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.auth;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Refreshes the access token in the background shortly before it expires
+ * (as stated in its JWT payload), so that requests don't have to fail with
+ * a 401 first.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TokenRenewal
+  extends AbstractLoggingObject
+  implements TokensListener {
+
+  private static final long serialVersionUID = 6171716236521733519L;
+
+  /** the default margin in seconds before expiry. */
+  public static final int DEFAULT_MARGIN = 30;
+
+  /** the margin in seconds before expiry. */
+  protected int m_Margin;
+
+  /** the scheduler. */
+  protected transient ScheduledExecutorService m_Scheduler;
+
+  /** the scheduled renewal. */
+  protected transient ScheduledFuture<?> m_Pending;
+
+  /**
+   * Initializes the renewal with the default margin.
+   *
+   * @see		#DEFAULT_MARGIN
+   */
+  public TokenRenewal() {
+    this(DEFAULT_MARGIN);
+  }
+
+  /**
+   * Initializes the renewal.
+   *
+   * @param margin	the margin in seconds before expiry
+   */
+  public TokenRenewal(int margin) {
+    if (margin < 0)
+      throw new IllegalArgumentException("Margin cannot be negative: " + margin);
+    m_Margin = margin;
+  }
+
+  /**
+   * Returns the margin before expiry.
+   *
+   * @return		the margin in seconds
+   */
+  public int getMargin() {
+    return m_Margin;
+  }
+
+  /**
+   * Returns the scheduler, instantiates it if necessary.
+   *
+   * @return		the scheduler
+   */
+  protected synchronized ScheduledExecutorService getScheduler() {
+    if (m_Scheduler == null) {
+      m_Scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+	Thread result = new Thread(r, "ufdl4j-token-renewal");
+	result.setDaemon(true);
+	return result;
+      });
+    }
+    return m_Scheduler;
+  }
+
+  /**
+   * Schedules the renewal of the tokens.
+   *
+   * @param context	the authentication the tokens belong to
+   * @param tokens	the current tokens
+   */
+  @Override
+  public synchronized void tokensChanged(Authentication context, Tokens tokens) {
+    long	remaining;
+    long	delay;
+
+    if (m_Pending != null) {
+      m_Pending.cancel(false);
+      m_Pending = null;
+    }
+
+    if ((tokens == null) || !tokens.isValid() || (tokens.getAccessTokenExpiry() == -1))
+      return;
+
+    remaining = tokens.getAccessTokenExpiry() - System.currentTimeMillis();
+    delay     = remaining - m_Margin * 1000L;
+    // short-lived token? renew half-way through
+    if (delay <= 0)
+      delay = remaining / 2;
+    if (delay <= 0)
+      return;
+
+    getLogger().fine("Scheduling token renewal in " + delay + "msec");
+    m_Pending = getScheduler().schedule(() -> renew(context, tokens.getAccessToken()), delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Renews the tokens, obtains new ones if the refresh token has expired as well
+   * (handled by {@link Authentication#refresh(String)}).
+   *
+   * @param context	the authentication to renew
+   * @param stale	the access token to replace
+   */
+  protected void renew(Authentication context, String stale) {
+    try {
+      context.refresh(stale);
+    }
+    catch (Exception e) {
+      getLogger().log(Level.WARNING, "Failed to renew tokens for '" + context.getUser() + "'!", e);
+    }
+  }
+
+  /**
+   * Stops the background renewal.
+   */
+  public synchronized void close() {
+    if (m_Pending != null) {
+      m_Pending.cancel(false);
+      m_Pending = null;
+    }
+    if (m_Scheduler != null) {
+      m_Scheduler.shutdownNow();
+      m_Scheduler = null;
+    }
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "margin=" + getMargin();
+  }
+}
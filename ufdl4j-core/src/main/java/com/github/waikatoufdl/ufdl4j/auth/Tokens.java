@@ -1,11 +1,16 @@
 /*
  * Tokens.java
- * Copyright (C) 2019 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.auth;
 
 import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 /**
  * Simple container for the tokens.
@@ -17,12 +22,18 @@ public class Tokens
 
   private static final long serialVersionUID = -2685498010440079540L;
 
+  /** the claim in the JWT payload that contains the expiry (seconds since epoch). */
+  public static final String CLAIM_EXPIRY = "exp";
+
   /** the refresh token. */
   protected String m_RefreshToken;
 
   /** the access token. */
   protected String m_AccessToken;
 
+  /** the expiry of the access token (msec since epoch), -1 if unknown. */
+  protected long m_AccessTokenExpiry;
+
   /**
    * Initializes the container with empty tokens.
    */
@@ -37,8 +48,9 @@ public class Tokens
    * @param access	the access token
    */
   public Tokens(String refresh, String access) {
-    m_RefreshToken = refresh;
-    m_AccessToken  = access;
+    m_RefreshToken      = refresh;
+    m_AccessToken       = access;
+    m_AccessTokenExpiry = expiry(access);
   }
 
   /**
@@ -59,6 +71,25 @@ public class Tokens
     return m_AccessToken;
   }
 
+  /**
+   * Returns the expiry of the access token, as stored in its JWT payload.
+   *
+   * @return		the expiry in msec since epoch, -1 if unknown
+   */
+  public long getAccessTokenExpiry() {
+    return m_AccessTokenExpiry;
+  }
+
+  /**
+   * Checks whether the access token expires within the specified time.
+   *
+   * @param msec	the time span in msec
+   * @return		true if expiring, false if not or expiry unknown
+   */
+  public boolean expiresWithin(long msec) {
+    return (m_AccessTokenExpiry > -1) && (System.currentTimeMillis() + msec >= m_AccessTokenExpiry);
+  }
+
   /**
    * Checks whether the tokens are set (ie not null and not empty).
    *
@@ -73,8 +104,37 @@ public class Tokens
    * Invalidates the tokens.
    */
   public void invalidate() {
-    m_RefreshToken = "";
-    m_AccessToken  = "";
+    m_RefreshToken      = "";
+    m_AccessToken       = "";
+    m_AccessTokenExpiry = -1;
+  }
+
+  /**
+   * Extracts the expiry from the payload of the JWT token.
+   *
+   * @param token	the token to decode
+   * @return		the expiry in msec since epoch, -1 if not available
+   */
+  public static long expiry(String token) {
+    String[]	parts;
+    JsonElement	claims;
+
+    if ((token == null) || token.isEmpty())
+      return -1;
+    parts = token.split("\\.");
+    if (parts.length < 2)
+      return -1;
+
+    try {
+      claims = JsonParser.parseString(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+      if (claims.isJsonObject() && claims.getAsJsonObject().has(CLAIM_EXPIRY))
+	return claims.getAsJsonObject().get(CLAIM_EXPIRY).getAsLong() * 1000L;
+    }
+    catch (Exception e) {
+      // not a JWT token
+    }
+
+    return -1;
   }
 
   /**
@@ -0,0 +1,23 @@
+/*
+ * TokensListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.auth;
+
+/**
+ * Interface for classes that get notified when the tokens of an
+ * {@link Authentication} change.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public interface TokensListener {
+
+  /**
+   * Gets called when the tokens have been loaded, obtained or refreshed.
+   *
+   * @param context	the authentication the tokens belong to
+   * @param tokens	the current tokens
+   */
+  public void tokensChanged(Authentication context, Tokens tokens);
+}
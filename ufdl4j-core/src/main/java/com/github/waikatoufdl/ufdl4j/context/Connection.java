@@ -1,15 +1,37 @@
 /*
  * Connection.java
- * Copyright (C) 2019-2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.context;
 
 import com.github.fracpete.requests4j.Session;
+import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.waikatoufdl.ufdl4j.auth.Authentication;
 import com.github.waikatoufdl.ufdl4j.auth.LocalStorage;
+import com.github.waikatoufdl.ufdl4j.auth.TokenRenewal;
 import com.github.waikatoufdl.ufdl4j.auth.TokenStorageHandler;
 import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.SingleFlight;
+import com.github.waikatoufdl.ufdl4j.metrics.Metrics;
+import com.github.waikatoufdl.ufdl4j.metrics.RequestListener;
+import com.github.waikatoufdl.ufdl4j.metrics.RequestTrace;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Contains the connection context.
@@ -21,6 +43,9 @@ public class Connection
 
   private static final long serialVersionUID = -41024684662002189L;
 
+  /** the default number of threads for asynchronous calls. */
+  public static final int DEFAULT_ASYNC_THREADS = 8;
+
   /** the session in use. */
   protected Session m_Session;
 
@@ -30,6 +55,54 @@ public class Connection
   /** the authentication. */
   protected Authentication m_Authentication;
 
+  /** the executor for asynchronous calls. */
+  protected transient ExecutorService m_Executor;
+
+  /** whether the executor was created by the connection (and needs shutting down). */
+  protected boolean m_OwnsExecutor;
+
+  /** the number of threads of the default executor. */
+  protected int m_AsyncThreads;
+
+  /** the executor for splitting up a single call into parallel parts. */
+  protected transient ExecutorService m_FanOutExecutor;
+
+  /** for renewing the tokens in the background, null if disabled. */
+  protected TokenRenewal m_TokenRenewal;
+
+  /** the connect timeout in seconds. */
+  protected int m_ConnectTimeout;
+
+  /** the read timeout in seconds. */
+  protected int m_ReadTimeout;
+
+  /** the write timeout in seconds. */
+  protected int m_WriteTimeout;
+
+  /** the configuration of the HTTP connection pool/dispatcher. */
+  protected HttpConfig m_HttpConfig;
+
+  /** the pooled HTTP client for low-level transfers. */
+  protected transient OkHttpClient m_HttpClient;
+
+  /** the policy for retrying failed requests. */
+  protected RetryPolicy m_RetryPolicy;
+
+  /** the rate limiter for all requests, null if none. */
+  protected RateLimiter m_RateLimiter;
+
+  /** the rate limiters per action path. */
+  protected Map<String, RateLimiter> m_PathRateLimiters;
+
+  /** for sharing the responses of identical concurrent GET requests, null if disabled. */
+  protected SingleFlight<JsonResponse> m_GetCoalescer;
+
+  /** the request metrics, null if disabled. */
+  protected Metrics m_Metrics;
+
+  /** the listeners for the request lifecycle. */
+  protected transient List<RequestListener> m_RequestListeners;
+
   /**
    * Initializes the connection.
    */
@@ -45,12 +118,36 @@ public class Connection
    * @param writeTimeout 	the timeout in seconds for writing
    */
   public Connection(int connectTimeout, int readTimeout, int writeTimeout) {
+    this(connectTimeout, readTimeout, writeTimeout, new HttpConfig());
+  }
+
+  /**
+   * Initializes the connection.
+   *
+   * @param connectTimeout  	the timeout in seconds for connecting
+   * @param readTimeout 	the timeout in seconds for reading
+   * @param writeTimeout 	the timeout in seconds for writing
+   * @param httpConfig 		the configuration for the connection pool/dispatcher of the raw transfers
+   */
+  public Connection(int connectTimeout, int readTimeout, int writeTimeout, HttpConfig httpConfig) {
+    m_ConnectTimeout   = connectTimeout;
+    m_ReadTimeout      = readTimeout;
+    m_WriteTimeout     = writeTimeout;
+    m_HttpConfig       = httpConfig;
+    m_RetryPolicy      = new RetryPolicy();
+    m_RateLimiter      = null;
+    m_PathRateLimiters = new ConcurrentHashMap<>();
+    m_GetCoalescer     = null;
+    m_Metrics          = new Metrics();
+    m_RequestListeners = new CopyOnWriteArrayList<>();
+    m_AsyncThreads     = DEFAULT_ASYNC_THREADS;
     m_Session = new Session()
       .connectTimeout(connectTimeout)
       .readTimeout(readTimeout)
       .writeTimeout(writeTimeout);
     m_Server         = new Server();
     m_Authentication = new Authentication();
+    m_TokenRenewal   = new TokenRenewal();
     server(Server.DEFAULT_HOST);
     authentication("", "");
   }
@@ -97,11 +194,46 @@ public class Connection
    * @return		the client itself
    */
   public Connection authentication(String user, String password, TokenStorageHandler storage) {
+    if (m_TokenRenewal != null)
+      m_TokenRenewal.close();
     m_Authentication = new Authentication(user, password, storage);
     m_Authentication.setServer(m_Server);
+    if (m_TokenRenewal != null)
+      m_Authentication.addTokensListener(m_TokenRenewal);
+    return this;
+  }
+
+  /**
+   * Sets the margin for renewing the access token in the background before
+   * it expires.
+   *
+   * @param margin	the margin in seconds before expiry, use -1 to disable background renewal
+   * @return		the connection itself
+   */
+  public Connection tokenRenewal(int margin) {
+    if (m_TokenRenewal != null) {
+      m_Authentication.removeTokensListener(m_TokenRenewal);
+      m_TokenRenewal.close();
+    }
+    if (margin < 0) {
+      m_TokenRenewal = null;
+    }
+    else {
+      m_TokenRenewal = new TokenRenewal(margin);
+      m_Authentication.addTokensListener(m_TokenRenewal);
+    }
     return this;
   }
 
+  /**
+   * Returns the background renewal of the tokens.
+   *
+   * @return		the renewal, null if disabled
+   */
+  public TokenRenewal tokenRenewal() {
+    return m_TokenRenewal;
+  }
+
   /**
    * Returns the authentication.
    *
@@ -120,10 +252,345 @@ public class Connection
     return m_Session;
   }
 
+  /**
+   * Sets the configuration of the connection pool/dispatcher of the pooled
+   * HTTP client that is used for raw transfers (file up-/downloads); the
+   * requests4j session is not affected. Discards the current HTTP client, a
+   * new one gets created on demand.
+   *
+   * @param value	the configuration
+   * @return		the connection itself
+   */
+  public synchronized Connection httpConfig(HttpConfig value) {
+    m_HttpConfig = value;
+    closeHttpClient();
+    return this;
+  }
+
+  /**
+   * Returns the configuration of the connection pool/dispatcher of the pooled
+   * HTTP client that is used for raw transfers.
+   *
+   * @return		the configuration
+   */
+  public synchronized HttpConfig httpConfig() {
+    return m_HttpConfig;
+  }
+
+  /**
+   * Returns the pooled HTTP client, configured via {@link #httpConfig()}.
+   * Creates it if necessary. All raw transfers share the same connection pool
+   * and dispatcher, i.e., warm connections get reused.
+   *
+   * @return		the client
+   */
+  public synchronized OkHttpClient httpClient() {
+    OkHttpClient.Builder	builder;
+    Dispatcher			dispatcher;
+
+    if (m_HttpClient == null) {
+      dispatcher = new Dispatcher();
+      dispatcher.setMaxRequests(m_HttpConfig.maxRequests());
+      dispatcher.setMaxRequestsPerHost(m_HttpConfig.maxRequestsPerHost());
+      builder = new OkHttpClient.Builder()
+	.connectionPool(new ConnectionPool(m_HttpConfig.maxIdleConnections(), m_HttpConfig.keepAlive(), TimeUnit.SECONDS))
+	.dispatcher(dispatcher)
+	.retryOnConnectionFailure(true)
+	.eventListenerFactory(RequestTrace.EVENT_LISTENER_FACTORY);
+      if (m_HttpConfig.http2())
+	builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+      else
+	builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+      if (m_ConnectTimeout > -1)
+	builder.connectTimeout(m_ConnectTimeout, TimeUnit.SECONDS);
+      if (m_ReadTimeout > -1)
+	builder.readTimeout(m_ReadTimeout, TimeUnit.SECONDS);
+      if (m_WriteTimeout > -1)
+	builder.writeTimeout(m_WriteTimeout, TimeUnit.SECONDS);
+      m_HttpClient = builder.build();
+      getLogger().fine("HTTP client: " + m_HttpConfig);
+    }
+    return m_HttpClient;
+  }
+
+  /**
+   * Releases the connections and threads of the HTTP client, if any.
+   */
+  protected synchronized void closeHttpClient() {
+    if (m_HttpClient == null)
+      return;
+    m_HttpClient.dispatcher().executorService().shutdown();
+    m_HttpClient.connectionPool().evictAll();
+    m_HttpClient = null;
+  }
+
+  /**
+   * Sets the policy for retrying failed requests.
+   *
+   * @param value	the policy, use {@link RetryPolicy#none()} to disable retries
+   * @return		the connection itself
+   */
+  public Connection retryPolicy(RetryPolicy value) {
+    if (value == null)
+      throw new IllegalArgumentException("Retry policy cannot be null!");
+    m_RetryPolicy = value;
+    return this;
+  }
+
+  /**
+   * Returns the policy for retrying failed requests.
+   *
+   * @return		the policy
+   */
+  public RetryPolicy retryPolicy() {
+    return m_RetryPolicy;
+  }
+
+  /**
+   * Sets the rate limiter that applies to all requests.
+   *
+   * @param value	the limiter, null to disable
+   * @return		the connection itself
+   */
+  public Connection rateLimiter(RateLimiter value) {
+    m_RateLimiter = value;
+    return this;
+  }
+
+  /**
+   * Returns the rate limiter that applies to all requests.
+   *
+   * @return		the limiter, null if none
+   */
+  public RateLimiter rateLimiter() {
+    return m_RateLimiter;
+  }
+
+  /**
+   * Sets the rate limiter for the requests of the action with the specified
+   * path (eg "v1/datasets/"). Applies in addition to the global limiter.
+   *
+   * @param path	the path of the action
+   * @param value	the limiter, null to remove
+   * @return		the connection itself
+   */
+  public Connection pathRateLimiter(String path, RateLimiter value) {
+    if (value == null)
+      m_PathRateLimiters.remove(path);
+    else
+      m_PathRateLimiters.put(path, value);
+    return this;
+  }
+
+  /**
+   * Returns the rate limiter for the requests of the action with the
+   * specified path.
+   *
+   * @param path	the path of the action
+   * @return		the limiter, null if none
+   */
+  public RateLimiter pathRateLimiter(String path) {
+    return m_PathRateLimiters.get(path);
+  }
+
+  /**
+   * Sets whether identical concurrent GET requests (same URL and access
+   * token) share a single response. Disabled by default. When enabled, the
+   * callers receive the same response object, which must not be modified.
+   *
+   * @param value	true to coalesce
+   * @return		the connection itself
+   */
+  public synchronized Connection coalesceGets(boolean value) {
+    if (value && (m_GetCoalescer == null))
+      m_GetCoalescer = new SingleFlight<>();
+    else if (!value)
+      m_GetCoalescer = null;
+    return this;
+  }
+
+  /**
+   * Returns the object for sharing the responses of identical concurrent
+   * GET requests.
+   *
+   * @return		the coalescer, null if disabled
+   */
+  public synchronized SingleFlight<JsonResponse> getCoalescer() {
+    return m_GetCoalescer;
+  }
+
+  /**
+   * Sets the registry for the request metrics. Any previously registered
+   * MBeans of the old registry get removed.
+   *
+   * @param value	the registry, null to disable metrics
+   * @return		the connection itself
+   */
+  public synchronized Connection metrics(Metrics value) {
+    if ((m_Metrics != null) && (m_Metrics != value))
+      m_Metrics.unregisterMBeans();
+    m_Metrics = value;
+    return this;
+  }
+
+  /**
+   * Returns the registry for the request metrics.
+   *
+   * @return		the registry, null if disabled
+   */
+  public synchronized Metrics metrics() {
+    return m_Metrics;
+  }
+
+  /**
+   * Adds the listener to be notified about the lifecycle of every request.
+   *
+   * @param l		the listener to add
+   * @return		the connection itself
+   */
+  public Connection addRequestListener(RequestListener l) {
+    m_RequestListeners.add(l);
+    return this;
+  }
+
+  /**
+   * Removes the listener.
+   *
+   * @param l		the listener to remove
+   * @return		the connection itself
+   */
+  public Connection removeRequestListener(RequestListener l) {
+    m_RequestListeners.remove(l);
+    return this;
+  }
+
+  /**
+   * Returns the listeners for the request lifecycle.
+   *
+   * @return		the listeners (live, thread-safe view)
+   */
+  public List<RequestListener> requestListeners() {
+    return Collections.unmodifiableList(m_RequestListeners);
+  }
+
+  /**
+   * Sets the executor to use for asynchronous calls. The caller is responsible
+   * for shutting down the executor.
+   *
+   * @param value	the executor, null to fall back to the default one
+   * @return		the connection itself
+   */
+  public synchronized Connection executor(ExecutorService value) {
+    if (m_OwnsExecutor && (m_Executor != null))
+      m_Executor.shutdown();
+    m_Executor     = value;
+    m_OwnsExecutor = false;
+    return this;
+  }
+
+  /**
+   * Sets the number of threads of the default executor for asynchronous
+   * calls, which caps the number of asynchronous calls in flight. Replaces
+   * the default executor if already created (running calls complete).
+   * Has no effect on an executor supplied via {@link #executor(ExecutorService)}.
+   *
+   * @param value	the number of threads, at least 1
+   * @return		the connection itself
+   * @see		#DEFAULT_ASYNC_THREADS
+   */
+  public synchronized Connection asyncThreads(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Number of async threads must be at least 1, provided: " + value);
+    m_AsyncThreads = value;
+    if (m_OwnsExecutor && (m_Executor != null)) {
+      m_Executor.shutdown();
+      m_Executor     = null;
+      m_OwnsExecutor = false;
+    }
+    return this;
+  }
+
+  /**
+   * Returns the number of threads of the default executor for asynchronous
+   * calls.
+   *
+   * @return		the number of threads
+   */
+  public synchronized int asyncThreads() {
+    return m_AsyncThreads;
+  }
+
+  /**
+   * Returns the executor for asynchronous calls. Creates a fixed thread pool
+   * with {@link #asyncThreads()} daemon threads if none set. Since the
+   * asynchronous calls block a thread each while waiting for the server,
+   * the size of the executor is the maximum number of asynchronous calls
+   * in flight, any further calls get queued.
+   *
+   * @return		the executor
+   */
+  public synchronized ExecutorService executor() {
+    final AtomicInteger	count;
+
+    if (m_Executor == null) {
+      count = new AtomicInteger();
+      m_Executor = Executors.newFixedThreadPool(m_AsyncThreads, new ThreadFactory() {
+	@Override
+	public Thread newThread(Runnable r) {
+	  Thread result = new Thread(r, "ufdl4j-async-" + count.incrementAndGet());
+	  result.setDaemon(true);
+	  return result;
+	}
+      });
+      m_OwnsExecutor = true;
+    }
+    return m_Executor;
+  }
+
+  /**
+   * Returns the executor for splitting up a single call into parts that get
+   * executed in parallel (eg chunked loads, segmented downloads, prefetching
+   * of pages). It is kept separate from {@link #executor()}, so that calls
+   * running on the async executor can wait for their parts without starving
+   * that pool. Threads get created as required and discarded when idle.
+   *
+   * @return		the executor
+   */
+  public synchronized ExecutorService fanOutExecutor() {
+    final AtomicInteger	count;
+
+    if (m_FanOutExecutor == null) {
+      count = new AtomicInteger();
+      m_FanOutExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+	@Override
+	public Thread newThread(Runnable r) {
+	  Thread result = new Thread(r, "ufdl4j-fanout-" + count.incrementAndGet());
+	  result.setDaemon(true);
+	  return result;
+	}
+      });
+    }
+    return m_FanOutExecutor;
+  }
+
   /**
    * Closes the client.
    */
   public void close() {
+    synchronized (this) {
+      if (m_OwnsExecutor && (m_Executor != null))
+	m_Executor.shutdown();
+      m_Executor     = null;
+      m_OwnsExecutor = false;
+      if (m_FanOutExecutor != null)
+	m_FanOutExecutor.shutdown();
+      m_FanOutExecutor = null;
+    }
+    closeHttpClient();
+    if (m_TokenRenewal != null)
+      m_TokenRenewal.close();
+    if (m_Metrics != null)
+      m_Metrics.unregisterMBeans();
     m_Session.close();
   }
 
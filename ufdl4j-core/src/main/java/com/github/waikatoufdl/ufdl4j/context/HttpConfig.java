@@ -0,0 +1,183 @@
+/*
+ * HttpConfig.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.context;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+
+/**
+ * Configuration of the connection pool and dispatcher of the pooled HTTP
+ * client of the connection ({@link Connection#httpClient()}). Only raw
+ * transfers use that client (file up-/downloads, streaming, chunked and
+ * bulk transfers); the regular list/load/create/update/delete calls go
+ * through the requests4j session and are not affected.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class HttpConfig
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 6128532447810945327L;
+
+  /** the default maximum number of idle connections to keep. */
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+
+  /** the default keep-alive in seconds for idle connections. */
+  public static final int DEFAULT_KEEP_ALIVE = 300;
+
+  /** the default maximum number of concurrent requests. */
+  public static final int DEFAULT_MAX_REQUESTS = 64;
+
+  /** the default maximum number of concurrent requests per host. */
+  public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+
+  /** the maximum number of idle connections. */
+  protected int m_MaxIdleConnections;
+
+  /** the keep-alive in seconds. */
+  protected int m_KeepAlive;
+
+  /** the maximum number of concurrent requests. */
+  protected int m_MaxRequests;
+
+  /** the maximum number of concurrent requests per host. */
+  protected int m_MaxRequestsPerHost;
+
+  /** whether to allow HTTP/2. */
+  protected boolean m_HTTP2;
+
+  /**
+   * Initializes the configuration with the default values.
+   */
+  public HttpConfig() {
+    m_MaxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    m_KeepAlive          = DEFAULT_KEEP_ALIVE;
+    m_MaxRequests        = DEFAULT_MAX_REQUESTS;
+    m_MaxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    m_HTTP2              = true;
+  }
+
+  /**
+   * Sets the maximum number of idle connections to keep in the pool.
+   *
+   * @param value	the maximum
+   * @return		the configuration itself
+   */
+  public HttpConfig maxIdleConnections(int value) {
+    if (value < 0)
+      throw new IllegalArgumentException("Maximum number of idle connections must be at least 0, provided: " + value);
+    m_MaxIdleConnections = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of idle connections to keep in the pool.
+   *
+   * @return		the maximum
+   */
+  public int maxIdleConnections() {
+    return m_MaxIdleConnections;
+  }
+
+  /**
+   * Sets the time to keep idle connections alive.
+   *
+   * @param value	the keep-alive in seconds
+   * @return		the configuration itself
+   */
+  public HttpConfig keepAlive(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Keep-alive must be at least 1 second, provided: " + value);
+    m_KeepAlive = value;
+    return this;
+  }
+
+  /**
+   * Returns the time to keep idle connections alive.
+   *
+   * @return		the keep-alive in seconds
+   */
+  public int keepAlive() {
+    return m_KeepAlive;
+  }
+
+  /**
+   * Sets the maximum number of concurrent requests.
+   *
+   * @param value	the maximum
+   * @return		the configuration itself
+   */
+  public HttpConfig maxRequests(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum number of requests must be at least 1, provided: " + value);
+    m_MaxRequests = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of concurrent requests.
+   *
+   * @return		the maximum
+   */
+  public int maxRequests() {
+    return m_MaxRequests;
+  }
+
+  /**
+   * Sets the maximum number of concurrent requests per host.
+   *
+   * @param value	the maximum
+   * @return		the configuration itself
+   */
+  public HttpConfig maxRequestsPerHost(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum number of requests per host must be at least 1, provided: " + value);
+    m_MaxRequestsPerHost = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of concurrent requests per host.
+   *
+   * @return		the maximum
+   */
+  public int maxRequestsPerHost() {
+    return m_MaxRequestsPerHost;
+  }
+
+  /**
+   * Sets whether to allow HTTP/2 (if offered by the server).
+   *
+   * @param value	true if to allow HTTP/2, false for HTTP/1.1 only
+   * @return		the configuration itself
+   */
+  public HttpConfig http2(boolean value) {
+    m_HTTP2 = value;
+    return this;
+  }
+
+  /**
+   * Returns whether HTTP/2 is allowed.
+   *
+   * @return		true if HTTP/2 allowed
+   */
+  public boolean http2() {
+    return m_HTTP2;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "maxIdleConnections=" + m_MaxIdleConnections
+      + ", keepAlive=" + m_KeepAlive
+      + ", maxRequests=" + m_MaxRequests
+      + ", maxRequestsPerHost=" + m_MaxRequestsPerHost
+      + ", http2=" + m_HTTP2;
+  }
+}
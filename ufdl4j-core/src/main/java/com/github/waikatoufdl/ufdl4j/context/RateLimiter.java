@@ -0,0 +1,171 @@
+/*
+ * RateLimiter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.context;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of requests (token bucket) and the number of concurrent
+ * requests in flight. Callers must call {@link #release()} for every
+ * successful {@link #acquire()}.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class RateLimiter
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = -2719416330412957831L;
+
+  /** the value for no limit. */
+  public static final int UNLIMITED = -1;
+
+  /** the requests per second, {@link #UNLIMITED} if no limit. */
+  protected double m_RequestsPerSecond;
+
+  /** the maximum number of requests in flight, {@link #UNLIMITED} if no limit. */
+  protected int m_MaxInFlight;
+
+  /** the maximum number of tokens (ie burst size). */
+  protected double m_Burst;
+
+  /** the available tokens (negative if reserved in advance). */
+  protected double m_Tokens;
+
+  /** the time in nanoseconds of the last refill. */
+  protected long m_LastRefill;
+
+  /** for limiting the number of requests in flight. */
+  protected transient Semaphore m_InFlight;
+
+  /**
+   * Initializes the limiter with a burst size of one second's worth of requests.
+   *
+   * @param requestsPerSecond	the requests per second, {@link #UNLIMITED} for no limit
+   * @param maxInFlight		the maximum number of concurrent requests, {@link #UNLIMITED} for no limit
+   */
+  public RateLimiter(double requestsPerSecond, int maxInFlight) {
+    this(requestsPerSecond, maxInFlight, Math.max(1, requestsPerSecond));
+  }
+
+  /**
+   * Initializes the limiter.
+   *
+   * @param requestsPerSecond	the requests per second, {@link #UNLIMITED} for no limit
+   * @param maxInFlight		the maximum number of concurrent requests, {@link #UNLIMITED} for no limit
+   * @param burst		the maximum number of requests that can be sent in one go after idling
+   */
+  public RateLimiter(double requestsPerSecond, int maxInFlight, double burst) {
+    if ((requestsPerSecond <= 0) && (requestsPerSecond != UNLIMITED))
+      throw new IllegalArgumentException("Requests per second must be greater than 0 (or " + UNLIMITED + " for no limit), provided: " + requestsPerSecond);
+    if ((maxInFlight < 1) && (maxInFlight != UNLIMITED))
+      throw new IllegalArgumentException("Maximum requests in flight must be at least 1 (or " + UNLIMITED + " for no limit), provided: " + maxInFlight);
+    if (burst < 1)
+      throw new IllegalArgumentException("Burst must be at least 1, provided: " + burst);
+    m_RequestsPerSecond = requestsPerSecond;
+    m_MaxInFlight       = maxInFlight;
+    m_Burst             = burst;
+    m_Tokens            = burst;
+    m_LastRefill        = System.nanoTime();
+  }
+
+  /**
+   * Returns the requests per second.
+   *
+   * @return		the requests, {@link #UNLIMITED} for no limit
+   */
+  public double getRequestsPerSecond() {
+    return m_RequestsPerSecond;
+  }
+
+  /**
+   * Returns the maximum number of concurrent requests.
+   *
+   * @return		the maximum, {@link #UNLIMITED} for no limit
+   */
+  public int getMaxInFlight() {
+    return m_MaxInFlight;
+  }
+
+  /**
+   * Returns the semaphore for the requests in flight.
+   *
+   * @return		the semaphore, null if unlimited
+   */
+  protected synchronized Semaphore getInFlight() {
+    if ((m_InFlight == null) && (m_MaxInFlight != UNLIMITED))
+      m_InFlight = new Semaphore(m_MaxInFlight, true);
+    return m_InFlight;
+  }
+
+  /**
+   * Takes a token from the bucket, reserving it in advance if none available.
+   *
+   * @return		the time in nanoseconds to wait before the token is available
+   */
+  protected synchronized long reserve() {
+    long	now;
+
+    now          = System.nanoTime();
+    m_Tokens     = Math.min(m_Burst, m_Tokens + (now - m_LastRefill) * m_RequestsPerSecond / 1e9);
+    m_LastRefill = now;
+    m_Tokens    -= 1;
+    if (m_Tokens >= 0)
+      return 0;
+    return (long) (-m_Tokens / m_RequestsPerSecond * 1e9);
+  }
+
+  /**
+   * Waits until the request can be sent.
+   *
+   * @throws InterruptedException	if interrupted while waiting
+   */
+  public void acquire() throws InterruptedException {
+    Semaphore	inFlight;
+    long	wait;
+
+    inFlight = getInFlight();
+    if (inFlight != null)
+      inFlight.acquire();
+
+    if (m_RequestsPerSecond != UNLIMITED) {
+      wait = reserve();
+      if (wait > 0) {
+	try {
+	  TimeUnit.NANOSECONDS.sleep(wait);
+	}
+	catch (InterruptedException e) {
+	  if (inFlight != null)
+	    inFlight.release();
+	  throw e;
+	}
+      }
+    }
+  }
+
+  /**
+   * Signals that the request has finished.
+   */
+  public void release() {
+    Semaphore	inFlight;
+
+    inFlight = getInFlight();
+    if (inFlight != null)
+      inFlight.release();
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "requestsPerSecond=" + m_RequestsPerSecond + ", maxInFlight=" + m_MaxInFlight + ", burst=" + m_Burst;
+  }
+}
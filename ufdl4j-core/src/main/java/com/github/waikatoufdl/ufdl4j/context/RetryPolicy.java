@@ -0,0 +1,323 @@
+/*
+ * RetryPolicy.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.context;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Determines whether and when to retry failed requests. Only idempotent
+ * methods get retried, using exponential backoff with full jitter. A
+ * Retry-After value sent by the server takes precedence over the backoff.
+ * Override the methods to customize the behavior.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class RetryPolicy
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 8174950342183756612L;
+
+  /** the header with the delay requested by the server. */
+  public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+  /** the default maximum number of retries. */
+  public static final int DEFAULT_MAX_RETRIES = 3;
+
+  /** the default initial delay in msec. */
+  public static final long DEFAULT_INITIAL_DELAY = 500;
+
+  /** the default maximum delay in msec. */
+  public static final long DEFAULT_MAX_DELAY = 30000;
+
+  /** the HTTP methods that are idempotent. */
+  public static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+  /** the status codes that indicate transient problems. */
+  public static final Set<Integer> TRANSIENT_STATUS_CODES = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+
+  /** the maximum number of retries. */
+  protected int m_MaxRetries;
+
+  /** the initial delay in msec. */
+  protected long m_InitialDelay;
+
+  /** the maximum delay in msec. */
+  protected long m_MaxDelay;
+
+  /** the number of retries performed. */
+  protected AtomicLong m_Retries;
+
+  /** the number of requests that failed despite retries. */
+  protected AtomicLong m_Exhausted;
+
+  /**
+   * Initializes the policy with the default values.
+   */
+  public RetryPolicy() {
+    this(DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY);
+  }
+
+  /**
+   * Initializes the policy.
+   *
+   * @param maxRetries		the maximum number of retries, 0 to disable
+   * @param initialDelay	the delay in msec before the first retry
+   * @param maxDelay		the maximum delay in msec
+   */
+  public RetryPolicy(int maxRetries, long initialDelay, long maxDelay) {
+    if (maxRetries < 0)
+      throw new IllegalArgumentException("Maximum number of retries must be at least 0, provided: " + maxRetries);
+    if (initialDelay < 0)
+      throw new IllegalArgumentException("Initial delay must be at least 0, provided: " + initialDelay);
+    m_MaxRetries   = maxRetries;
+    m_InitialDelay = initialDelay;
+    m_MaxDelay     = Math.max(initialDelay, maxDelay);
+    m_Retries      = new AtomicLong();
+    m_Exhausted    = new AtomicLong();
+  }
+
+  /**
+   * Returns a policy that never retries.
+   *
+   * @return		the policy
+   */
+  public static RetryPolicy none() {
+    return new RetryPolicy(0, 0, 0);
+  }
+
+  /**
+   * Returns the maximum number of retries.
+   *
+   * @return		the maximum
+   */
+  public int getMaxRetries() {
+    return m_MaxRetries;
+  }
+
+  /**
+   * Returns the delay before the first retry.
+   *
+   * @return		the delay in msec
+   */
+  public long getInitialDelay() {
+    return m_InitialDelay;
+  }
+
+  /**
+   * Returns the maximum delay between retries.
+   *
+   * @return		the delay in msec
+   */
+  public long getMaxDelay() {
+    return m_MaxDelay;
+  }
+
+  /**
+   * Returns whether the HTTP method is idempotent, i.e., safe to retry.
+   *
+   * @param method	the method (eg GET)
+   * @return		true if idempotent
+   */
+  public boolean isIdempotent(String method) {
+    return (method != null) && IDEMPOTENT_METHODS.contains(method.toUpperCase());
+  }
+
+  /**
+   * Returns whether the status code indicates a transient problem.
+   *
+   * @param statusCode	the HTTP status code
+   * @return		true if worth retrying
+   */
+  public boolean isTransient(int statusCode) {
+    return TRANSIENT_STATUS_CODES.contains(statusCode);
+  }
+
+  /**
+   * Returns whether the exception indicates a transient problem, eg a reset
+   * connection or a timeout.
+   *
+   * @param e		the exception
+   * @return		true if worth retrying
+   */
+  public boolean isTransient(Exception e) {
+    if (e instanceof SocketTimeoutException)
+      return true;
+    if (e instanceof InterruptedIOException)
+      return false;
+    return (e instanceof IOException);
+  }
+
+  /**
+   * Returns whether another attempt is allowed. Counts the request as
+   * exhausted if not.
+   *
+   * @param method	the HTTP method
+   * @param attempt	the number of retries so far
+   * @return		true if to retry
+   */
+  protected boolean canRetry(String method, int attempt) {
+    if (!isIdempotent(method))
+      return false;
+    if (attempt < m_MaxRetries)
+      return true;
+    if (m_MaxRetries > 0)
+      m_Exhausted.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * Returns whether to retry the request after the response.
+   *
+   * @param method	the HTTP method
+   * @param statusCode	the HTTP status code received
+   * @param attempt	the number of retries so far
+   * @return		true if to retry
+   */
+  public boolean shouldRetry(String method, int statusCode, int attempt) {
+    return isTransient(statusCode) && canRetry(method, attempt);
+  }
+
+  /**
+   * Returns whether to retry the request after the exception.
+   *
+   * @param method	the HTTP method
+   * @param e		the exception that occurred
+   * @param attempt	the number of retries so far
+   * @return		true if to retry
+   */
+  public boolean shouldRetry(String method, Exception e, int attempt) {
+    return isTransient(e) && canRetry(method, attempt);
+  }
+
+  /**
+   * Computes the delay before the next attempt: exponential backoff with
+   * full jitter, unless the server requested a delay.
+   *
+   * @param attempt	the number of retries so far
+   * @param retryAfter	the delay in msec requested by the server, -1 if none
+   * @return		the delay in msec
+   */
+  public long delay(int attempt, long retryAfter) {
+    long	backoff;
+
+    if (retryAfter >= 0)
+      return Math.min(retryAfter, m_MaxDelay);
+    backoff = m_InitialDelay << Math.min(attempt, 30);
+    if ((backoff <= 0) || (backoff > m_MaxDelay))
+      backoff = m_MaxDelay;
+    return ThreadLocalRandom.current().nextLong(backoff + 1);
+  }
+
+  /**
+   * Waits before the next attempt and counts the retry.
+   *
+   * @param attempt	the number of retries so far
+   * @param retryAfter	the delay in msec requested by the server, -1 if none
+   * @throws InterruptedException	if interrupted while waiting
+   */
+  public void await(int attempt, long retryAfter) throws InterruptedException {
+    long	delay;
+
+    delay = delay(attempt, retryAfter);
+    m_Retries.incrementAndGet();
+    getLogger().info("Retry #" + (attempt + 1) + " in " + delay + "ms");
+    if (delay > 0)
+      Thread.sleep(delay);
+  }
+
+  /**
+   * Returns the number of retries performed so far.
+   *
+   * @return		the number of retries
+   */
+  public long getRetryCount() {
+    return m_Retries.get();
+  }
+
+  /**
+   * Returns the number of requests that were still failing after exhausting
+   * all retries.
+   *
+   * @return		the number of requests
+   */
+  public long getExhaustedCount() {
+    return m_Exhausted.get();
+  }
+
+  /**
+   * Parses the value of a Retry-After header, either delay in seconds or
+   * HTTP date.
+   *
+   * @param value	the header value, can be null
+   * @return		the delay in msec, -1 if not available or invalid
+   */
+  public static long parseRetryAfter(String value) {
+    long	result;
+
+    if ((value == null) || value.trim().isEmpty())
+      return -1;
+
+    value = value.trim();
+    try {
+      result = Long.parseLong(value) * 1000;
+    }
+    catch (NumberFormatException e) {
+      try {
+	result = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)).toMillis();
+      }
+      catch (Exception ex) {
+	return -1;
+      }
+    }
+
+    return Math.max(0, result);
+  }
+
+  /**
+   * Parses the Retry-After header from the response headers (name is
+   * matched case-insensitively).
+   *
+   * @param headers	the response headers, can be null
+   * @return		the delay in msec, -1 if not available or invalid
+   * @see		#parseRetryAfter(String)
+   */
+  public static long parseRetryAfter(Map<String, List<String>> headers) {
+    if (headers == null)
+      return -1;
+
+    for (Map.Entry<String, List<String>> entry: headers.entrySet()) {
+      if (HEADER_RETRY_AFTER.equalsIgnoreCase(entry.getKey()) && (entry.getValue() != null) && !entry.getValue().isEmpty())
+	return parseRetryAfter(entry.getValue().get(0));
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "maxRetries=" + m_MaxRetries + ", initialDelay=" + m_InitialDelay + ", maxDelay=" + m_MaxDelay
+      + ", retries=" + getRetryCount() + ", exhausted=" + getExhaustedCount();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * ContentRange.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.core;
+
+import java.io.Serializable;
+
+/**
+ * Parsed Content-Range header of a partial response, eg "bytes 100-199/1000"
+ * or "bytes *&#47;1000" (in case of a 416 response).
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class ContentRange
+  implements Serializable {
+
+  private static final long serialVersionUID = 3316084513412893260L;
+
+  /** the header name. */
+  public static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+  /** the request header for asking for a range. */
+  public static final String HEADER_RANGE = "Range";
+
+  /** the request header for only applying the range if the resource is unchanged. */
+  public static final String HEADER_IF_RANGE = "If-Range";
+
+  /** the response header with the entity tag. */
+  public static final String HEADER_ETAG = "ETag";
+
+  /** the response header with the last modification date. */
+  public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+  /** the prefix of weak entity tags. */
+  public static final String PREFIX_WEAK_ETAG = "W/";
+
+  /** the unit. */
+  public static final String UNIT_BYTES = "bytes";
+
+  /** the first byte (inclusive), -1 if not available. */
+  protected long m_Start;
+
+  /** the last byte (inclusive), -1 if not available. */
+  protected long m_End;
+
+  /** the total length, -1 if unknown. */
+  protected long m_Total;
+
+  /**
+   * Initializes the range.
+   *
+   * @param start	the first byte (inclusive), -1 if not available
+   * @param end		the last byte (inclusive), -1 if not available
+   * @param total	the total length, -1 if unknown
+   */
+  public ContentRange(long start, long end, long total) {
+    m_Start = start;
+    m_End   = end;
+    m_Total = total;
+  }
+
+  /**
+   * Returns the first byte.
+   *
+   * @return		the first byte (inclusive), -1 if not available
+   */
+  public long getStart() {
+    return m_Start;
+  }
+
+  /**
+   * Returns the last byte.
+   *
+   * @return		the last byte (inclusive), -1 if not available
+   */
+  public long getEnd() {
+    return m_End;
+  }
+
+  /**
+   * Returns the total length of the resource.
+   *
+   * @return		the total length, -1 if unknown
+   */
+  public long getTotal() {
+    return m_Total;
+  }
+
+  /**
+   * Returns the value for a Range request header.
+   *
+   * @param start	the first byte (inclusive)
+   * @param end		the last byte (inclusive), -1 for up to the end
+   * @return		the header value
+   */
+  public static String toRangeHeader(long start, long end) {
+    return UNIT_BYTES + "=" + start + "-" + (end < 0 ? "" : "" + end);
+  }
+
+  /**
+   * Returns whether the entity tag is a strong one, i.e., guarantees
+   * byte-for-byte identical content and can be used with If-Range.
+   *
+   * @param etag	the entity tag, can be null
+   * @return		true if a strong entity tag
+   */
+  public static boolean isStrongETag(String etag) {
+    return (etag != null) && !etag.trim().isEmpty() && !etag.trim().startsWith(PREFIX_WEAK_ETAG);
+  }
+
+  /**
+   * Parses the Content-Range header.
+   *
+   * @param value	the header value, can be null
+   * @return		the range, null if not present or not parseable
+   */
+  public static ContentRange parse(String value) {
+    String	range;
+    String	total;
+    int		pos;
+
+    if (value == null)
+      return null;
+    value = value.trim();
+    if (!value.startsWith(UNIT_BYTES + " "))
+      return null;
+    value = value.substring(UNIT_BYTES.length() + 1).trim();
+    pos   = value.indexOf('/');
+    if (pos == -1)
+      return null;
+    range = value.substring(0, pos).trim();
+    total = value.substring(pos + 1).trim();
+
+    try {
+      if (range.equals("*"))
+	return new ContentRange(-1, -1, total.equals("*") ? -1 : Long.parseLong(total));
+      pos = range.indexOf('-');
+      if (pos == -1)
+	return null;
+      return new ContentRange(
+	Long.parseLong(range.substring(0, pos).trim()),
+	Long.parseLong(range.substring(pos + 1).trim()),
+	total.equals("*") ? -1 : Long.parseLong(total));
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the range in header notation.
+   *
+   * @return		the range
+   */
+  @Override
+  public String toString() {
+    return UNIT_BYTES + " "
+      + (m_Start < 0 ? "*" : m_Start + "-" + m_End)
+      + "/" + (m_Total < 0 ? "*" : "" + m_Total);
+  }
+}
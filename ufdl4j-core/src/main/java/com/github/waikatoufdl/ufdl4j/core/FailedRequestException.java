@@ -1,6 +1,6 @@
 /*
  * FailedRequestException.java
- * Copyright (C) 2019-2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2019-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.core;
@@ -18,6 +18,9 @@ public class FailedRequestException
 
   private static final long serialVersionUID = 1844792766565512809L;
 
+  /** the HTTP status code, -1 if not available. */
+  protected int m_StatusCode;
+
   /**
    * Initializes the exception with the message and the response.
    *
@@ -26,11 +29,56 @@ public class FailedRequestException
    */
   public FailedRequestException(String msg, Response response) {
     super(toString(msg, response));
+    m_StatusCode = response.statusCode();
+  }
+
+  /**
+   * Initializes the exception with the message and the details of the
+   * failed request (for requests not executed via a session).
+   *
+   * @param msg			the message to use
+   * @param statusCode		the HTTP status code
+   * @param statusMessage	the HTTP status message
+   * @param body		the body of the response, can be null
+   */
+  public FailedRequestException(String msg, int statusCode, String statusMessage, String body) {
+    super(toString(msg, statusCode, statusMessage, body));
+    m_StatusCode = statusCode;
+  }
+
+  /**
+   * Returns the HTTP status code of the failed request.
+   *
+   * @return		the status code, -1 if not available
+   */
+  public int getStatusCode() {
+    return m_StatusCode;
+  }
+
+  /**
+   * Turns the response details into a string.
+   *
+   * @param msg			the message to use
+   * @param statusCode		the HTTP status code
+   * @param statusMessage	the HTTP status message
+   * @param body		the body of the response, can be null
+   * @return			the generated string
+   */
+  protected static String toString(String msg, int statusCode, String statusMessage, String body) {
+    StringBuilder	result;
+
+    result = new StringBuilder(msg);
+    result.append("\n").append(statusCode).append(": ").append(statusMessage);
+    if ((body != null) && !body.isEmpty())
+      result.append("\n").append(body);
+
+    return result.toString();
   }
 
   /**
    * Turns the response into a string.
    *
+   * @param msg		the message to use
    * @param response 	the response to turn into a string.
    * @return		the generated string
    */
@@ -0,0 +1,135 @@
+/*
+ * JsonArrayIterator.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.core;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the objects of a JSON array, parsing them incrementally from
+ * the reader and turning them into wrappers one by one. Only the current
+ * object is held in memory. The reader gets closed once the end of the
+ * array is reached, or when calling {@link #close()}.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T>	the type of wrapper
+ */
+public class JsonArrayIterator<T>
+  implements Iterator<T>, Closeable {
+
+  /** the reader to read from. */
+  protected JsonReader m_Reader;
+
+  /** for turning the JSON objects into wrappers. */
+  protected Function<JsonObject, T> m_Wrapper;
+
+  /** whether the iterator has been closed. */
+  protected boolean m_Closed;
+
+  /**
+   * Initializes the iterator.
+   *
+   * @param reader	the reader to parse the JSON array from
+   * @param wrapper	for turning the JSON objects into wrappers
+   * @throws IOException	if the data does not start with an array
+   */
+  public JsonArrayIterator(Reader reader, Function<JsonObject, T> wrapper) throws IOException {
+    m_Reader  = new JsonReader(reader);
+    m_Wrapper = wrapper;
+    m_Closed  = false;
+    try {
+      if (m_Reader.peek() == JsonToken.BEGIN_ARRAY)
+	m_Reader.beginArray();
+      else
+	throw new IOException("Expected JSON array, but found: " + m_Reader.peek());
+    }
+    catch (IOException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns whether there are more objects.
+   *
+   * @return		true if more objects available
+   */
+  @Override
+  public boolean hasNext() {
+    if (m_Closed)
+      return false;
+    try {
+      if (m_Reader.hasNext())
+	return true;
+      m_Reader.endArray();
+      close();
+      return false;
+    }
+    catch (IOException e) {
+      close();
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the next object.
+   *
+   * @return		the next wrapper
+   */
+  @Override
+  public T next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    try {
+      return m_Wrapper.apply(JsonParser.parseReader(m_Reader).getAsJsonObject());
+    }
+    catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the remaining objects as stream. Closing the stream closes
+   * the iterator.
+   *
+   * @return		the stream
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+      .onClose(this::close);
+  }
+
+  /**
+   * Closes the underlying reader.
+   */
+  @Override
+  public void close() {
+    if (m_Closed)
+      return;
+    m_Closed = true;
+    try {
+      m_Reader.close();
+    }
+    catch (IOException e) {
+      // ignored
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * NameIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps names to primary keys, for resolving names locally rather than via
+ * filtered list calls. Only the results of such name lookups should get
+ * recorded, so that the index resolves a name to the same object the lookup
+ * would.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class NameIndex
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 4709226353851893160L;
+
+  /** the mapping from name to PK. */
+  protected Map<String, Integer> m_PKs;
+
+  /** the mapping from PK to name. */
+  protected Map<Integer, String> m_Names;
+
+  /**
+   * Initializes the index.
+   */
+  public NameIndex() {
+    m_PKs   = new HashMap<>();
+    m_Names = new HashMap<>();
+  }
+
+  /**
+   * Records the name for the PK, replacing any previous name of the PK and
+   * any previous PK of the name.
+   *
+   * @param name	the name
+   * @param pk		the primary key
+   */
+  public synchronized void add(String name, int pk) {
+    Integer	old;
+
+    if (name == null)
+      return;
+    remove(pk);
+    old = m_PKs.put(name, pk);
+    if (old != null)
+      m_Names.remove(old);
+    m_Names.put(pk, name);
+  }
+
+  /**
+   * Returns the PK for the name.
+   *
+   * @param name	the name to look up
+   * @return		the PK, null if not present
+   */
+  public synchronized Integer get(String name) {
+    return m_PKs.get(name);
+  }
+
+  /**
+   * Removes the PK and its name.
+   *
+   * @param pk		the primary key to remove
+   */
+  public synchronized void remove(int pk) {
+    String	name;
+
+    name = m_Names.remove(pk);
+    if (name != null)
+      m_PKs.remove(name);
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public synchronized void clear() {
+    m_PKs.clear();
+    m_Names.clear();
+  }
+
+  /**
+   * Returns the number of names in the index.
+   *
+   * @return		the number of names
+   */
+  public synchronized int size() {
+    return m_PKs.size();
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "size=" + size();
+  }
+}
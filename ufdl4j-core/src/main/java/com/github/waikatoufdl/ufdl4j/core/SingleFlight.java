@@ -0,0 +1,115 @@
+/*
+ * SingleFlight.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.core;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deduplicates concurrent calls with the same key: only the first caller
+ * performs the call, all other callers arriving while it is in flight
+ * wait for and share its result (or exception).
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <V>	the type of result
+ */
+public class SingleFlight<V>
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 2306715845903761418L;
+
+  /** the calls in flight. */
+  protected transient Map<String, CompletableFuture<V>> m_InFlight;
+
+  /** the number of calls that shared the result of another call. */
+  protected AtomicLong m_Shared;
+
+  /**
+   * Initializes the object.
+   */
+  public SingleFlight() {
+    m_InFlight = new ConcurrentHashMap<>();
+    m_Shared   = new AtomicLong();
+  }
+
+  /**
+   * Performs the call, unless a call with the same key is already in flight,
+   * in which case its result gets returned.
+   *
+   * @param key		the key identifying the call
+   * @param call	the call to perform
+   * @return		the result
+   * @throws Exception	if the call failed
+   */
+  public V execute(String key, Callable<V> call) throws Exception {
+    CompletableFuture<V>	own;
+    CompletableFuture<V>	shared;
+    V				result;
+
+    own    = new CompletableFuture<>();
+    shared = m_InFlight.putIfAbsent(key, own);
+    if (shared != null) {
+      m_Shared.incrementAndGet();
+      getLogger().fine("sharing in-flight call: " + key);
+      try {
+	return shared.join();
+      }
+      catch (CompletionException e) {
+	if (e.getCause() instanceof Exception)
+	  throw (Exception) e.getCause();
+	if (e.getCause() instanceof Error)
+	  throw (Error) e.getCause();
+	throw e;
+      }
+    }
+
+    try {
+      result = call.call();
+      own.complete(result);
+      return result;
+    }
+    catch (Throwable t) {
+      own.completeExceptionally(t);
+      throw t;
+    }
+    finally {
+      m_InFlight.remove(key, own);
+    }
+  }
+
+  /**
+   * Returns the number of calls currently in flight.
+   *
+   * @return		the number of calls
+   */
+  public int inFlight() {
+    return m_InFlight.size();
+  }
+
+  /**
+   * Returns the number of calls that shared the result of another call
+   * instead of performing their own.
+   *
+   * @return		the number of calls
+   */
+  public long getSharedCount() {
+    return m_Shared.get();
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "inFlight=" + inFlight() + ", shared=" + getSharedCount();
+  }
+}
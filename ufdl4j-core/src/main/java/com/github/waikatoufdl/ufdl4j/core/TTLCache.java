@@ -0,0 +1,231 @@
+/*
+ * TTLCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simple in-memory read-through cache with a time-to-live for its entries
+ * and a maximum number of entries (least recently used ones get evicted).
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <K>	the type of key
+ * @param <V>	the type of value
+ */
+public class TTLCache<K, V>
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = -6190725531836613490L;
+
+  /**
+   * Container for a cached value.
+   *
+   * @param <V>	the type of value
+   */
+  protected static class CacheEntry<V> {
+
+    /** the value. */
+    public final V value;
+
+    /** the time in msec when the value expires. */
+    public final long expires;
+
+    /**
+     * Initializes the entry.
+     *
+     * @param value	the value
+     * @param expires	the time in msec when the value expires
+     */
+    public CacheEntry(V value, long expires) {
+      this.value   = value;
+      this.expires = expires;
+    }
+  }
+
+  /** the time-to-live in msec. */
+  protected long m_TTL;
+
+  /** the maximum number of entries. */
+  protected int m_MaxSize;
+
+  /** the cached entries (in access order). */
+  protected transient Map<K, CacheEntry<V>> m_Entries;
+
+  /** the number of cache hits. */
+  protected AtomicLong m_Hits;
+
+  /** the number of cache misses. */
+  protected AtomicLong m_Misses;
+
+  /** gets incremented with every invalidation (to discard values loaded concurrently). */
+  protected long m_Generation;
+
+  /**
+   * Initializes the cache.
+   *
+   * @param ttl		the time-to-live in msec for the entries
+   * @param maxSize	the maximum number of entries
+   */
+  public TTLCache(long ttl, int maxSize) {
+    if (ttl < 1)
+      throw new IllegalArgumentException("TTL must be at least 1msec, provided: " + ttl);
+    if (maxSize < 1)
+      throw new IllegalArgumentException("Maximum size must be at least 1, provided: " + maxSize);
+    m_TTL        = ttl;
+    m_MaxSize    = maxSize;
+    m_Hits       = new AtomicLong();
+    m_Misses     = new AtomicLong();
+    m_Generation = 0;
+    m_Entries    = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+      private static final long serialVersionUID = 3170389453916046513L;
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+	return size() > m_MaxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the time-to-live.
+   *
+   * @return		the TTL in msec
+   */
+  public long getTTL() {
+    return m_TTL;
+  }
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return		the maximum
+   */
+  public int getMaxSize() {
+    return m_MaxSize;
+  }
+
+  /**
+   * Returns the value stored under the key, if not expired.
+   *
+   * @param key		the key to look up
+   * @return		the value, null if not present or expired
+   */
+  public synchronized V get(K key) {
+    CacheEntry<V>	entry;
+
+    entry = m_Entries.get(key);
+    if (entry == null)
+      return null;
+    if (entry.expires < System.currentTimeMillis()) {
+      m_Entries.remove(key);
+      return null;
+    }
+    return entry.value;
+  }
+
+  /**
+   * Stores the value under the key.
+   *
+   * @param key		the key
+   * @param value	the value, null values are not stored
+   */
+  public synchronized void put(K key, V value) {
+    if (value == null)
+      m_Entries.remove(key);
+    else
+      m_Entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + m_TTL));
+  }
+
+  /**
+   * Returns the value stored under the key, obtaining it from the loader
+   * if not present or expired. The loader gets called outside the lock.
+   *
+   * @param key		the key to look up
+   * @param loader	for obtaining the value
+   * @return		the value
+   * @throws Exception	if the loader fails
+   */
+  public V get(K key, Callable<V> loader) throws Exception {
+    V		result;
+    long	generation;
+
+    synchronized (this) {
+      result     = get(key);
+      generation = m_Generation;
+    }
+    if (result != null) {
+      m_Hits.incrementAndGet();
+      return result;
+    }
+
+    m_Misses.incrementAndGet();
+    result = loader.call();
+    synchronized (this) {
+      // don't store values that might predate an invalidation
+      if (generation == m_Generation)
+	put(key, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Removes the entry for the key.
+   *
+   * @param key		the key to remove
+   */
+  public synchronized void invalidate(K key) {
+    m_Generation++;
+    m_Entries.remove(key);
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public synchronized void invalidateAll() {
+    m_Generation++;
+    m_Entries.clear();
+  }
+
+  /**
+   * Returns the number of entries (including expired ones not yet removed).
+   *
+   * @return		the number of entries
+   */
+  public synchronized int size() {
+    return m_Entries.size();
+  }
+
+  /**
+   * Returns the number of lookups that were served from the cache.
+   *
+   * @return		the number of hits
+   */
+  public long getHitCount() {
+    return m_Hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that had to call the loader.
+   *
+   * @return		the number of misses
+   */
+  public long getMissCount() {
+    return m_Misses.get();
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "ttl=" + m_TTL + ", maxSize=" + m_MaxSize + ", size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount();
+  }
+}
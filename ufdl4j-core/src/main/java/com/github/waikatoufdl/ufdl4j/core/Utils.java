@@ -1,11 +1,16 @@
 /*
  * Utils.java
- * Copyright (C) 2020 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.core;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * General helper class.
@@ -106,4 +111,21 @@ public class Utils {
   public static String arrayToString(Object array) {
     return arrayToString(array, false);
   }
+
+  /**
+   * Moves the file, replacing the target. Uses an atomic move if the file
+   * system supports it, so readers never see a partially written target.
+   *
+   * @param source	the file to move
+   * @param target	the destination
+   * @throws IOException	if moving fails
+   */
+  public static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
 }
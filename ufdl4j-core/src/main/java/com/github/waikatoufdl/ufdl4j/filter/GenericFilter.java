@@ -1,6 +1,6 @@
 /*
  * Filter.java
- * Copyright (C) 2020-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2020-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.filter;
@@ -21,6 +21,9 @@ public class GenericFilter
 
   private static final long serialVersionUID = 3644686418413637038L;
 
+  /** the value for no limit on the number of elements. */
+  public static final int NO_LIMIT = -1;
+
   /** the expressions. */
   protected AbstractExpression[] m_Expressions;
 
@@ -30,6 +33,9 @@ public class GenericFilter
   /** whether to include inactive elements. */
   protected boolean m_IncludeInactive;
 
+  /** the maximum number of elements to return. */
+  protected int m_Limit;
+
   /**
    * Initializes the filter with no expressions, no sorting, excludes inactive elements.
    */
@@ -96,6 +102,7 @@ public class GenericFilter
     m_Expressions     = expressions;
     m_Order           = (order == null) ? (new OrderBy[0]) : order;
     m_IncludeInactive = includeInactive;
+    m_Limit           = NO_LIMIT;
   }
 
   /**
@@ -125,6 +132,28 @@ public class GenericFilter
     return m_IncludeInactive;
   }
 
+  /**
+   * Sets the maximum number of elements to return.
+   *
+   * @param value	the limit, {@link #NO_LIMIT} for no limit
+   * @return		itself
+   */
+  public GenericFilter setLimit(int value) {
+    if ((value < 1) && (value != NO_LIMIT))
+      throw new IllegalArgumentException("Limit must be at least 1 (or " + NO_LIMIT + " for no limit), provided: " + value);
+    m_Limit = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of elements to return.
+   *
+   * @return		the limit, {@link #NO_LIMIT} for no limit
+   */
+  public int getLimit() {
+    return m_Limit;
+  }
+
   /**
    * Appends the expression at the end.
    *
@@ -168,7 +197,7 @@ public class GenericFilter
    */
   @Override
   public String toString() {
-    return "#expressions=" + getExpressions().length + ", #order=" + getOrder().length + ", inactive=" + isIncludeInactive();
+    return "#expressions=" + getExpressions().length + ", #order=" + getOrder().length + ", inactive=" + isIncludeInactive() + ", limit=" + getLimit();
   }
 
   /**
@@ -199,6 +228,9 @@ public class GenericFilter
 
     result.addProperty("include_inactive", isIncludeInactive());
 
+    if (getLimit() != NO_LIMIT)
+      result.addProperty("limit", getLimit());
+
     return result;
   }
 
@@ -0,0 +1,134 @@
+/*
+ * In.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.filter.field;
+
+import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.github.waikatoufdl.ufdl4j.filter.logical.And;
+import com.github.waikatoufdl.ufdl4j.filter.logical.Or;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+
+/**
+ * Checks whether a numeric field matches any of the specified values.
+ * Since the backend has no set-membership expression, this gets sent as
+ * a logical OR of exact matches. Since logical expressions cannot be
+ * inverted, the inverted form gets sent as a logical AND of inverted exact
+ * matches instead (De Morgan).
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class In
+  extends AbstractFieldExpression {
+
+  private static final long serialVersionUID = -4230719484823146107L;
+
+  /** the values to look for. */
+  protected Number[] m_Values;
+
+  /**
+   * Initializes the expression with the field.
+   *
+   * @param field  	the field to apply to
+   * @param values 	the values to look for
+   */
+  public In(String field, Number... values) {
+    this(field, values, false);
+  }
+
+  /**
+   * Initializes the expression with the field.
+   *
+   * @param field  	the field to apply to
+   * @param values 	the values to look for
+   * @param invert 	whether to invert
+   */
+  public In(String field, Number[] values, boolean invert) {
+    super(field, invert);
+    m_Values = checkValues(values);
+  }
+
+  /**
+   * Initializes the expression with the field.
+   *
+   * @param field  	the field to apply to
+   * @param values 	the values to look for
+   * @param invert 	whether to invert
+   */
+  public In(String field, int[] values, boolean invert) {
+    this(field, Arrays.stream(values).boxed().toArray(Number[]::new), invert);
+  }
+
+  /**
+   * Hook method for checking the values before accepting them.
+   *
+   * @param values 	the values to check
+   * @return		the values
+   * @throws IllegalArgumentException	if invalid values
+   */
+  protected Number[] checkValues(Number[] values) throws IllegalArgumentException {
+    if ((values == null) || (values.length == 0))
+      throw new IllegalArgumentException("At least one value has to be supplied!");
+    for (Number value: values) {
+      if (value == null)
+	throw new IllegalArgumentException("Values cannot be null!");
+    }
+    return values;
+  }
+
+  /**
+   * Returns the values to look for.
+   *
+   * @return		the values
+   */
+  public Number[] getValues() {
+    return m_Values;
+  }
+
+  /**
+   * Returns the type of the expression.
+   *
+   * @return		the type
+   */
+  @Override
+  public String getType() {
+    if (m_Values.length == 1)
+      return "exact";
+    return isInverted() ? "and" : "or";
+  }
+
+  /**
+   * Returns a short description of the expression.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "in, field=" + getField() + ", invert=" + isInverted() + ", #values=" + getValues().length;
+  }
+
+  /**
+   * Returns the JSON structure.
+   *
+   * @return		the json
+   */
+  @Override
+  public JsonObject toJsonObject() {
+    AbstractExpression[]	exact;
+    int				i;
+
+    if (m_Values.length == 1)
+      return new ExactNumber(getField(), m_Values[0], isInverted()).toJsonObject();
+
+    exact = new AbstractExpression[m_Values.length];
+    for (i = 0; i < m_Values.length; i++)
+      exact[i] = new ExactNumber(getField(), m_Values[i], isInverted());
+    if (isInverted())
+      return new And(exact).toJsonObject();
+    else
+      return new Or(exact).toJsonObject();
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * EndpointMetrics.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The metrics of a single endpoint (method and path template) of an action.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class EndpointMetrics
+  implements Serializable, EndpointMetricsMXBean {
+
+  private static final long serialVersionUID = 8532779190845604411L;
+
+  /** the action. */
+  protected String m_Action;
+
+  /** the endpoint. */
+  protected String m_Endpoint;
+
+  /** the latencies. */
+  protected LatencyHistogram m_Latency;
+
+  /** the number of responses per status code. */
+  protected Map<Integer, AtomicLong> m_StatusCounts;
+
+  /** the number of errors. */
+  protected AtomicLong m_Errors;
+
+  /** the number of retries. */
+  protected AtomicLong m_Retries;
+
+  /** the bytes sent. */
+  protected AtomicLong m_BytesSent;
+
+  /** the bytes received. */
+  protected AtomicLong m_BytesReceived;
+
+  /**
+   * Initializes the metrics.
+   *
+   * @param action	the action
+   * @param endpoint	the endpoint (method and path template)
+   */
+  public EndpointMetrics(String action, String endpoint) {
+    m_Action        = action;
+    m_Endpoint      = endpoint;
+    m_Latency       = new LatencyHistogram();
+    m_StatusCounts  = new ConcurrentHashMap<>();
+    m_Errors        = new AtomicLong();
+    m_Retries       = new AtomicLong();
+    m_BytesSent     = new AtomicLong();
+    m_BytesReceived = new AtomicLong();
+  }
+
+  /**
+   * Records a request.
+   *
+   * @param statusCode		the status code, -1 if failed with an exception
+   * @param nanos		the latency in nanoseconds
+   * @param bytesSent		the bytes sent, -1 if unknown
+   * @param bytesReceived	the bytes received, -1 if unknown
+   */
+  public void record(int statusCode, long nanos, long bytesSent, long bytesReceived) {
+    m_Latency.record(nanos);
+    m_StatusCounts.computeIfAbsent(statusCode, k -> new AtomicLong()).incrementAndGet();
+    if ((statusCode == -1) || (statusCode >= 400))
+      m_Errors.incrementAndGet();
+    if (bytesSent > 0)
+      m_BytesSent.addAndGet(bytesSent);
+    if (bytesReceived > 0)
+      m_BytesReceived.addAndGet(bytesReceived);
+  }
+
+  /**
+   * Records a retry.
+   */
+  public void recordRetry() {
+    m_Retries.incrementAndGet();
+  }
+
+  /**
+   * Returns the latency histogram.
+   *
+   * @return		the histogram
+   */
+  public LatencyHistogram getLatency() {
+    return m_Latency;
+  }
+
+  /**
+   * Returns the action the endpoint belongs to.
+   *
+   * @return		the action
+   */
+  @Override
+  public String getAction() {
+    return m_Action;
+  }
+
+  /**
+   * Returns the endpoint (method and path template).
+   *
+   * @return		the endpoint
+   */
+  @Override
+  public String getEndpoint() {
+    return m_Endpoint;
+  }
+
+  /**
+   * Returns the number of requests.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getRequestCount() {
+    return m_Latency.getCount();
+  }
+
+  /**
+   * Returns the number of requests that failed with an exception or a
+   * status code of 400 or above.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getErrorCount() {
+    return m_Errors.get();
+  }
+
+  /**
+   * Returns the number of retries.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getRetryCount() {
+    return m_Retries.get();
+  }
+
+  /**
+   * Returns the number of bytes sent (where known).
+   *
+   * @return		the bytes
+   */
+  @Override
+  public long getBytesSent() {
+    return m_BytesSent.get();
+  }
+
+  /**
+   * Returns the number of bytes received (where known).
+   *
+   * @return		the bytes
+   */
+  @Override
+  public long getBytesReceived() {
+    return m_BytesReceived.get();
+  }
+
+  /**
+   * Returns the mean latency.
+   *
+   * @return		the latency in msec
+   */
+  @Override
+  public double getMeanLatency() {
+    return m_Latency.getMean();
+  }
+
+  /**
+   * Returns the median latency.
+   *
+   * @return		the latency in msec
+   */
+  @Override
+  public double getP50Latency() {
+    return m_Latency.getPercentile(50);
+  }
+
+  /**
+   * Returns the 95th percentile of the latency.
+   *
+   * @return		the latency in msec
+   */
+  @Override
+  public double getP95Latency() {
+    return m_Latency.getPercentile(95);
+  }
+
+  /**
+   * Returns the 99th percentile of the latency.
+   *
+   * @return		the latency in msec
+   */
+  @Override
+  public double getP99Latency() {
+    return m_Latency.getPercentile(99);
+  }
+
+  /**
+   * Returns the largest latency.
+   *
+   * @return		the latency in msec
+   */
+  @Override
+  public double getMaxLatency() {
+    return m_Latency.getMax();
+  }
+
+  /**
+   * Returns the number of responses per status code (-1 for exceptions).
+   *
+   * @return		the counts
+   */
+  @Override
+  public Map<Integer, Long> getStatusCounts() {
+    Map<Integer, Long>	result;
+
+    result = new TreeMap<>();
+    for (Integer code: m_StatusCounts.keySet())
+      result.put(code, m_StatusCounts.get(code).get());
+
+    return result;
+  }
+
+  /**
+   * Removes all recorded values.
+   */
+  public void reset() {
+    m_Latency.reset();
+    m_StatusCounts.clear();
+    m_Errors.set(0);
+    m_Retries.set(0);
+    m_BytesSent.set(0);
+    m_BytesReceived.set(0);
+  }
+
+  /**
+   * Returns a short description of the metrics.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return m_Action + " " + m_Endpoint + ": " + m_Latency
+      + ", errors=" + getErrorCount()
+      + ", retries=" + getRetryCount()
+      + ", sent=" + getBytesSent()
+      + ", received=" + getBytesReceived()
+      + ", status=" + getStatusCounts();
+  }
+}
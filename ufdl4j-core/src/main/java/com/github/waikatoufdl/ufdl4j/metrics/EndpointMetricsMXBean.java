@@ -0,0 +1,108 @@
+/*
+ * EndpointMetricsMXBean.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a single endpoint.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public interface EndpointMetricsMXBean {
+
+  /**
+   * Returns the action the endpoint belongs to.
+   *
+   * @return		the action
+   */
+  public String getAction();
+
+  /**
+   * Returns the endpoint (method and path template).
+   *
+   * @return		the endpoint
+   */
+  public String getEndpoint();
+
+  /**
+   * Returns the number of requests.
+   *
+   * @return		the count
+   */
+  public long getRequestCount();
+
+  /**
+   * Returns the number of requests that failed with an exception or a
+   * status code of 400 or above.
+   *
+   * @return		the count
+   */
+  public long getErrorCount();
+
+  /**
+   * Returns the number of retries.
+   *
+   * @return		the count
+   */
+  public long getRetryCount();
+
+  /**
+   * Returns the number of bytes sent (where known).
+   *
+   * @return		the bytes
+   */
+  public long getBytesSent();
+
+  /**
+   * Returns the number of bytes received (where known).
+   *
+   * @return		the bytes
+   */
+  public long getBytesReceived();
+
+  /**
+   * Returns the mean latency.
+   *
+   * @return		the latency in msec
+   */
+  public double getMeanLatency();
+
+  /**
+   * Returns the median latency.
+   *
+   * @return		the latency in msec
+   */
+  public double getP50Latency();
+
+  /**
+   * Returns the 95th percentile of the latency.
+   *
+   * @return		the latency in msec
+   */
+  public double getP95Latency();
+
+  /**
+   * Returns the 99th percentile of the latency.
+   *
+   * @return		the latency in msec
+   */
+  public double getP99Latency();
+
+  /**
+   * Returns the largest latency.
+   *
+   * @return		the latency in msec
+   */
+  public double getMaxLatency();
+
+  /**
+   * Returns the number of responses per status code (-1 for exceptions).
+   *
+   * @return		the counts
+   */
+  public Map<Integer, Long> getStatusCounts();
+}
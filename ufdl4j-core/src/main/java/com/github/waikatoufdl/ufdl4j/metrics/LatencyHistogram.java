@@ -0,0 +1,170 @@
+/*
+ * LatencyHistogram.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with logarithmic buckets (8 per power of
+ * two, ie a relative error of about 9%), covering 1 microsecond up to
+ * several days.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class LatencyHistogram
+  implements Serializable {
+
+  private static final long serialVersionUID = -2904785917423617016L;
+
+  /** the number of buckets per power of two. */
+  public static final int SUB_BUCKETS = 8;
+
+  /** the number of powers of two covered (microseconds). */
+  public static final int MAX_EXPONENT = 40;
+
+  /** the counts per bucket. */
+  protected AtomicLongArray m_Buckets;
+
+  /** the number of recorded values. */
+  protected AtomicLong m_Count;
+
+  /** the sum of the recorded values (microseconds). */
+  protected AtomicLong m_Sum;
+
+  /** the largest recorded value (microseconds). */
+  protected AtomicLong m_Max;
+
+  /**
+   * Initializes the histogram.
+   */
+  public LatencyHistogram() {
+    m_Buckets = new AtomicLongArray(SUB_BUCKETS * MAX_EXPONENT + 1);
+    m_Count   = new AtomicLong();
+    m_Sum     = new AtomicLong();
+    m_Max     = new AtomicLong();
+  }
+
+  /**
+   * Returns the bucket for the value.
+   *
+   * @param micros	the latency in microseconds
+   * @return		the bucket index
+   */
+  protected int bucket(long micros) {
+    if (micros <= 1)
+      return 0;
+    return (int) Math.min(m_Buckets.length() - 1, Math.ceil(Math.log(micros) / Math.log(2) * SUB_BUCKETS));
+  }
+
+  /**
+   * Returns the upper bound of the bucket.
+   *
+   * @param bucket	the bucket index
+   * @return		the upper bound in microseconds
+   */
+  protected long upperBound(int bucket) {
+    return Math.round(Math.pow(2, (double) bucket / SUB_BUCKETS));
+  }
+
+  /**
+   * Records the latency.
+   *
+   * @param nanos	the latency in nanoseconds
+   */
+  public void record(long nanos) {
+    long	micros;
+
+    micros = Math.max(0, nanos / 1000);
+    m_Buckets.incrementAndGet(bucket(micros));
+    m_Count.incrementAndGet();
+    m_Sum.addAndGet(micros);
+    m_Max.accumulateAndGet(micros, Math::max);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return		the count
+   */
+  public long getCount() {
+    return m_Count.get();
+  }
+
+  /**
+   * Returns the mean latency.
+   *
+   * @return		the mean in msec, 0 if nothing recorded
+   */
+  public double getMean() {
+    long	count;
+
+    count = m_Count.get();
+    if (count == 0)
+      return 0.0;
+    return m_Sum.get() / 1000.0 / count;
+  }
+
+  /**
+   * Returns the largest recorded latency.
+   *
+   * @return		the maximum in msec
+   */
+  public double getMax() {
+    return m_Max.get() / 1000.0;
+  }
+
+  /**
+   * Returns the specified percentile (upper bound of the bucket it falls in).
+   *
+   * @param percentile	the percentile (0-100)
+   * @return		the latency in msec, 0 if nothing recorded
+   */
+  public double getPercentile(double percentile) {
+    long	count;
+    long	rank;
+    long	seen;
+    int		i;
+
+    count = m_Count.get();
+    if (count == 0)
+      return 0.0;
+    rank = (long) Math.ceil(percentile / 100.0 * count);
+    seen = 0;
+    for (i = 0; i < m_Buckets.length(); i++) {
+      seen += m_Buckets.get(i);
+      if (seen >= rank)
+	return Math.min(upperBound(i), m_Max.get()) / 1000.0;
+    }
+
+    return getMax();
+  }
+
+  /**
+   * Removes all recorded values.
+   */
+  public void reset() {
+    int		i;
+
+    for (i = 0; i < m_Buckets.length(); i++)
+      m_Buckets.set(i, 0);
+    m_Count.set(0);
+    m_Sum.set(0);
+    m_Max.set(0);
+  }
+
+  /**
+   * Returns a short description of the histogram.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return String.format("count=%d, mean=%.1fms, p50=%.1fms, p95=%.1fms, p99=%.1fms, max=%.1fms",
+      getCount(), getMean(), getPercentile(50), getPercentile(95), getPercentile(99), getMax());
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Metrics.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry for the request metrics of a connection, keyed by action and
+ * endpoint (method and path template, with primary keys and names replaced
+ * by placeholders). Can be exported via JMX.
+ * <br>
+ * Example:
+ * <pre>
+ * connection.metrics().registerMBeans("myclient");
+ * ...
+ * for (EndpointMetrics m: connection.metrics().getAll())
+ *   System.out.println(m);
+ * </pre>
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class Metrics
+  extends AbstractLoggingObject
+  implements MetricsMXBean {
+
+  private static final long serialVersionUID = -3470925208710418862L;
+
+  /** the JMX domain. */
+  public static final String JMX_DOMAIN = "com.github.waikatoufdl.ufdl4j";
+
+  /** the placeholder for primary keys in path templates. */
+  public static final String PLACEHOLDER_PK = "{pk}";
+
+  /** the placeholder for names in path templates. */
+  public static final String PLACEHOLDER_NAME = "{name}";
+
+  /** the metrics per endpoint. */
+  protected transient Map<String, EndpointMetrics> m_Endpoints;
+
+  /** the number of token refreshes after a 401. */
+  protected AtomicLong m_TokenRefreshes;
+
+  /** the name under which the MBeans are registered, null if not registered. */
+  protected String m_JmxName;
+
+  /**
+   * Initializes the registry.
+   */
+  public Metrics() {
+    m_Endpoints      = new ConcurrentHashMap<>();
+    m_TokenRefreshes = new AtomicLong();
+    m_JmxName        = null;
+  }
+
+  /**
+   * Turns the path into a template: numeric segments get replaced by
+   * {@link #PLACEHOLDER_PK} and, after the first primary key, all segments
+   * following the sub-resource (eg the file name in "files/NAME") by
+   * {@link #PLACEHOLDER_NAME}. This keeps the number of endpoints bounded.
+   *
+   * @param path	the path to turn into a template
+   * @return		the template
+   */
+  public static String template(String path) {
+    StringBuilder	result;
+    String[]		segments;
+    boolean		pk;
+    boolean		sub;
+    int			i;
+
+    result   = new StringBuilder();
+    segments = path.split("/", -1);
+    pk       = false;
+    sub      = false;
+    for (i = 0; i < segments.length; i++) {
+      if (i > 0)
+	result.append("/");
+      if (segments[i].isEmpty()) {
+	continue;
+      }
+      else if (segments[i].matches("-?[0-9]+")) {
+	result.append(PLACEHOLDER_PK);
+	pk = true;
+      }
+      else if (pk && sub) {
+	result.append(PLACEHOLDER_NAME);
+      }
+      else {
+	result.append(segments[i]);
+	if (pk)
+	  sub = true;
+      }
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Returns the key for the endpoint.
+   *
+   * @param action	the action
+   * @param method	the HTTP method
+   * @param path	the path of the request (gets turned into a template)
+   * @return		the key
+   */
+  protected String key(String action, String method, String path) {
+    return action + " " + method + " " + template(path);
+  }
+
+  /**
+   * Returns the metrics for the endpoint, creating them if necessary.
+   *
+   * @param action	the action
+   * @param method	the HTTP method
+   * @param path	the path of the request (gets turned into a template)
+   * @return		the metrics
+   */
+  public EndpointMetrics get(String action, String method, String path) {
+    EndpointMetrics	result;
+    String		key;
+
+    key    = key(action, method, path);
+    result = m_Endpoints.get(key);
+    if (result == null) {
+      synchronized (this) {
+	result = m_Endpoints.get(key);
+	if (result == null) {
+	  result = new EndpointMetrics(action, method + " " + template(path));
+	  m_Endpoints.put(key, result);
+	  if (m_JmxName != null)
+	    register(result);
+	}
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Records a request.
+   *
+   * @param action		the action
+   * @param method		the HTTP method
+   * @param path		the path of the request
+   * @param statusCode		the status code, -1 if failed with an exception
+   * @param nanos		the latency in nanoseconds
+   * @param bytesSent		the bytes sent, -1 if unknown
+   * @param bytesReceived	the bytes received, -1 if unknown
+   */
+  public void record(String action, String method, String path, int statusCode, long nanos, long bytesSent, long bytesReceived) {
+    get(action, method, path).record(statusCode, nanos, bytesSent, bytesReceived);
+  }
+
+  /**
+   * Records a retry.
+   *
+   * @param action	the action
+   * @param method	the HTTP method
+   * @param path	the path of the request
+   */
+  public void recordRetry(String action, String method, String path) {
+    get(action, method, path).recordRetry();
+  }
+
+  /**
+   * Records a refresh/obtain of the tokens after a 401.
+   */
+  public void recordTokenRefresh() {
+    m_TokenRefreshes.incrementAndGet();
+  }
+
+  /**
+   * Returns the metrics of all endpoints.
+   *
+   * @return		the metrics
+   */
+  public List<EndpointMetrics> getAll() {
+    return new ArrayList<>(m_Endpoints.values());
+  }
+
+  /**
+   * Returns the total number of requests.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getRequestCount() {
+    long	result;
+
+    result = 0;
+    for (EndpointMetrics m: m_Endpoints.values())
+      result += m.getRequestCount();
+
+    return result;
+  }
+
+  /**
+   * Returns the total number of failed requests.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getErrorCount() {
+    long	result;
+
+    result = 0;
+    for (EndpointMetrics m: m_Endpoints.values())
+      result += m.getErrorCount();
+
+    return result;
+  }
+
+  /**
+   * Returns the total number of retries.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getRetryCount() {
+    long	result;
+
+    result = 0;
+    for (EndpointMetrics m: m_Endpoints.values())
+      result += m.getRetryCount();
+
+    return result;
+  }
+
+  /**
+   * Returns how often tokens got refreshed/obtained after a 401.
+   *
+   * @return		the count
+   */
+  @Override
+  public long getTokenRefreshCount() {
+    return m_TokenRefreshes.get();
+  }
+
+  /**
+   * Returns the endpoints with recorded metrics.
+   *
+   * @return		the endpoints ("action method path")
+   */
+  @Override
+  public String[] getEndpoints() {
+    return m_Endpoints.keySet().stream().sorted().toArray(String[]::new);
+  }
+
+  /**
+   * Removes all recorded values.
+   */
+  @Override
+  public void reset() {
+    for (EndpointMetrics m: m_Endpoints.values())
+      m.reset();
+    m_TokenRefreshes.set(0);
+  }
+
+  /**
+   * Returns the JMX name for the endpoint.
+   *
+   * @param metrics	the endpoint
+   * @return		the name
+   * @throws Exception	if invalid name
+   */
+  protected ObjectName objectName(EndpointMetrics metrics) throws Exception {
+    return new ObjectName(JMX_DOMAIN
+      + ":type=Endpoint"
+      + ",name=" + ObjectName.quote(m_JmxName)
+      + ",action=" + ObjectName.quote(metrics.getAction())
+      + ",endpoint=" + ObjectName.quote(metrics.getEndpoint()));
+  }
+
+  /**
+   * Returns the JMX name for the registry.
+   *
+   * @return		the name
+   * @throws Exception	if invalid name
+   */
+  protected ObjectName objectName() throws Exception {
+    return new ObjectName(JMX_DOMAIN + ":type=Metrics,name=" + ObjectName.quote(m_JmxName));
+  }
+
+  /**
+   * Registers the endpoint with the platform MBean server.
+   *
+   * @param metrics	the endpoint to register
+   */
+  protected void register(EndpointMetrics metrics) {
+    MBeanServer		server;
+    ObjectName		name;
+
+    try {
+      server = ManagementFactory.getPlatformMBeanServer();
+      name   = objectName(metrics);
+      if (!server.isRegistered(name))
+	server.registerMBean(metrics, name);
+    }
+    catch (Exception e) {
+      getLogger().warning("Failed to register MBean for " + metrics.getEndpoint() + ": " + e);
+    }
+  }
+
+  /**
+   * Registers the registry and all endpoints (current and future) with the
+   * platform MBean server.
+   *
+   * @param name	the name to distinguish this connection from others
+   * @return		the registry itself
+   * @throws Exception	if registration fails
+   */
+  public synchronized Metrics registerMBeans(String name) throws Exception {
+    MBeanServer		server;
+
+    unregisterMBeans();
+    m_JmxName = name;
+    server    = ManagementFactory.getPlatformMBeanServer();
+    server.registerMBean(this, objectName());
+    for (EndpointMetrics m: m_Endpoints.values())
+      register(m);
+
+    return this;
+  }
+
+  /**
+   * Removes the registry and endpoints from the platform MBean server.
+   */
+  public synchronized void unregisterMBeans() {
+    MBeanServer		server;
+
+    if (m_JmxName == null)
+      return;
+
+    server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(objectName()))
+	server.unregisterMBean(objectName());
+      for (EndpointMetrics m: m_Endpoints.values()) {
+	if (server.isRegistered(objectName(m)))
+	  server.unregisterMBean(objectName(m));
+      }
+    }
+    catch (Exception e) {
+      getLogger().warning("Failed to unregister MBeans: " + e);
+    }
+    m_JmxName = null;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "requests=" + getRequestCount()
+      + ", errors=" + getErrorCount()
+      + ", retries=" + getRetryCount()
+      + ", tokenRefreshes=" + getTokenRefreshCount()
+      + ", endpoints=" + m_Endpoints.size();
+  }
+}
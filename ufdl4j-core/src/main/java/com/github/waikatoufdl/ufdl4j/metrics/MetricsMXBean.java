@@ -0,0 +1,54 @@
+/*
+ * MetricsMXBean.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+/**
+ * JMX view of the overall metrics of a connection.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public interface MetricsMXBean {
+
+  /**
+   * Returns the total number of requests.
+   *
+   * @return		the count
+   */
+  public long getRequestCount();
+
+  /**
+   * Returns the total number of failed requests.
+   *
+   * @return		the count
+   */
+  public long getErrorCount();
+
+  /**
+   * Returns the total number of retries.
+   *
+   * @return		the count
+   */
+  public long getRetryCount();
+
+  /**
+   * Returns how often tokens got refreshed/obtained after a 401.
+   *
+   * @return		the count
+   */
+  public long getTokenRefreshCount();
+
+  /**
+   * Returns the endpoints with recorded metrics.
+   *
+   * @return		the endpoints ("action method path")
+   */
+  public String[] getEndpoints();
+
+  /**
+   * Removes all recorded values.
+   */
+  public void reset();
+}
@@ -0,0 +1,243 @@
+/*
+ * RequestEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of a request attempt at a specific stage of its lifecycle.
+ * Timings are relative to the start of the attempt, in nanoseconds.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class RequestEvent
+  implements Serializable {
+
+  private static final long serialVersionUID = -5019247153328860117L;
+
+  /**
+   * The lifecycle stages.
+   */
+  public enum Type {
+    /** the attempt is about to be sent. */
+    STARTED,
+    /** the request headers have been written (raw requests only). */
+    HEADERS_SENT,
+    /** the response headers started arriving (raw requests only). */
+    FIRST_BYTE,
+    /** a response has been received (any status code; for raw requests, whose body gets streamed by the caller, once the headers arrived). */
+    COMPLETED,
+    /** the attempt failed with an exception. */
+    FAILED,
+    /** the request gets resent with refreshed/obtained tokens after a 401. */
+    AUTH_RETRY
+  }
+
+  /** the type of event. */
+  protected Type m_Type;
+
+  /** the action. */
+  protected String m_Action;
+
+  /** the HTTP method. */
+  protected String m_Method;
+
+  /** the path of the request. */
+  protected String m_Path;
+
+  /** the attempt (0-based). */
+  protected int m_Attempt;
+
+  /** the start of the attempt (msec since epoch). */
+  protected long m_StartTime;
+
+  /** the nanoseconds since the start. */
+  protected long m_Elapsed;
+
+  /** the nanoseconds until the request headers were sent, -1 if unknown. */
+  protected long m_HeadersSent;
+
+  /** the nanoseconds until the first byte of the response, -1 if unknown. */
+  protected long m_FirstByte;
+
+  /** the status code, -1 if unknown. */
+  protected int m_StatusCode;
+
+  /** the bytes sent, -1 if unknown. */
+  protected long m_BytesSent;
+
+  /** the bytes received, -1 if unknown. */
+  protected long m_BytesReceived;
+
+  /** the error, null if none. */
+  protected Exception m_Error;
+
+  /**
+   * Initializes the event from the current state of the trace.
+   *
+   * @param type	the type of event
+   * @param trace	the trace of the attempt
+   */
+  public RequestEvent(Type type, RequestTrace trace) {
+    m_Type          = type;
+    m_Action        = trace.getAction();
+    m_Method        = trace.getMethod();
+    m_Path          = trace.getPath();
+    m_Attempt       = trace.getAttempt();
+    m_StartTime     = trace.getStartTime();
+    m_Elapsed       = trace.getElapsed();
+    m_HeadersSent   = trace.getHeadersSent();
+    m_FirstByte     = trace.getFirstByte();
+    m_StatusCode    = trace.getStatusCode();
+    m_BytesSent     = trace.getBytesSent();
+    m_BytesReceived = trace.getBytesReceived();
+    m_Error         = trace.getError();
+  }
+
+  /**
+   * Returns the type of event.
+   *
+   * @return		the type
+   */
+  public Type getType() {
+    return m_Type;
+  }
+
+  /**
+   * Returns the name of the action that issued the request.
+   *
+   * @return		the action
+   */
+  public String getAction() {
+    return m_Action;
+  }
+
+  /**
+   * Returns the HTTP method.
+   *
+   * @return		the method
+   */
+  public String getMethod() {
+    return m_Method;
+  }
+
+  /**
+   * Returns the path of the request.
+   *
+   * @return		the path
+   */
+  public String getPath() {
+    return m_Path;
+  }
+
+  /**
+   * Returns the path template, with primary keys and names replaced by
+   * placeholders (for grouping requests).
+   *
+   * @return		the template
+   * @see		Metrics#template(String)
+   */
+  public String getTemplate() {
+    return Metrics.template(m_Path);
+  }
+
+  /**
+   * Returns the attempt.
+   *
+   * @return		the attempt (0-based)
+   */
+  public int getAttempt() {
+    return m_Attempt;
+  }
+
+  /**
+   * Returns the start of the attempt.
+   *
+   * @return		the msec since epoch
+   */
+  public long getStartTime() {
+    return m_StartTime;
+  }
+
+  /**
+   * Returns the time since the start of the attempt.
+   *
+   * @return		the nanoseconds
+   */
+  public long getElapsed() {
+    return m_Elapsed;
+  }
+
+  /**
+   * Returns the time until the request headers were sent.
+   *
+   * @return		the nanoseconds, -1 if unknown
+   */
+  public long getHeadersSent() {
+    return m_HeadersSent;
+  }
+
+  /**
+   * Returns the time until the first byte of the response arrived.
+   *
+   * @return		the nanoseconds, -1 if unknown
+   */
+  public long getFirstByte() {
+    return m_FirstByte;
+  }
+
+  /**
+   * Returns the status code of the response.
+   *
+   * @return		the status code, -1 if unknown
+   */
+  public int getStatusCode() {
+    return m_StatusCode;
+  }
+
+  /**
+   * Returns the number of bytes sent in the request body.
+   *
+   * @return		the bytes, -1 if unknown
+   */
+  public long getBytesSent() {
+    return m_BytesSent;
+  }
+
+  /**
+   * Returns the number of bytes received in the response body.
+   *
+   * @return		the bytes, -1 if unknown
+   */
+  public long getBytesReceived() {
+    return m_BytesReceived;
+  }
+
+  /**
+   * Returns the error of a failed attempt.
+   *
+   * @return		the error, null if none
+   */
+  public Exception getError() {
+    return m_Error;
+  }
+
+  /**
+   * Returns a short description of the event.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return m_Type + ": " + m_Action + " " + m_Method + " " + m_Path
+      + ", attempt=" + m_Attempt
+      + ", elapsed=" + (m_Elapsed / 1000000.0) + "ms"
+      + ", status=" + m_StatusCode
+      + ", sent=" + m_BytesSent
+      + ", received=" + m_BytesReceived
+      + ((m_Error != null) ? ", error=" + m_Error : "");
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * RequestListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+/**
+ * Interface for classes that want to be notified about the lifecycle of the
+ * requests of a connection, eg for tracing or for logging slow calls. Gets
+ * called synchronously from the thread executing the request (or from the
+ * HTTP client's thread for {@link RequestEvent.Type#HEADERS_SENT} and
+ * {@link RequestEvent.Type#FIRST_BYTE}), so implementations must be quick
+ * and thread-safe.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see com.github.waikatoufdl.ufdl4j.context.Connection#addRequestListener(RequestListener)
+ */
+@FunctionalInterface
+public interface RequestListener {
+
+  /**
+   * Gets called whenever a request reaches another stage of its lifecycle.
+   *
+   * @param event	the event
+   */
+  public void requestEvent(RequestEvent event);
+}
@@ -0,0 +1,338 @@
+/*
+ * RequestTrace.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.metrics.jfr.HttpRequestEvent;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Request;
+
+import java.util.Collection;
+import java.util.logging.Level;
+
+/**
+ * Keeps track of a single request attempt and notifies the listeners about
+ * its lifecycle. Raw requests carry the trace as tag, which allows the
+ * {@link #EVENT_LISTENER_FACTORY} of the HTTP client to report when the
+ * headers were sent and the first byte arrived. Each attempt also gets
+ * recorded as Java Flight Recorder event.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class RequestTrace
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 1846259316634045022L;
+
+  /** for turning OkHttp call events into request events. */
+  public static final EventListener.Factory EVENT_LISTENER_FACTORY = new EventListener.Factory() {
+    @Override
+    public EventListener create(Call call) {
+      final RequestTrace trace = call.request().tag(RequestTrace.class);
+      if (trace == null)
+	return EventListener.NONE;
+      return new EventListener() {
+	@Override
+	public void requestHeadersEnd(Call call, Request request) {
+	  trace.headersSent();
+	}
+	@Override
+	public void responseHeadersStart(Call call) {
+	  trace.firstByte();
+	}
+      };
+    }
+  };
+
+  /** the listeners to notify. */
+  protected transient Collection<RequestListener> m_Listeners;
+
+  /** the action. */
+  protected String m_Action;
+
+  /** the HTTP method. */
+  protected String m_Method;
+
+  /** the path of the request. */
+  protected String m_Path;
+
+  /** the attempt (0-based). */
+  protected int m_Attempt;
+
+  /** the start of the attempt (msec since epoch). */
+  protected long m_StartTime;
+
+  /** the start of the attempt (as per {@link System#nanoTime()}). */
+  protected long m_Start;
+
+  /** the nanoseconds since the start when finished, -1 if still running. */
+  protected volatile long m_Elapsed;
+
+  /** the nanoseconds until the request headers were sent, -1 if unknown. */
+  protected volatile long m_HeadersSent;
+
+  /** the nanoseconds until the first byte of the response, -1 if unknown. */
+  protected volatile long m_FirstByte;
+
+  /** the status code, -1 if unknown. */
+  protected int m_StatusCode;
+
+  /** the bytes sent, -1 if unknown. */
+  protected long m_BytesSent;
+
+  /** the bytes received, -1 if unknown. */
+  protected long m_BytesReceived;
+
+  /** the error, null if none. */
+  protected Exception m_Error;
+
+  /** the flight recorder event. */
+  protected transient HttpRequestEvent m_Event;
+
+  /**
+   * Initializes the trace, starts the clock.
+   *
+   * @param listeners	the listeners to notify
+   * @param action	the action
+   * @param method	the HTTP method
+   * @param path	the path of the request
+   * @param attempt	the attempt (0-based)
+   */
+  public RequestTrace(Collection<RequestListener> listeners, String action, String method, String path, int attempt) {
+    m_Listeners     = listeners;
+    m_Action        = action;
+    m_Method        = method;
+    m_Path          = path;
+    m_Attempt       = attempt;
+    m_StartTime     = System.currentTimeMillis();
+    m_Start         = System.nanoTime();
+    m_Elapsed       = -1;
+    m_HeadersSent   = -1;
+    m_FirstByte     = -1;
+    m_StatusCode    = -1;
+    m_BytesSent     = -1;
+    m_BytesReceived = -1;
+    m_Error         = null;
+    m_Event         = new HttpRequestEvent();
+  }
+
+  /**
+   * Notifies the listeners. Exceptions thrown by listeners get logged and
+   * do not affect the request.
+   *
+   * @param type	the type of event
+   */
+  protected void notify(RequestEvent.Type type) {
+    RequestEvent	event;
+
+    if (m_Listeners.isEmpty())
+      return;
+    event = new RequestEvent(type, this);
+    for (RequestListener l: m_Listeners) {
+      try {
+	l.requestEvent(event);
+      }
+      catch (Exception e) {
+	getLogger().log(Level.WARNING, "Request listener failed: " + l, e);
+      }
+    }
+  }
+
+  /**
+   * Signals that the attempt is about to be sent.
+   *
+   * @param bytesSent	the size of the request body, -1 if unknown
+   */
+  public void started(long bytesSent) {
+    m_BytesSent = bytesSent;
+    m_Event.begin();
+    notify(RequestEvent.Type.STARTED);
+  }
+
+  /**
+   * Ends and commits the flight recorder event.
+   */
+  protected void record() {
+    m_Event.method        = m_Method;
+    m_Event.attempt       = m_Attempt;
+    m_Event.statusCode    = m_StatusCode;
+    m_Event.bytesSent     = m_BytesSent;
+    m_Event.bytesReceived = m_BytesReceived;
+    m_Event.finish(m_Action, m_Path, m_Error);
+  }
+
+  /**
+   * Signals that the request headers have been sent.
+   */
+  public void headersSent() {
+    m_HeadersSent = System.nanoTime() - m_Start;
+    notify(RequestEvent.Type.HEADERS_SENT);
+  }
+
+  /**
+   * Signals that the response started to arrive.
+   */
+  public void firstByte() {
+    m_FirstByte = System.nanoTime() - m_Start;
+    notify(RequestEvent.Type.FIRST_BYTE);
+  }
+
+  /**
+   * Signals that a response has been received.
+   *
+   * @param statusCode		the status code
+   * @param bytesReceived	the size of the response body, -1 if unknown
+   */
+  public void completed(int statusCode, long bytesReceived) {
+    m_Elapsed       = System.nanoTime() - m_Start;
+    m_StatusCode    = statusCode;
+    m_BytesReceived = bytesReceived;
+    record();
+    notify(RequestEvent.Type.COMPLETED);
+  }
+
+  /**
+   * Signals that the attempt failed.
+   *
+   * @param error	the error
+   */
+  public void failed(Exception error) {
+    m_Elapsed = System.nanoTime() - m_Start;
+    m_Error   = error;
+    record();
+    notify(RequestEvent.Type.FAILED);
+  }
+
+  /**
+   * Signals that the request gets resent with refreshed/obtained tokens.
+   *
+   * @param statusCode	the status code that triggered the retry
+   */
+  public void authRetry(int statusCode) {
+    m_Elapsed    = System.nanoTime() - m_Start;
+    m_StatusCode = statusCode;
+    notify(RequestEvent.Type.AUTH_RETRY);
+  }
+
+  /**
+   * Returns the name of the action.
+   *
+   * @return		the action
+   */
+  public String getAction() {
+    return m_Action;
+  }
+
+  /**
+   * Returns the HTTP method.
+   *
+   * @return		the method
+   */
+  public String getMethod() {
+    return m_Method;
+  }
+
+  /**
+   * Returns the path of the request.
+   *
+   * @return		the path
+   */
+  public String getPath() {
+    return m_Path;
+  }
+
+  /**
+   * Returns the attempt.
+   *
+   * @return		the attempt (0-based)
+   */
+  public int getAttempt() {
+    return m_Attempt;
+  }
+
+  /**
+   * Returns the start of the attempt.
+   *
+   * @return		the msec since epoch
+   */
+  public long getStartTime() {
+    return m_StartTime;
+  }
+
+  /**
+   * Returns the time since the start, or the total time if finished.
+   *
+   * @return		the nanoseconds
+   */
+  public long getElapsed() {
+    return (m_Elapsed > -1) ? m_Elapsed : System.nanoTime() - m_Start;
+  }
+
+  /**
+   * Returns the time until the request headers were sent.
+   *
+   * @return		the nanoseconds, -1 if unknown
+   */
+  public long getHeadersSent() {
+    return m_HeadersSent;
+  }
+
+  /**
+   * Returns the time until the first byte of the response arrived.
+   *
+   * @return		the nanoseconds, -1 if unknown
+   */
+  public long getFirstByte() {
+    return m_FirstByte;
+  }
+
+  /**
+   * Returns the status code.
+   *
+   * @return		the status code, -1 if unknown
+   */
+  public int getStatusCode() {
+    return m_StatusCode;
+  }
+
+  /**
+   * Returns the number of bytes sent.
+   *
+   * @return		the bytes, -1 if unknown
+   */
+  public long getBytesSent() {
+    return m_BytesSent;
+  }
+
+  /**
+   * Returns the number of bytes received.
+   *
+   * @return		the bytes, -1 if unknown
+   */
+  public long getBytesReceived() {
+    return m_BytesReceived;
+  }
+
+  /**
+   * Returns the error.
+   *
+   * @return		the error, null if none
+   */
+  public Exception getError() {
+    return m_Error;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return m_Action + " " + m_Method + " " + m_Path + ", attempt=" + m_Attempt;
+  }
+}
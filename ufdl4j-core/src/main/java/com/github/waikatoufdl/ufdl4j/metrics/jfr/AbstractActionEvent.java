@@ -0,0 +1,55 @@
+/*
+ * AbstractActionEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import com.github.waikatoufdl.ufdl4j.metrics.Metrics;
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Ancestor for Java Flight Recorder events emitted by actions. Fields follow
+ * the JFR conventions (public, plain names) as they show up in recordings.
+ * Subclasses set their specific fields and then call
+ * {@link #finish(String, String, Throwable)}, which only computes the
+ * remaining fields if the event actually gets recorded.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Category({"UFDL", "Client"})
+@StackTrace(false)
+public abstract class AbstractActionEvent
+  extends jdk.jfr.Event {
+
+  /** the action. */
+  @Label("Action")
+  public String action;
+
+  /** the path template. */
+  @Label("Path")
+  public String path;
+
+  /** the error, null if successful. */
+  @Label("Error")
+  public String error;
+
+  /**
+   * Ends the event and commits it, if enabled and above the threshold.
+   *
+   * @param action	the name of the action
+   * @param path	the path of the request (gets turned into a template)
+   * @param error	the error, null if successful
+   */
+  public void finish(String action, String path, Throwable error) {
+    end();
+    if (!shouldCommit())
+      return;
+    this.action = action;
+    this.path   = (path == null) ? null : Metrics.template(path);
+    this.error  = (error == null) ? null : error.toString();
+    commit();
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * CacheEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a lookup in the response cache of an action. The duration
+ * includes the backend call in case of a miss.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Name("com.github.waikatoufdl.ufdl4j.Cache")
+@Label("UFDL Cache Lookup")
+@Description("A lookup in the response cache of an action")
+public class CacheEvent
+  extends AbstractActionEvent {
+
+  /** the cache key. */
+  @Label("Key")
+  public String key;
+
+  /** whether the value was served from the cache. */
+  @Label("Hit")
+  public boolean hit;
+}
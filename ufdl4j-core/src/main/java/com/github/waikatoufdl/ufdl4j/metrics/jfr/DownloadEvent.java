@@ -0,0 +1,38 @@
+/*
+ * DownloadEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a streamed download, including resumed and parallel
+ * segments.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Name("com.github.waikatoufdl.ufdl4j.Download")
+@Label("UFDL Download")
+@Description("A file downloaded from the UFDL backend")
+public class DownloadEvent
+  extends AbstractActionEvent {
+
+  /** the number of bytes, -1 if failed. */
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  /** the offset of a resumed download, 0 if started from scratch. */
+  @Label("Resumed From")
+  @DataAmount
+  public long offset;
+
+  /** the number of segments the file got downloaded in. */
+  @Label("Segments")
+  public int segments;
+}
@@ -0,0 +1,46 @@
+/*
+ * HttpRequestEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a single request attempt against the backend. For raw
+ * requests the duration ends when the response headers arrived.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Name("com.github.waikatoufdl.ufdl4j.Request")
+@Label("UFDL Request")
+@Description("A single request attempt against the UFDL backend")
+public class HttpRequestEvent
+  extends AbstractActionEvent {
+
+  /** the HTTP method. */
+  @Label("Method")
+  public String method;
+
+  /** the attempt (0-based). */
+  @Label("Attempt")
+  public int attempt;
+
+  /** the status code, -1 if none. */
+  @Label("Status Code")
+  public int statusCode;
+
+  /** the size of the request body, -1 if unknown. */
+  @Label("Bytes Sent")
+  @DataAmount
+  public long bytesSent;
+
+  /** the size of the response body, -1 if unknown. */
+  @Label("Bytes Received")
+  @DataAmount
+  public long bytesReceived;
+}
@@ -0,0 +1,53 @@
+/*
+ * TokenRefreshEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for obtaining/refreshing the authentication tokens.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Name("com.github.waikatoufdl.ufdl4j.TokenRefresh")
+@Label("UFDL Token Refresh")
+@Description("Tokens obtained or refreshed from the UFDL backend")
+@Category({"UFDL", "Client"})
+@StackTrace(false)
+public class TokenRefreshEvent
+  extends jdk.jfr.Event {
+
+  /** the type of renewal. */
+  @Label("Type")
+  public String type;
+
+  /** the user. */
+  @Label("User")
+  public String user;
+
+  /** whether the renewal was successful. */
+  @Label("Success")
+  public boolean success;
+
+  /**
+   * Ends the event and commits it, if enabled and above the threshold.
+   *
+   * @param type	the type of renewal (obtain/refresh)
+   * @param user	the user
+   */
+  public void finish(String type, String user) {
+    end();
+    if (!shouldCommit())
+      return;
+    this.type = type;
+    this.user = user;
+    commit();
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * UploadEvent.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.metrics.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for content streamed to the backend.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@Name("com.github.waikatoufdl.ufdl4j.Upload")
+@Label("UFDL Upload")
+@Description("Content streamed to the UFDL backend")
+public class UploadEvent
+  extends AbstractActionEvent {
+
+  /** the file name sent with the content. */
+  @Label("File Name")
+  public String filename;
+
+  /** the number of bytes, -1 if unknown. */
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  /** whether the content could only be sent once. */
+  @Label("One-Shot")
+  public boolean oneShot;
+
+  /** the status code, -1 if none. */
+  @Label("Status Code")
+  public int statusCode;
+}
@@ -0,0 +1,324 @@
+/*
+ * AbstractTransfer.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.context.RetryPolicy;
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ancestor for transferring many files with bounded concurrency, retrying
+ * failed idempotent transfers and reporting progress to listeners.
+ * Non-idempotent transfers (eg uploads via POST) only get a single attempt,
+ * since the requests themselves are already covered by the retry policy of
+ * the connection.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T>	the type of the transfer itself (for chaining the setters)
+ */
+public abstract class AbstractTransfer<T extends AbstractTransfer<T>>
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = 4032185870591265398L;
+
+  /** the default number of concurrent transfers. */
+  public static final int DEFAULT_CONCURRENCY = 4;
+
+  /** the default maximum number of attempts per file. */
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+  /** the number of concurrent transfers. */
+  protected int m_Concurrency;
+
+  /** the maximum number of attempts per file. */
+  protected int m_MaxAttempts;
+
+  /** for the backoff between attempts. */
+  protected RetryPolicy m_Backoff;
+
+  /** the listeners. */
+  protected transient List<TransferListener> m_Listeners;
+
+  /**
+   * Initializes the transfer.
+   */
+  protected AbstractTransfer() {
+    m_Concurrency = DEFAULT_CONCURRENCY;
+    m_MaxAttempts = DEFAULT_MAX_ATTEMPTS;
+    m_Backoff     = new RetryPolicy();
+    m_Listeners   = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Returns the transfer itself.
+   *
+   * @return		the transfer
+   */
+  @SuppressWarnings("unchecked")
+  protected T self() {
+    return (T) this;
+  }
+
+  /**
+   * Sets the number of files to transfer concurrently.
+   *
+   * @param value	the number of concurrent transfers
+   * @return		the transfer itself
+   */
+  public T concurrency(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Concurrency must be at least 1, provided: " + value);
+    m_Concurrency = value;
+    return self();
+  }
+
+  /**
+   * Returns the number of files to transfer concurrently.
+   *
+   * @return		the number of concurrent transfers
+   */
+  public int concurrency() {
+    return m_Concurrency;
+  }
+
+  /**
+   * Sets the maximum number of attempts per file. Only applies to idempotent
+   * transfers.
+   *
+   * @param value	the maximum attempts
+   * @return		the transfer itself
+   */
+  public T maxAttempts(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum attempts must be at least 1, provided: " + value);
+    m_MaxAttempts = value;
+    return self();
+  }
+
+  /**
+   * Returns the maximum number of attempts per file.
+   *
+   * @return		the maximum attempts
+   */
+  public int maxAttempts() {
+    return m_MaxAttempts;
+  }
+
+  /**
+   * Sets the policy to use for the delays between attempts.
+   *
+   * @param value	the policy
+   * @return		the transfer itself
+   */
+  public T backoff(RetryPolicy value) {
+    if (value == null)
+      throw new IllegalArgumentException("Backoff policy cannot be null!");
+    m_Backoff = value;
+    return self();
+  }
+
+  /**
+   * Returns the policy used for the delays between attempts.
+   *
+   * @return		the policy
+   */
+  public RetryPolicy backoff() {
+    return m_Backoff;
+  }
+
+  /**
+   * Adds the listener.
+   *
+   * @param l		the listener to add
+   * @return		the transfer itself
+   */
+  public T addTransferListener(TransferListener l) {
+    m_Listeners.add(l);
+    return self();
+  }
+
+  /**
+   * Removes the listener.
+   *
+   * @param l		the listener to remove
+   * @return		the transfer itself
+   */
+  public T removeTransferListener(TransferListener l) {
+    m_Listeners.remove(l);
+    return self();
+  }
+
+  /**
+   * Notifies all listeners.
+   *
+   * @param progress	the current progress
+   */
+  protected void notifyTransferListeners(TransferProgress progress) {
+    for (TransferListener l: m_Listeners) {
+      try {
+	l.transferProgress(progress);
+      }
+      catch (Exception e) {
+	getLogger().warning("Listener failed: " + e);
+      }
+    }
+  }
+
+  /**
+   * Returns whether transferring the item is idempotent, i.e., whether it can
+   * be attempted again without side effects.
+   *
+   * @param item	the file to transfer
+   * @return		true if idempotent
+   */
+  protected abstract boolean isIdempotent(TransferItem item);
+
+  /**
+   * Returns whether another attempt is worthwhile after the exception.
+   * Only idempotent transfers get retried. Client errors (4xx other than 429)
+   * are considered permanent.
+   *
+   * @param item	the file that failed to transfer
+   * @param e		the exception that occurred
+   * @return		true if to try again
+   */
+  protected boolean isRetryable(TransferItem item, Exception e) {
+    int		code;
+
+    if (!isIdempotent(item))
+      return false;
+    if (e instanceof FailedRequestException) {
+      code = ((FailedRequestException) e).getStatusCode();
+      return (code == -1) || (code >= 500) || m_Backoff.isTransient(code);
+    }
+    return !(e instanceof InterruptedException);
+  }
+
+  /**
+   * Transfers a single file.
+   *
+   * @param item	the file to transfer
+   * @return		the number of bytes transferred
+   * @throws Exception	if the transfer fails
+   */
+  protected abstract long transfer(TransferItem item) throws Exception;
+
+  /**
+   * Transfers the file, retrying if necessary.
+   *
+   * @param item	the file to transfer
+   * @return		the result
+   */
+  protected TransferResult transferWithRetry(TransferItem item) {
+    Exception	error;
+    long	start;
+    long	bytes;
+    int		attempt;
+
+    error = null;
+    start = System.currentTimeMillis();
+    for (attempt = 1; attempt <= m_MaxAttempts; attempt++) {
+      try {
+	bytes = transfer(item);
+	return new TransferResult(item, true, attempt, bytes, System.currentTimeMillis() - start, null);
+      }
+      catch (Exception e) {
+	error = e;
+	getLogger().warning("Attempt " + attempt + "/" + m_MaxAttempts + " failed for '" + item.getName() + "': " + e);
+	if ((attempt == m_MaxAttempts) || !isRetryable(item, e))
+	  break;
+	try {
+	  m_Backoff.await(attempt - 1, -1);
+	}
+	catch (InterruptedException ie) {
+	  Thread.currentThread().interrupt();
+	  error = ie;
+	  break;
+	}
+      }
+    }
+
+    return new TransferResult(item, false, Math.min(attempt, m_MaxAttempts), 0, System.currentTimeMillis() - start, error);
+  }
+
+  /**
+   * Transfers all the files, using the configured number of threads.
+   * Failures of individual files do not stop the transfer of the others.
+   *
+   * @param items	the files to transfer
+   * @return		the per-file results, in the order of the items
+   * @throws Exception	if interrupted
+   */
+  protected TransferSummary transferAll(List<TransferItem> items) throws Exception {
+    List<TransferResult>		results;
+    List<Future<TransferResult>>	futures;
+    ExecutorService			executor;
+    AtomicInteger			succeeded;
+    AtomicInteger			failed;
+    AtomicInteger			count;
+    AtomicLong				bytes;
+    long				start;
+    int					threads;
+
+    getLogger().info("transferring " + items.size() + " files using " + m_Concurrency + " threads");
+    results   = new ArrayList<>();
+    start     = System.currentTimeMillis();
+    if (items.isEmpty())
+      return new TransferSummary(results, 0);
+
+    succeeded = new AtomicInteger();
+    failed    = new AtomicInteger();
+    bytes     = new AtomicLong();
+    threads   = Math.min(m_Concurrency, items.size());
+    count     = new AtomicInteger();
+    executor  = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, getClass().getSimpleName() + "-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    futures   = new ArrayList<>();
+    try {
+      for (TransferItem item: items) {
+	futures.add(executor.submit(() -> {
+	  TransferResult r = transferWithRetry(item);
+	  if (r.isSuccess())
+	    succeeded.incrementAndGet();
+	  else
+	    failed.incrementAndGet();
+	  notifyTransferListeners(new TransferProgress(
+	    items.size(), succeeded.get(), failed.get(), bytes.addAndGet(r.getBytes()), System.currentTimeMillis() - start, r));
+	  return r;
+	}));
+      }
+      for (Future<TransferResult> future: futures)
+	results.add(future.get());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return new TransferSummary(results, System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + ": concurrency=" + m_Concurrency + ", maxAttempts=" + m_MaxAttempts;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * BulkUpload.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.action.Datasets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uploads many files to a dataset concurrently.
+ * <br>
+ * Example:
+ * <pre>
+ * TransferSummary summary = new BulkUpload(client.datasets(), pk)
+ *   .concurrency(8)
+ *   .addTransferListener(p -&gt; System.out.println(p))
+ *   .upload(Paths.get("/some/dir"));
+ * for (TransferResult r: summary.getFailed())
+ *   System.err.println(r);
+ * </pre>
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BulkUpload
+  extends AbstractTransfer<BulkUpload> {
+
+  private static final long serialVersionUID = 8871290435162457830L;
+
+  /** the action to use. */
+  protected transient Datasets m_Datasets;
+
+  /** the dataset to upload to. */
+  protected int m_PK;
+
+  /**
+   * Initializes the upload.
+   *
+   * @param datasets	the action to use
+   * @param pk		the dataset to upload to
+   */
+  public BulkUpload(Datasets datasets, int pk) {
+    super();
+    m_Datasets = datasets;
+    m_PK       = pk;
+  }
+
+  /**
+   * Uploads all regular files in the directory (not recursive), using
+   * the file names as names in the dataset.
+   *
+   * @param dir		the directory with the files
+   * @return		the per-file results
+   * @throws Exception	if listing the directory fails or interrupted
+   */
+  public TransferSummary upload(Path dir) throws Exception {
+    return upload(TransferItem.list(dir));
+  }
+
+  /**
+   * Uploads the files.
+   *
+   * @param items	the files and their names in the dataset
+   * @return		the per-file results
+   * @throws Exception	if interrupted
+   */
+  public TransferSummary upload(Iterable<TransferItem> items) throws Exception {
+    List<TransferItem>	list;
+
+    list = new ArrayList<>();
+    for (TransferItem item: items)
+      list.add(item);
+
+    return transferAll(list);
+  }
+
+  /**
+   * Uploads are not idempotent (POST), so they get a single attempt.
+   *
+   * @param item	the file to transfer
+   * @return		always false
+   */
+  @Override
+  protected boolean isIdempotent(TransferItem item) {
+    return false;
+  }
+
+  /**
+   * Uploads a single file.
+   *
+   * @param item	the file to upload
+   * @return		the number of bytes uploaded
+   * @throws Exception	if the upload fails
+   */
+  @Override
+  protected long transfer(TransferItem item) throws Exception {
+    m_Datasets.addFile(m_PK, item.getPath().toFile(), item.getName());
+    return Files.size(item.getPath());
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return super.toString() + ", dataset=" + m_PK;
+  }
+}
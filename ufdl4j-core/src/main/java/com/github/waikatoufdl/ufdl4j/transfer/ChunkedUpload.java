@@ -0,0 +1,297 @@
+/*
+ * ChunkedUpload.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.context.RetryPolicy;
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.JsonUtils;
+import com.github.waikatoufdl.ufdl4j.core.Utils;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Uploads large files in chunks to a {@link ChunkedUploadTarget}. The
+ * progress gets recorded in a state file next to the uploaded file, so that
+ * an upload that failed (or a JVM that got restarted) only re-sends the
+ * chunks that the target has not received yet. Failed chunks get retried
+ * with jittered backoff.
+ * <br>
+ * Example:
+ * <pre>
+ * new ChunkedUpload(new LocalChunkedUploadTarget(Paths.get("/some/dir")))
+ *   .chunkSize(16 * 1024 * 1024)
+ *   .upload(Paths.get("/models/model.bin"), "model.bin");
+ * </pre>
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class ChunkedUpload
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = -8095133236425787170L;
+
+  /** the default chunk size in bytes. */
+  public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+  /** the default maximum number of attempts per chunk. */
+  public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+  /** the extension for the state files. */
+  public static final String STATE_EXT = ".upload.json";
+
+  /** the target to upload to. */
+  protected transient ChunkedUploadTarget m_Target;
+
+  /** the chunk size in bytes. */
+  protected int m_ChunkSize;
+
+  /** the maximum number of attempts per chunk. */
+  protected int m_MaxAttempts;
+
+  /** for the backoff between attempts. */
+  protected RetryPolicy m_Backoff;
+
+  /**
+   * Initializes the upload.
+   *
+   * @param target	the target to upload to
+   */
+  public ChunkedUpload(ChunkedUploadTarget target) {
+    m_Target      = target;
+    m_ChunkSize   = DEFAULT_CHUNK_SIZE;
+    m_MaxAttempts = DEFAULT_MAX_ATTEMPTS;
+    m_Backoff     = new RetryPolicy();
+  }
+
+  /**
+   * Sets the chunk size. Only affects new uploads, resumed ones continue
+   * with the chunk size they were started with.
+   *
+   * @param value	the size in bytes
+   * @return		the upload itself
+   */
+  public ChunkedUpload chunkSize(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Chunk size must be at least 1, provided: " + value);
+    m_ChunkSize = value;
+    return this;
+  }
+
+  /**
+   * Returns the chunk size.
+   *
+   * @return		the size in bytes
+   */
+  public int chunkSize() {
+    return m_ChunkSize;
+  }
+
+  /**
+   * Sets the maximum number of attempts per chunk.
+   *
+   * @param value	the maximum attempts
+   * @return		the upload itself
+   */
+  public ChunkedUpload maxAttempts(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum attempts must be at least 1, provided: " + value);
+    m_MaxAttempts = value;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of attempts per chunk.
+   *
+   * @return		the maximum attempts
+   */
+  public int maxAttempts() {
+    return m_MaxAttempts;
+  }
+
+  /**
+   * Returns the state file for the file.
+   *
+   * @param file	the file to upload
+   * @return		the state file
+   */
+  public Path stateFile(Path file) {
+    return file.resolveSibling(file.getFileName() + STATE_EXT);
+  }
+
+  /**
+   * Loads the state, if it exists and still matches the file.
+   *
+   * @param state	the state file
+   * @param name	the name of the upload
+   * @param size	the size of the file
+   * @param modified	the last modified timestamp of the file
+   * @return		the state, null if not available or outdated
+   */
+  protected JsonObject loadState(Path state, String name, long size, long modified) {
+    JsonObject	result;
+
+    if (!Files.exists(state))
+      return null;
+
+    try {
+      result = JsonParser.parseString(new String(Files.readAllBytes(state), StandardCharsets.UTF_8)).getAsJsonObject();
+      if (!result.get("name").getAsString().equals(name)
+	|| (result.get("size").getAsLong() != size)
+	|| (result.get("modified").getAsLong() != modified)) {
+	getLogger().info("File changed since last attempt, starting new upload: " + state);
+	return null;
+      }
+      return result;
+    }
+    catch (Exception e) {
+      getLogger().warning("Failed to read upload state, starting new upload: " + state + "\n" + e);
+      return null;
+    }
+  }
+
+  /**
+   * Saves the state.
+   *
+   * @param state	the state file
+   * @param data	the state
+   * @param completed	the chunks uploaded so far
+   * @throws IOException	if writing fails
+   */
+  protected void saveState(Path state, JsonObject data, Set<Integer> completed) throws IOException {
+    JsonArray	chunks;
+    Path	tmp;
+
+    chunks = new JsonArray();
+    for (int index: completed)
+      chunks.add(index);
+    data.add("completed", chunks);
+    tmp = state.resolveSibling(state.getFileName() + ".tmp");
+    Files.write(tmp, JsonUtils.prettyPrint(data).getBytes(StandardCharsets.UTF_8));
+    Utils.move(tmp, state);
+  }
+
+  /**
+   * Uploads the chunk, retrying it if necessary.
+   *
+   * @param session	the ID of the session
+   * @param index	the index of the chunk
+   * @param data	the content of the chunk
+   * @throws Exception	if all attempts failed
+   */
+  protected void uploadChunk(String session, int index, ByteBuffer data) throws Exception {
+    int		attempt;
+
+    for (attempt = 1; ; attempt++) {
+      try {
+	m_Target.upload(session, index, data.duplicate());
+	return;
+      }
+      catch (Exception e) {
+	if ((attempt >= m_MaxAttempts) || (e instanceof IllegalArgumentException))
+	  throw e;
+	getLogger().warning("Attempt " + attempt + "/" + m_MaxAttempts + " failed for chunk " + index + ": " + e);
+	m_Backoff.await(attempt - 1, -1);
+      }
+    }
+  }
+
+  /**
+   * Uploads the file, resuming a previous upload of the same file if possible.
+   *
+   * @param file	the file to upload
+   * @param name	the name to use on the target
+   * @throws Exception	if the upload fails, can be resumed by calling this method again
+   */
+  public void upload(Path file, String name) throws Exception {
+    JsonObject		data;
+    Set<Integer>	completed;
+    Set<Integer>	received;
+    ByteBuffer		buffer;
+    Path		state;
+    String		session;
+    long		size;
+    long		modified;
+    long		position;
+    int			chunkSize;
+    int			numChunks;
+    int			i;
+
+    state    = stateFile(file);
+    size     = Files.size(file);
+    modified = Files.getLastModifiedTime(file).toMillis();
+    data     = loadState(state, name, size, modified);
+    received = null;
+    if (data != null) {
+      received = m_Target.completed(data.get("session").getAsString());
+      if (received == null)
+	getLogger().info("Upload session expired, starting new upload: " + file);
+    }
+    if (received == null) {
+      chunkSize = m_ChunkSize;
+      session   = m_Target.begin(name, size, chunkSize);
+      received  = new TreeSet<>();
+      data      = new JsonObject();
+      data.addProperty("session", session);
+      data.addProperty("name", name);
+      data.addProperty("size", size);
+      data.addProperty("modified", modified);
+      data.addProperty("chunkSize", chunkSize);
+    }
+    else {
+      session   = data.get("session").getAsString();
+      chunkSize = data.get("chunkSize").getAsInt();
+    }
+    // the target decides what got received
+    completed = new TreeSet<>(received);
+    saveState(state, data, completed);
+
+    numChunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+    getLogger().info("uploading " + file + " in " + numChunks + " chunks, " + completed.size() + " already completed");
+    buffer = ByteBuffer.allocateDirect((int) Math.min(chunkSize, Math.max(size, 1)));
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+      for (i = 0; i < numChunks; i++) {
+	if (completed.contains(i))
+	  continue;
+	position = (long) i * chunkSize;
+	buffer.clear();
+	buffer.limit((int) Math.min(chunkSize, size - position));
+	while (buffer.hasRemaining()) {
+	  if (in.read(buffer, position + buffer.position()) == -1)
+	    throw new IOException("File got truncated during upload: " + file);
+	}
+	buffer.flip();
+	uploadChunk(session, i, buffer);
+	completed.add(i);
+	saveState(state, data, completed);
+      }
+    }
+
+    m_Target.complete(session);
+    Files.deleteIfExists(state);
+    getLogger().info("uploaded " + file + " as: " + name);
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "target=" + m_Target + ", chunkSize=" + m_ChunkSize + ", maxAttempts=" + m_MaxAttempts;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * ChunkedUploadTarget.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * Interface for endpoints that accept uploads in chunks, which can be sent
+ * in any order and resumed after failures.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see ChunkedUpload
+ */
+public interface ChunkedUploadTarget {
+
+  /**
+   * Starts a new upload session.
+   *
+   * @param name	the name of the file to upload
+   * @param size	the total size in bytes
+   * @param chunkSize	the size of the chunks (apart from the last one)
+   * @return		the ID of the session
+   * @throws Exception	if starting the session fails
+   */
+  public String begin(String name, long size, int chunkSize) throws Exception;
+
+  /**
+   * Returns the chunks of the session that have been received already.
+   *
+   * @param session	the ID of the session
+   * @return		the indices of the chunks, null if the session is unknown
+   * @throws Exception	if querying fails
+   */
+  public Set<Integer> completed(String session) throws Exception;
+
+  /**
+   * Uploads a single chunk, replacing any previous data for it.
+   *
+   * @param session	the ID of the session
+   * @param index	the index of the chunk
+   * @param data	the content of the chunk
+   * @throws Exception	if the upload fails
+   */
+  public void upload(String session, int index, ByteBuffer data) throws Exception;
+
+  /**
+   * Finishes the session, assembling the chunks into the file.
+   *
+   * @param session	the ID of the session
+   * @throws Exception	if chunks are missing or assembling fails
+   */
+  public void complete(String session) throws Exception;
+}
@@ -0,0 +1,183 @@
+/*
+ * DatasetMirror.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.action.Datasets;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.core.Utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mirrors the files of a dataset into a local directory, downloading them
+ * concurrently. Files get downloaded into temp files first and then renamed,
+ * so the directory never contains partial files. The cache IDs of the
+ * downloaded files are recorded in a manifest in the directory, files whose
+ * cache ID has not changed on the server are skipped on subsequent runs.
+ * <br>
+ * Example:
+ * <pre>
+ * TransferSummary summary = new DatasetMirror(client.datasets(), pk, Paths.get("/some/dir"))
+ *   .concurrency(8)
+ *   .mirror();
+ * </pre>
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class DatasetMirror
+  extends AbstractTransfer<DatasetMirror> {
+
+  private static final long serialVersionUID = 2519706315574924062L;
+
+  /** the name of the manifest file. */
+  public static final String MANIFEST = ".ufdl-mirror.json";
+
+  /** the extension for the temp files. */
+  public static final String PART_EXT = ".part";
+
+  /** the action to use. */
+  protected transient Datasets m_Datasets;
+
+  /** the dataset to mirror. */
+  protected int m_PK;
+
+  /** the directory to mirror into. */
+  protected transient Path m_Dir;
+
+  /** the manifest of the current run. */
+  protected transient TransferManifest m_Manifest;
+
+  /** the cache IDs of the files of the current run. */
+  protected transient Map<String, String> m_CacheIDs;
+
+  /**
+   * Initializes the mirror.
+   *
+   * @param datasets	the action to use
+   * @param pk		the dataset to mirror
+   * @param dir		the directory to mirror into
+   */
+  public DatasetMirror(Datasets datasets, int pk, Path dir) {
+    super();
+    m_Datasets = datasets;
+    m_PK       = pk;
+    m_Dir      = dir;
+  }
+
+  /**
+   * Returns the local file for the name in the dataset.
+   *
+   * @param name	the name in the dataset
+   * @return		the local file
+   * @throws IllegalArgumentException	if the name would end up outside the directory
+   */
+  protected Path resolve(String name) {
+    Path	result;
+
+    result = m_Dir.resolve(name).normalize();
+    if (!result.startsWith(m_Dir.normalize()))
+      throw new IllegalArgumentException("File name points outside of directory: " + name);
+
+    return result;
+  }
+
+  /**
+   * Downloads all files that are missing locally or have changed on the
+   * server since the last run.
+   *
+   * @return		the per-file results, up-to-date files are listed as skipped
+   * @throws Exception	if loading the dataset or the manifest fails
+   */
+  public synchronized TransferSummary mirror() throws Exception {
+    Dataset		dataset;
+    TransferSummary	result;
+    List<TransferItem>	download;
+    List<TransferItem>	skipped;
+    TransferItem	item;
+    long		start;
+
+    start   = System.currentTimeMillis();
+    dataset = m_Datasets.load(m_PK);
+    if (dataset == null)
+      throw new IllegalArgumentException("Unknown dataset: " + m_PK);
+
+    Files.createDirectories(m_Dir);
+    m_CacheIDs = new TreeMap<>(dataset.getFilesMap());
+    m_Manifest = new TransferManifest(m_Dir.resolve(MANIFEST));
+    download   = new ArrayList<>();
+    skipped    = new ArrayList<>();
+    for (String name: m_CacheIDs.keySet()) {
+      item = new TransferItem(resolve(name), name);
+      if (Files.exists(item.getPath()) && m_CacheIDs.get(name).equals(m_Manifest.get(name)))
+	skipped.add(item);
+      else
+	download.add(item);
+    }
+    getLogger().info("dataset " + m_PK + ": " + download.size() + " to download, " + skipped.size() + " up-to-date");
+
+    try {
+      result = transferAll(download);
+    }
+    finally {
+      m_Manifest.save();
+    }
+
+    return new TransferSummary(result.getResults(), skipped, System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Downloads (GET) are idempotent.
+   *
+   * @param item	the file to transfer
+   * @return		always true
+   */
+  @Override
+  protected boolean isIdempotent(TransferItem item) {
+    return true;
+  }
+
+  /**
+   * Downloads a single file into a temp file and renames it.
+   *
+   * @param item	the file to download
+   * @return		the number of bytes downloaded
+   * @throws Exception	if the download fails
+   */
+  @Override
+  protected long transfer(TransferItem item) throws Exception {
+    Path	tmp;
+    long	result;
+
+    Files.createDirectories(item.getPath().getParent());
+    tmp = Files.createTempFile(item.getPath().getParent(), "." + item.getPath().getFileName(), PART_EXT);
+    try {
+      m_Datasets.getFile(m_PK, item.getName(), tmp.toFile());
+      result = Files.size(tmp);
+      Utils.move(tmp, item.getPath());
+    }
+    finally {
+      Files.deleteIfExists(tmp);
+    }
+    m_Manifest.put(item.getName(), m_CacheIDs.get(item.getName()));
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return super.toString() + ", dataset=" + m_PK + ", dir=" + m_Dir;
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * DatasetPush.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.action.Datasets;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes the files of a local directory to a dataset, uploading only files
+ * that are new or whose content changed since the last push. The SHA-256
+ * hashes of the uploaded files are recorded in a manifest in the directory,
+ * together with the cache IDs the server assigned to them, so that files
+ * that got replaced on the server in the meantime get pushed again.
+ * Optionally, files that only exist on the server get deleted. Uploads and
+ * deletions are performed concurrently.
+ * <br>
+ * Example:
+ * <pre>
+ * TransferSummary summary = new DatasetPush(client.datasets(), pk, Paths.get("/some/dir"))
+ *   .deleteRemote(true)
+ *   .push();
+ * </pre>
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class DatasetPush
+  extends AbstractTransfer<DatasetPush> {
+
+  private static final long serialVersionUID = -4179936072402557291L;
+
+  /** the name of the manifest file. */
+  public static final String MANIFEST = ".ufdl-push.json";
+
+  /** the separator between hash and cache ID in the manifest. */
+  public static final String SEPARATOR = ":";
+
+  /** the prefix of files that are never pushed (manifests). */
+  public static final String IGNORE_PREFIX = ".ufdl-";
+
+  /** the action to use. */
+  protected transient Datasets m_Datasets;
+
+  /** the dataset to push to. */
+  protected int m_PK;
+
+  /** the directory to push. */
+  protected transient Path m_Dir;
+
+  /** whether to delete files that only exist on the server. */
+  protected boolean m_DeleteRemote;
+
+  /** the manifest of the current run. */
+  protected transient TransferManifest m_Manifest;
+
+  /** the hashes of the local files of the current run. */
+  protected transient Map<String, String> m_Hashes;
+
+  /** the names to delete on the server in the current run. */
+  protected transient Set<String> m_Deletions;
+
+  /** the names uploaded in the current run. */
+  protected transient Set<String> m_Uploaded;
+
+  /**
+   * Initializes the push.
+   *
+   * @param datasets	the action to use
+   * @param pk		the dataset to push to
+   * @param dir		the directory to push
+   */
+  public DatasetPush(Datasets datasets, int pk, Path dir) {
+    super();
+    m_Datasets     = datasets;
+    m_PK           = pk;
+    m_Dir          = dir;
+    m_DeleteRemote = false;
+  }
+
+  /**
+   * Sets whether to delete files from the dataset that do not exist locally.
+   *
+   * @param value	true if to delete
+   * @return		the push itself
+   */
+  public DatasetPush deleteRemote(boolean value) {
+    m_DeleteRemote = value;
+    return this;
+  }
+
+  /**
+   * Returns whether to delete files from the dataset that do not exist locally.
+   *
+   * @return		true if to delete
+   */
+  public boolean deleteRemote() {
+    return m_DeleteRemote;
+  }
+
+  /**
+   * Computes the SHA-256 hash of the file.
+   *
+   * @param file	the file to hash
+   * @return		the hash as hex string
+   * @throws Exception	if reading fails
+   */
+  protected String hash(Path file) throws Exception {
+    StringBuilder	result;
+    MessageDigest	digest;
+    byte[]		buffer;
+    int			read;
+
+    digest = MessageDigest.getInstance("SHA-256");
+    buffer = new byte[65536];
+    try (InputStream in = Files.newInputStream(file)) {
+      while ((read = in.read(buffer)) != -1)
+	digest.update(buffer, 0, read);
+    }
+    result = new StringBuilder();
+    for (byte b: digest.digest())
+      result.append(String.format("%02x", b));
+
+    return result.toString();
+  }
+
+  /**
+   * Generates the manifest entry for a file.
+   *
+   * @param hash	the hash of the local file
+   * @param cacheID	the cache ID of the file on the server
+   * @return		the entry
+   */
+  protected String entry(String hash, String cacheID) {
+    return hash + SEPARATOR + cacheID;
+  }
+
+  /**
+   * Records the hashes and the new cache IDs of the uploaded files in the
+   * manifest. Files whose cache ID cannot be determined are not recorded,
+   * i.e., they get pushed again next time.
+   *
+   * @throws Exception	if reloading the dataset fails
+   */
+  protected void recordUploads() throws Exception {
+    Dataset		dataset;
+    Map<String,String>	cacheIDs;
+
+    if (m_Uploaded.isEmpty())
+      return;
+    dataset = m_Datasets.load(m_PK);
+    if (dataset == null)
+      return;
+    cacheIDs = dataset.getFilesMap();
+    for (String name: m_Uploaded) {
+      if (cacheIDs.containsKey(name))
+	m_Manifest.put(name, entry(m_Hashes.get(name), cacheIDs.get(name)));
+    }
+  }
+
+  /**
+   * Uploads new and changed files and, if enabled, deletes files that only
+   * exist on the server.
+   *
+   * @return		the per-file results, unchanged files are listed as skipped
+   * @throws Exception	if loading the dataset, hashing or the manifest fails
+   */
+  public synchronized TransferSummary push() throws Exception {
+    Dataset		dataset;
+    TransferSummary	result;
+    Map<String,String>	remote;
+    Set<String>		local;
+    List<TransferItem>	transfer;
+    List<TransferItem>	skipped;
+    String		hash;
+    long		start;
+
+    start   = System.currentTimeMillis();
+    dataset = m_Datasets.load(m_PK);
+    if (dataset == null)
+      throw new IllegalArgumentException("Unknown dataset: " + m_PK);
+
+    remote      = dataset.getFilesMap();
+    local       = new HashSet<>();
+    m_Manifest  = new TransferManifest(m_Dir.resolve(MANIFEST));
+    m_Hashes    = new HashMap<>();
+    m_Deletions = new HashSet<>();
+    m_Uploaded  = ConcurrentHashMap.newKeySet();
+    transfer    = new ArrayList<>();
+    skipped     = new ArrayList<>();
+    for (TransferItem item: TransferItem.list(m_Dir)) {
+      if (item.getName().startsWith(IGNORE_PREFIX))
+	continue;
+      local.add(item.getName());
+      hash = hash(item.getPath());
+      m_Hashes.put(item.getName(), hash);
+      // unchanged locally and not replaced on the server?
+      if (remote.containsKey(item.getName()) && entry(hash, remote.get(item.getName())).equals(m_Manifest.get(item.getName())))
+	skipped.add(item);
+      else
+	transfer.add(item);
+    }
+    if (m_DeleteRemote) {
+      for (String name: remote.keySet()) {
+	if (!local.contains(name)) {
+	  m_Deletions.add(name);
+	  transfer.add(new TransferItem(m_Dir.resolve(name), name));
+	}
+      }
+    }
+    // forget files that no longer exist locally
+    for (String name: m_Manifest.names()) {
+      if (!local.contains(name))
+	m_Manifest.remove(name);
+    }
+    getLogger().info("dataset " + m_PK + ": "
+      + (transfer.size() - m_Deletions.size()) + " to upload, "
+      + m_Deletions.size() + " to delete, "
+      + skipped.size() + " unchanged");
+
+    try {
+      result = transferAll(transfer);
+      recordUploads();
+    }
+    finally {
+      m_Manifest.save();
+    }
+
+    return new TransferSummary(result.getResults(), skipped, System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Only deletions are idempotent, uploads (POST) get a single attempt.
+   *
+   * @param item	the file to transfer
+   * @return		true if to be deleted
+   */
+  @Override
+  protected boolean isIdempotent(TransferItem item) {
+    return m_Deletions.contains(item.getName());
+  }
+
+  /**
+   * Uploads or deletes a single file.
+   *
+   * @param item	the file to process
+   * @return		the number of bytes uploaded
+   * @throws Exception	if the upload/deletion fails
+   */
+  @Override
+  protected long transfer(TransferItem item) throws Exception {
+    long	result;
+
+    if (m_Deletions.contains(item.getName())) {
+      m_Datasets.deleteFile(m_PK, item.getName());
+      return 0;
+    }
+
+    result = Files.size(item.getPath());
+    m_Datasets.addFile(m_PK, item.getPath().toFile(), item.getName());
+    // cache ID gets recorded once all uploads are done
+    m_Manifest.remove(item.getName());
+    m_Uploaded.add(item.getName());
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return super.toString() + ", dataset=" + m_PK + ", dir=" + m_Dir + ", deleteRemote=" + m_DeleteRemote;
+  }
+}
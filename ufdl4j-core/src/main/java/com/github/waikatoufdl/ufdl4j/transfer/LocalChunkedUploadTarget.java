@@ -0,0 +1,271 @@
+/*
+ * LocalChunkedUploadTarget.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.Utils;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for a server that accepts chunked uploads, storing the chunks
+ * and the assembled files in a local directory. Sessions survive restarts
+ * of the JVM, just like on a server.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class LocalChunkedUploadTarget
+  extends AbstractLoggingObject
+  implements ChunkedUploadTarget {
+
+  private static final long serialVersionUID = 5593261904519867203L;
+
+  /** the name of the file with the session information. */
+  public static final String SESSION_INFO = "session.json";
+
+  /** the prefix for chunk files. */
+  public static final String CHUNK_PREFIX = "chunk-";
+
+  /** the directory for the assembled files. */
+  protected transient Path m_Dir;
+
+  /** the directory for the sessions. */
+  protected transient Path m_SessionsDir;
+
+  /**
+   * Initializes the target.
+   *
+   * @param dir		the directory to store the assembled files in
+   * @throws IOException	if the directories cannot be created
+   */
+  public LocalChunkedUploadTarget(Path dir) throws IOException {
+    m_Dir         = dir;
+    m_SessionsDir = dir.resolve(".sessions");
+    Files.createDirectories(m_SessionsDir);
+  }
+
+  /**
+   * Returns the directory of the session.
+   *
+   * @param session	the ID of the session
+   * @return		the directory
+   * @throws IllegalArgumentException	if invalid session ID
+   */
+  protected Path sessionDir(String session) {
+    if (!session.matches("[0-9a-f\\-]+"))
+      throw new IllegalArgumentException("Invalid session ID: " + session);
+    return m_SessionsDir.resolve(session);
+  }
+
+  /**
+   * Reads the information about the session.
+   *
+   * @param session	the ID of the session
+   * @return		the information
+   * @throws IOException	if the session is unknown or reading fails
+   */
+  protected JsonObject sessionInfo(String session) throws IOException {
+    Path	file;
+
+    file = sessionDir(session).resolve(SESSION_INFO);
+    if (!Files.exists(file))
+      throw new IOException("Unknown upload session: " + session);
+    return JsonParser.parseString(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).getAsJsonObject();
+  }
+
+  /**
+   * Returns the number of chunks of the session.
+   *
+   * @param info	the session information
+   * @return		the number of chunks
+   */
+  protected int numChunks(JsonObject info) {
+    long	size;
+    int		chunkSize;
+
+    size      = info.get("size").getAsLong();
+    chunkSize = info.get("chunkSize").getAsInt();
+    return (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+  }
+
+  /**
+   * Returns the expected length of the chunk.
+   *
+   * @param info	the session information
+   * @param index	the index of the chunk
+   * @return		the length
+   */
+  protected long chunkLength(JsonObject info, int index) {
+    long	size;
+    int		chunkSize;
+
+    size      = info.get("size").getAsLong();
+    chunkSize = info.get("chunkSize").getAsInt();
+    return Math.max(0, Math.min(chunkSize, size - (long) index * chunkSize));
+  }
+
+  /**
+   * Starts a new upload session.
+   *
+   * @param name	the name of the file to upload
+   * @param size	the total size in bytes
+   * @param chunkSize	the size of the chunks (apart from the last one)
+   * @return		the ID of the session
+   * @throws Exception	if starting the session fails
+   */
+  @Override
+  public String begin(String name, long size, int chunkSize) throws Exception {
+    JsonObject	info;
+    String	result;
+    Path	dir;
+
+    if (!m_Dir.resolve(name).normalize().startsWith(m_Dir.normalize()))
+      throw new IllegalArgumentException("File name points outside of directory: " + name);
+    if (chunkSize < 1)
+      throw new IllegalArgumentException("Chunk size must be at least 1, provided: " + chunkSize);
+
+    result = UUID.randomUUID().toString();
+    dir    = sessionDir(result);
+    Files.createDirectories(dir);
+    info = new JsonObject();
+    info.addProperty("name", name);
+    info.addProperty("size", size);
+    info.addProperty("chunkSize", chunkSize);
+    Files.write(dir.resolve(SESSION_INFO), info.toString().getBytes(StandardCharsets.UTF_8));
+    getLogger().info("began session " + result + " for: " + name);
+
+    return result;
+  }
+
+  /**
+   * Returns the chunks of the session that have been received already.
+   *
+   * @param session	the ID of the session
+   * @return		the indices of the chunks, null if the session is unknown
+   * @throws Exception	if querying fails
+   */
+  @Override
+  public Set<Integer> completed(String session) throws Exception {
+    Set<Integer>	result;
+    Path		dir;
+
+    dir = sessionDir(session);
+    if (!Files.exists(dir.resolve(SESSION_INFO)))
+      return null;
+
+    result = new HashSet<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      files
+	.map(p -> p.getFileName().toString())
+	.filter(n -> n.startsWith(CHUNK_PREFIX))
+	.forEach(n -> result.add(Integer.parseInt(n.substring(CHUNK_PREFIX.length()))));
+    }
+
+    return result;
+  }
+
+  /**
+   * Uploads a single chunk, replacing any previous data for it.
+   *
+   * @param session	the ID of the session
+   * @param index	the index of the chunk
+   * @param data	the content of the chunk
+   * @throws Exception	if the upload fails
+   */
+  @Override
+  public void upload(String session, int index, ByteBuffer data) throws Exception {
+    JsonObject	info;
+    Path	tmp;
+
+    info = sessionInfo(session);
+    if ((index < 0) || (index >= numChunks(info)))
+      throw new IllegalArgumentException("Invalid chunk index " + index + " for session: " + session);
+    if (data.remaining() != chunkLength(info, index))
+      throw new IOException("Chunk " + index + " has " + data.remaining() + " bytes, expected " + chunkLength(info, index));
+
+    tmp = Files.createTempFile(sessionDir(session), ".chunk", ".part");
+    try {
+      try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+	while (data.hasRemaining())
+	  out.write(data);
+      }
+      Utils.move(tmp, sessionDir(session).resolve(CHUNK_PREFIX + index));
+    }
+    finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Finishes the session, assembling the chunks into the file.
+   *
+   * @param session	the ID of the session
+   * @throws Exception	if chunks are missing or assembling fails
+   */
+  @Override
+  public void complete(String session) throws Exception {
+    JsonObject		info;
+    Set<Integer>	completed;
+    Path		target;
+    Path		tmp;
+    int			i;
+
+    info      = sessionInfo(session);
+    completed = completed(session);
+    for (i = 0; i < numChunks(info); i++) {
+      if (!completed.contains(i))
+	throw new IOException("Chunk " + i + " missing for session: " + session);
+    }
+
+    target = m_Dir.resolve(info.get("name").getAsString()).normalize();
+    Files.createDirectories(target.getParent());
+    tmp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".part");
+    try {
+      try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+	for (i = 0; i < numChunks(info); i++) {
+	  try (FileChannel in = FileChannel.open(sessionDir(session).resolve(CHUNK_PREFIX + i), StandardOpenOption.READ)) {
+	    long position = 0;
+	    while (position < in.size())
+	      position += in.transferTo(position, in.size() - position, out);
+	  }
+	}
+      }
+      Utils.move(tmp, target);
+    }
+    finally {
+      Files.deleteIfExists(tmp);
+    }
+
+    // remove session
+    try (Stream<Path> files = Files.walk(sessionDir(session))) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+    getLogger().info("completed session " + session + ": " + target);
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "dir=" + m_Dir;
+  }
+}
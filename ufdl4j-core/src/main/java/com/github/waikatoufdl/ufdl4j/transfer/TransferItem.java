@@ -0,0 +1,101 @@
+/*
+ * TransferItem.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Associates a local file with its name on the server.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TransferItem
+  implements Serializable {
+
+  private static final long serialVersionUID = -2265380473950437169L;
+
+  /** the local file. */
+  protected transient Path m_Path;
+
+  /** the name on the server. */
+  protected String m_Name;
+
+  /**
+   * Initializes the item.
+   *
+   * @param path	the local file
+   * @param name	the name on the server
+   */
+  public TransferItem(Path path, String name) {
+    if (path == null)
+      throw new IllegalArgumentException("Path cannot be null!");
+    if ((name == null) || name.isEmpty())
+      throw new IllegalArgumentException("Name cannot be null or empty!");
+    m_Path = path;
+    m_Name = name;
+  }
+
+  /**
+   * Initializes the item, using the file name as name on the server.
+   *
+   * @param path	the local file
+   */
+  public TransferItem(Path path) {
+    this(path, path.getFileName().toString());
+  }
+
+  /**
+   * Returns the local file.
+   *
+   * @return		the file
+   */
+  public Path getPath() {
+    return m_Path;
+  }
+
+  /**
+   * Returns the name on the server.
+   *
+   * @return		the name
+   */
+  public String getName() {
+    return m_Name;
+  }
+
+  /**
+   * Returns a short description of the item.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return m_Name + " <-> " + m_Path;
+  }
+
+  /**
+   * Returns items for all regular files in the directory (not recursive),
+   * using the file names as names on the server. Sorted by name.
+   *
+   * @param dir		the directory to list
+   * @return		the items
+   * @throws IOException	if listing the directory fails
+   */
+  public static List<TransferItem> list(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files
+	.filter(Files::isRegularFile)
+	.sorted()
+	.map(TransferItem::new)
+	.collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,23 @@
+/*
+ * TransferListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+/**
+ * Interface for classes that want to be notified about the progress of
+ * a bulk transfer. Gets called from the transfer threads.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+@FunctionalInterface
+public interface TransferListener {
+
+  /**
+   * Gets called whenever a file has been processed.
+   *
+   * @param progress	the current progress
+   */
+  public void transferProgress(TransferProgress progress);
+}
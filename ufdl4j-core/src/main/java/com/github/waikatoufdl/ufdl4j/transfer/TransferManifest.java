@@ -0,0 +1,152 @@
+/*
+ * TransferManifest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import com.github.waikatoufdl.ufdl4j.core.AbstractLoggingObject;
+import com.github.waikatoufdl.ufdl4j.core.JsonUtils;
+import com.github.waikatoufdl.ufdl4j.core.Utils;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records a value (eg cache ID or content hash) per file name, stored as
+ * JSON alongside the transferred files so that later runs can skip files
+ * that are already up-to-date.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TransferManifest
+  extends AbstractLoggingObject {
+
+  private static final long serialVersionUID = -5624109867389187231L;
+
+  /** the file the manifest is stored in. */
+  protected transient Path m_File;
+
+  /** the values per file name. */
+  protected Map<String, String> m_Entries;
+
+  /**
+   * Initializes the manifest, loading it from the file if it exists.
+   *
+   * @param file	the file to store the manifest in
+   * @throws Exception	if loading fails
+   */
+  public TransferManifest(Path file) throws Exception {
+    m_File    = file;
+    m_Entries = new HashMap<>();
+    load();
+  }
+
+  /**
+   * Loads the entries from the file, if it exists. A corrupt manifest is
+   * ignored (ie everything is considered out-of-date).
+   *
+   * @throws Exception	if reading fails
+   */
+  protected void load() throws Exception {
+    JsonElement		json;
+
+    if (!Files.exists(m_File))
+      return;
+
+    try (Reader reader = Files.newBufferedReader(m_File, StandardCharsets.UTF_8)) {
+      json = JsonParser.parseReader(reader);
+    }
+    catch (Exception e) {
+      getLogger().warning("Failed to parse manifest, ignoring: " + m_File + "\n" + e);
+      return;
+    }
+    if (!json.isJsonObject())
+      return;
+    for (String key: json.getAsJsonObject().keySet())
+      m_Entries.put(key, json.getAsJsonObject().get(key).getAsString());
+  }
+
+  /**
+   * Returns the file the manifest is stored in.
+   *
+   * @return		the file
+   */
+  public Path getFile() {
+    return m_File;
+  }
+
+  /**
+   * Returns the value recorded for the name.
+   *
+   * @param name	the file name
+   * @return		the value, null if none recorded
+   */
+  public synchronized String get(String name) {
+    return m_Entries.get(name);
+  }
+
+  /**
+   * Records the value for the name.
+   *
+   * @param name	the file name
+   * @param value	the value
+   */
+  public synchronized void put(String name, String value) {
+    m_Entries.put(name, value);
+  }
+
+  /**
+   * Removes the entry for the name.
+   *
+   * @param name	the file name
+   */
+  public synchronized void remove(String name) {
+    m_Entries.remove(name);
+  }
+
+  /**
+   * Returns all the recorded names.
+   *
+   * @return		the names
+   */
+  public synchronized Set<String> names() {
+    return new HashSet<>(m_Entries.keySet());
+  }
+
+  /**
+   * Writes the manifest to its file, replacing it atomically.
+   *
+   * @throws Exception	if writing fails
+   */
+  public synchronized void save() throws Exception {
+    JsonObject	json;
+    Path	tmp;
+
+    json = new JsonObject();
+    for (String key: m_Entries.keySet())
+      json.addProperty(key, m_Entries.get(key));
+    tmp = m_File.resolveSibling(m_File.getFileName() + ".tmp");
+    Files.write(tmp, JsonUtils.prettyPrint(json).getBytes(StandardCharsets.UTF_8));
+    Utils.move(tmp, m_File);
+  }
+
+  /**
+   * Returns a short description of the state.
+   *
+   * @return		the description
+   */
+  @Override
+  public synchronized String toString() {
+    return m_File + ": " + m_Entries.size() + " entries";
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * TransferProgress.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of the progress of a bulk transfer.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TransferProgress
+  implements Serializable {
+
+  private static final long serialVersionUID = 2861367419468591326L;
+
+  /** the total number of files. */
+  protected int m_Total;
+
+  /** the number of files transferred successfully. */
+  protected int m_Succeeded;
+
+  /** the number of files that failed. */
+  protected int m_Failed;
+
+  /** the number of bytes transferred. */
+  protected long m_Bytes;
+
+  /** the msec since the transfer started. */
+  protected long m_Elapsed;
+
+  /** the result that triggered this update, can be null. */
+  protected TransferResult m_Last;
+
+  /**
+   * Initializes the snapshot.
+   *
+   * @param total	the total number of files
+   * @param succeeded	the number of files transferred successfully
+   * @param failed	the number of files that failed
+   * @param bytes	the number of bytes transferred
+   * @param elapsed	the msec since the transfer started
+   * @param last	the result that triggered the update, can be null
+   */
+  public TransferProgress(int total, int succeeded, int failed, long bytes, long elapsed, TransferResult last) {
+    m_Total     = total;
+    m_Succeeded = succeeded;
+    m_Failed    = failed;
+    m_Bytes     = bytes;
+    m_Elapsed   = elapsed;
+    m_Last      = last;
+  }
+
+  /**
+   * Returns the total number of files.
+   *
+   * @return		the total
+   */
+  public int getTotal() {
+    return m_Total;
+  }
+
+  /**
+   * Returns the number of files transferred successfully.
+   *
+   * @return		the number
+   */
+  public int getSucceeded() {
+    return m_Succeeded;
+  }
+
+  /**
+   * Returns the number of files that failed.
+   *
+   * @return		the number
+   */
+  public int getFailed() {
+    return m_Failed;
+  }
+
+  /**
+   * Returns the number of files processed so far (successful or not).
+   *
+   * @return		the number
+   */
+  public int getCompleted() {
+    return m_Succeeded + m_Failed;
+  }
+
+  /**
+   * Returns the number of bytes transferred.
+   *
+   * @return		the bytes
+   */
+  public long getBytes() {
+    return m_Bytes;
+  }
+
+  /**
+   * Returns the time since the transfer started.
+   *
+   * @return		the elapsed time in msec
+   */
+  public long getElapsed() {
+    return m_Elapsed;
+  }
+
+  /**
+   * Returns the result that triggered this update.
+   *
+   * @return		the result, null if none
+   */
+  public TransferResult getLast() {
+    return m_Last;
+  }
+
+  /**
+   * Returns the throughput.
+   *
+   * @return		the bytes per second
+   */
+  public double getBytesPerSecond() {
+    if (m_Elapsed <= 0)
+      return 0.0;
+    return m_Bytes * 1000.0 / m_Elapsed;
+  }
+
+  /**
+   * Returns the number of files processed per second.
+   *
+   * @return		the files per second
+   */
+  public double getFilesPerSecond() {
+    if (m_Elapsed <= 0)
+      return 0.0;
+    return getCompleted() * 1000.0 / m_Elapsed;
+  }
+
+  /**
+   * Returns a short description of the progress.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return getCompleted() + "/" + m_Total
+      + ", failed=" + m_Failed
+      + ", bytes=" + m_Bytes
+      + String.format(", %.1f files/s, %.1f KB/s", getFilesPerSecond(), getBytesPerSecond() / 1024.0);
+  }
+}
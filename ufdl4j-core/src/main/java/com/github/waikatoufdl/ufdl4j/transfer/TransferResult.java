@@ -0,0 +1,125 @@
+/*
+ * TransferResult.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of transferring a single file.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TransferResult
+  implements Serializable {
+
+  private static final long serialVersionUID = 5203474104453018795L;
+
+  /** the item that got transferred. */
+  protected TransferItem m_Item;
+
+  /** whether the transfer succeeded. */
+  protected boolean m_Success;
+
+  /** the number of attempts. */
+  protected int m_Attempts;
+
+  /** the number of bytes transferred. */
+  protected long m_Bytes;
+
+  /** the time in msec the transfer took (all attempts). */
+  protected long m_Duration;
+
+  /** the last error, null if successful. */
+  protected Exception m_Error;
+
+  /**
+   * Initializes the result.
+   *
+   * @param item	the item that got transferred
+   * @param success	whether the transfer succeeded
+   * @param attempts	the number of attempts
+   * @param bytes	the number of bytes transferred
+   * @param duration	the time in msec the transfer took
+   * @param error	the last error, null if successful
+   */
+  public TransferResult(TransferItem item, boolean success, int attempts, long bytes, long duration, Exception error) {
+    m_Item     = item;
+    m_Success  = success;
+    m_Attempts = attempts;
+    m_Bytes    = bytes;
+    m_Duration = duration;
+    m_Error    = error;
+  }
+
+  /**
+   * Returns the item that got transferred.
+   *
+   * @return		the item
+   */
+  public TransferItem getItem() {
+    return m_Item;
+  }
+
+  /**
+   * Returns whether the transfer succeeded.
+   *
+   * @return		true if successful
+   */
+  public boolean isSuccess() {
+    return m_Success;
+  }
+
+  /**
+   * Returns the number of attempts.
+   *
+   * @return		the attempts
+   */
+  public int getAttempts() {
+    return m_Attempts;
+  }
+
+  /**
+   * Returns the number of bytes transferred.
+   *
+   * @return		the bytes
+   */
+  public long getBytes() {
+    return m_Bytes;
+  }
+
+  /**
+   * Returns the time the transfer took, including all attempts.
+   *
+   * @return		the duration in msec
+   */
+  public long getDuration() {
+    return m_Duration;
+  }
+
+  /**
+   * Returns the last error.
+   *
+   * @return		the error, null if successful
+   */
+  public Exception getError() {
+    return m_Error;
+  }
+
+  /**
+   * Returns a short description of the result.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return m_Item.getName()
+      + ": " + (m_Success ? "success" : "failed")
+      + ", attempts=" + m_Attempts
+      + ", bytes=" + m_Bytes
+      + ", duration=" + m_Duration
+      + (m_Error == null ? "" : ", error=" + m_Error);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * TransferSummary.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The per-file results of a bulk transfer.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TransferSummary
+  implements Serializable {
+
+  private static final long serialVersionUID = -1807617307950512446L;
+
+  /** the results, in the order of the items. */
+  protected List<TransferResult> m_Results;
+
+  /** the items that were skipped as up-to-date. */
+  protected List<TransferItem> m_Skipped;
+
+  /** the msec the whole transfer took. */
+  protected long m_Elapsed;
+
+  /**
+   * Initializes the summary.
+   *
+   * @param results	the results
+   * @param elapsed	the msec the whole transfer took
+   */
+  public TransferSummary(List<TransferResult> results, long elapsed) {
+    this(results, new ArrayList<>(), elapsed);
+  }
+
+  /**
+   * Initializes the summary.
+   *
+   * @param results	the results
+   * @param skipped	the items that were skipped as up-to-date
+   * @param elapsed	the msec the whole transfer took
+   */
+  public TransferSummary(List<TransferResult> results, List<TransferItem> skipped, long elapsed) {
+    m_Results = Collections.unmodifiableList(new ArrayList<>(results));
+    m_Skipped = Collections.unmodifiableList(new ArrayList<>(skipped));
+    m_Elapsed = elapsed;
+  }
+
+  /**
+   * Returns all the results.
+   *
+   * @return		the results
+   */
+  public List<TransferResult> getResults() {
+    return m_Results;
+  }
+
+  /**
+   * Returns the items that were skipped as up-to-date.
+   *
+   * @return		the skipped items
+   */
+  public List<TransferItem> getSkipped() {
+    return m_Skipped;
+  }
+
+  /**
+   * Returns the results of the failed transfers.
+   *
+   * @return		the failed ones
+   */
+  public List<TransferResult> getFailed() {
+    List<TransferResult>	result;
+
+    result = new ArrayList<>();
+    for (TransferResult r: m_Results) {
+      if (!r.isSuccess())
+	result.add(r);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns whether all transfers were successful.
+   *
+   * @return		true if no failures
+   */
+  public boolean isSuccess() {
+    return getFailedCount() == 0;
+  }
+
+  /**
+   * Returns the number of successful transfers.
+   *
+   * @return		the number
+   */
+  public int getSucceededCount() {
+    return m_Results.size() - getFailedCount();
+  }
+
+  /**
+   * Returns the number of failed transfers.
+   *
+   * @return		the number
+   */
+  public int getFailedCount() {
+    int		result;
+
+    result = 0;
+    for (TransferResult r: m_Results) {
+      if (!r.isSuccess())
+	result++;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the total number of bytes transferred.
+   *
+   * @return		the bytes
+   */
+  public long getBytes() {
+    long	result;
+
+    result = 0;
+    for (TransferResult r: m_Results)
+      result += r.getBytes();
+
+    return result;
+  }
+
+  /**
+   * Returns the time the whole transfer took.
+   *
+   * @return		the elapsed time in msec
+   */
+  public long getElapsed() {
+    return m_Elapsed;
+  }
+
+  /**
+   * Returns the overall throughput.
+   *
+   * @return		the bytes per second
+   */
+  public double getBytesPerSecond() {
+    if (m_Elapsed <= 0)
+      return 0.0;
+    return getBytes() * 1000.0 / m_Elapsed;
+  }
+
+  /**
+   * Returns a short description of the summary.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "files=" + m_Results.size()
+      + ", succeeded=" + getSucceededCount()
+      + ", failed=" + getFailedCount()
+      + ", skipped=" + m_Skipped.size()
+      + ", bytes=" + getBytes()
+      + ", elapsed=" + m_Elapsed
+      + String.format(", %.1f KB/s", getBytesPerSecond() / 1024.0);
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * UploadSource.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * The content of an upload, streamed into the request rather than
+ * materialised in memory or a temp file first. Sources with unknown length
+ * get sent using chunked transfer encoding.
+ * <br>
+ * Sources based on streams and channels can only be sent once; they get
+ * consumed, but not closed.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class UploadSource {
+
+  /** the default media type. */
+  public static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+  /** the size of the direct buffer used for reading from channels. */
+  public static final int BUFFER_SIZE = 256 * 1024;
+
+  /**
+   * Returns the number of bytes.
+   *
+   * @return		the length, -1 if unknown
+   */
+  public abstract long length();
+
+  /**
+   * Returns whether the source can only be sent once.
+   *
+   * @return		true if the content cannot be replayed
+   */
+  public abstract boolean isOneShot();
+
+  /**
+   * Writes the content to the sink.
+   *
+   * @param sink	the sink to write to
+   * @throws IOException	if reading or writing fails
+   */
+  protected abstract void writeTo(BufferedSink sink) throws IOException;
+
+  /**
+   * Returns the content as request body.
+   *
+   * @return		the body
+   */
+  public RequestBody toRequestBody() {
+    return new RequestBody() {
+      @Override
+      public MediaType contentType() {
+	return OCTET_STREAM;
+      }
+      @Override
+      public long contentLength() {
+	return length();
+      }
+      @Override
+      public boolean isOneShot() {
+	return UploadSource.this.isOneShot();
+      }
+      @Override
+      public void writeTo(BufferedSink sink) throws IOException {
+	UploadSource.this.writeTo(sink);
+      }
+    };
+  }
+
+  /**
+   * Returns a short description of the source.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "length=" + length() + ", oneShot=" + isOneShot();
+  }
+
+  /**
+   * Creates a source that reads from the stream.
+   *
+   * @param stream	the stream to read from
+   * @param length	the number of bytes to send, -1 for everything up to the end of the stream
+   * @return		the source
+   */
+  public static UploadSource of(InputStream stream, long length) {
+    return new UploadSource() {
+      @Override
+      public long length() {
+	return length;
+      }
+      @Override
+      public boolean isOneShot() {
+	return true;
+      }
+      @Override
+      protected void writeTo(BufferedSink sink) throws IOException {
+	if (length < 0)
+	  sink.writeAll(Okio.source(stream));
+	else
+	  sink.write(Okio.source(stream), length);
+      }
+    };
+  }
+
+  /**
+   * Creates a source that reads from the channel.
+   *
+   * @param channel	the channel to read from
+   * @param length	the number of bytes to send, -1 for everything up to the end of the channel
+   * @return		the source
+   */
+  public static UploadSource of(ReadableByteChannel channel, long length) {
+    return new UploadSource() {
+      @Override
+      public long length() {
+	return length;
+      }
+      @Override
+      public boolean isOneShot() {
+	return true;
+      }
+      @Override
+      protected void writeTo(BufferedSink sink) throws IOException {
+	ByteBuffer	buffer;
+	long		remaining;
+
+	buffer    = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	remaining = (length < 0) ? Long.MAX_VALUE : length;
+	while (remaining > 0) {
+	  buffer.clear();
+	  buffer.limit((int) Math.min(buffer.capacity(), remaining));
+	  if (channel.read(buffer) == -1)
+	    break;
+	  buffer.flip();
+	  remaining -= buffer.remaining();
+	  while (buffer.hasRemaining())
+	    sink.write(buffer);
+	}
+	if ((length >= 0) && (remaining > 0))
+	  throw new IOException("Channel ended prematurely, " + remaining + " of " + length + " bytes missing");
+      }
+    };
+  }
+
+  /**
+   * Creates a source for the remaining bytes of the buffer. The position of
+   * the buffer does not change, so it can be sent multiple times.
+   *
+   * @param buffer	the buffer to send
+   * @return		the source
+   */
+  public static UploadSource of(ByteBuffer buffer) {
+    return new UploadSource() {
+      @Override
+      public long length() {
+	return buffer.remaining();
+      }
+      @Override
+      public boolean isOneShot() {
+	return false;
+      }
+      @Override
+      protected void writeTo(BufferedSink sink) throws IOException {
+	ByteBuffer	data;
+
+	data = buffer.duplicate();
+	while (data.hasRemaining())
+	  sink.write(data);
+      }
+    };
+  }
+
+  /**
+   * Creates a source for the file.
+   *
+   * @param file	the file to send
+   * @return		the source
+   */
+  public static UploadSource of(Path file) {
+    return new UploadSource() {
+      @Override
+      public long length() {
+	return file.toFile().length();
+      }
+      @Override
+      public boolean isOneShot() {
+	return false;
+      }
+      @Override
+      protected void writeTo(BufferedSink sink) throws IOException {
+	try (Source source = Okio.source(file)) {
+	  sink.writeAll(source);
+	}
+      }
+    };
+  }
+}
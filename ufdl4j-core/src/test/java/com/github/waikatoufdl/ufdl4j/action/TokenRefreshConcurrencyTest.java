@@ -0,0 +1,333 @@
+/*
+ * TokenRefreshConcurrencyTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.action;
+
+import com.github.waikatoufdl.ufdl4j.auth.MemoryOnlyStorage;
+import com.github.waikatoufdl.ufdl4j.auth.Tokens;
+import com.github.waikatoufdl.ufdl4j.context.Connection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that concurrent requests encountering the same expired access token
+ * result in a single refresh (or obtain) against a stub server, both for
+ * requests executed via requests4j and via the pooled HTTP client.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TokenRefreshConcurrencyTest {
+
+  /** the number of concurrent requests. */
+  public static final int NUM_THREADS = 64;
+
+  /** the time in msec the stub takes for issuing tokens. */
+  public static final int AUTH_DELAY = 100;
+
+  /**
+   * Action for executing the requests.
+   */
+  public static class TestAction
+    extends AbstractAction {
+
+    private static final long serialVersionUID = -3925012766204911584L;
+
+    /**
+     * Returns the name of the action.
+     *
+     * @return		the name
+     */
+    @Override
+    public String getName() {
+      return "Test";
+    }
+
+    /**
+     * Returns the URL path for the action.
+     *
+     * @return		the path
+     */
+    @Override
+    public String getPath() {
+      return "/v1/test/";
+    }
+
+    /**
+     * Executes a request via the pooled HTTP client and returns the status code.
+     *
+     * @return		the status code
+     * @throws Exception	if the request fails
+     */
+    public int ping() throws Exception {
+      try (okhttp3.Response response = executeRaw(newRawRequest(getPath() + "1/"))) {
+	return response.code();
+      }
+    }
+
+    /**
+     * Executes a request via requests4j and returns the status code.
+     *
+     * @return		the status code
+     * @throws Exception	if the request fails
+     */
+    public int get() throws Exception {
+      return execute(newGet(getPath() + "1/")).statusCode();
+    }
+  }
+
+  /** the stub server. */
+  protected HttpServer m_Server;
+
+  /** the access token the stub server accepts, null for none. */
+  protected volatile String m_Valid;
+
+  /** whether the stub server rejects refresh requests. */
+  protected volatile boolean m_RefreshFails;
+
+  /** the number of refresh requests. */
+  protected AtomicInteger m_Refreshes;
+
+  /** the number of obtain requests. */
+  protected AtomicInteger m_Obtains;
+
+  /** for generating tokens. */
+  protected AtomicInteger m_Counter;
+
+  /** the connection to the stub server. */
+  protected Connection m_Connection;
+
+  /** the action to test with. */
+  protected TestAction m_Action;
+
+  /**
+   * Sends the response.
+   *
+   * @param exchange	the exchange to respond to
+   * @param code	the status code
+   * @param body	the JSON body
+   * @throws IOException	if sending fails
+   */
+  protected void respond(HttpExchange exchange, int code, String body) throws IOException {
+    byte[]	data;
+
+    data = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(code, data.length);
+    exchange.getResponseBody().write(data);
+    exchange.close();
+  }
+
+  /**
+   * Waits before issuing tokens, to give all requests a chance to pile up.
+   */
+  protected void delay() {
+    try {
+      Thread.sleep(AUTH_DELAY);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Starts the stub server and sets up the connection with a stale access token.
+   *
+   * @throws Exception	if setup fails
+   */
+  @Before
+  public void setUp() throws Exception {
+    MemoryOnlyStorage	storage;
+
+    m_Refreshes    = new AtomicInteger();
+    m_Obtains      = new AtomicInteger();
+    m_Counter      = new AtomicInteger();
+    m_Valid        = null;
+    m_RefreshFails = false;
+
+    m_Server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    m_Server.setExecutor(Executors.newCachedThreadPool());
+    m_Server.createContext("/v1/auth/refresh", exchange -> {
+      m_Refreshes.incrementAndGet();
+      delay();
+      if (m_RefreshFails) {
+	respond(exchange, 401, "{\"detail\": \"Token is invalid or expired\"}");
+      }
+      else {
+	m_Valid = "access-" + m_Counter.incrementAndGet();
+	respond(exchange, 200, "{\"access\": \"" + m_Valid + "\"}");
+      }
+    });
+    m_Server.createContext("/v1/auth/obtain", exchange -> {
+      m_Obtains.incrementAndGet();
+      delay();
+      m_Valid = "access-" + m_Counter.incrementAndGet();
+      respond(exchange, 200, "{\"refresh\": \"refresh-" + m_Counter.get() + "\", \"access\": \"" + m_Valid + "\"}");
+    });
+    m_Server.createContext("/v1/test/", exchange -> {
+      String auth = exchange.getRequestHeaders().getFirst(AbstractAction.HEADER_AUTHORIZATION);
+      if ((m_Valid != null) && (AbstractAction.PREFIX_BEARER + " " + m_Valid).equals(auth))
+	respond(exchange, 200, "{}");
+      else
+	respond(exchange, 401, "{\"detail\": \"Given token not valid for any token type\"}");
+    });
+    m_Server.start();
+
+    storage      = new MemoryOnlyStorage();
+    m_Connection = new Connection()
+      .server("http://" + m_Server.getAddress().getHostString() + ":" + m_Server.getAddress().getPort())
+      .authentication("user", "pw", storage)
+      .tokenRenewal(-1)
+      .coalesceGets(false);
+    storage.store(m_Connection.authentication(), new Tokens("refresh-0", "access-0"));
+    m_Action = new TestAction();
+    m_Action.setConnection(m_Connection);
+  }
+
+  /**
+   * Stops the stub server.
+   */
+  @After
+  public void tearDown() {
+    m_Connection.close();
+    m_Server.stop(0);
+    ((ExecutorService) m_Server.getExecutor()).shutdownNow();
+  }
+
+  /**
+   * Executes the requests concurrently, all starting at the same time.
+   *
+   * @param raw		whether to use the pooled HTTP client rather than requests4j
+   * @return		the status codes
+   * @throws Exception	if a request fails
+   */
+  protected List<Integer> pingAll(boolean raw) throws Exception {
+    List<Integer>		result;
+    ExecutorService		executor;
+    CountDownLatch		start;
+    List<Future<Integer>>	futures;
+    int				i;
+
+    result   = new ArrayList<>();
+    executor = Executors.newFixedThreadPool(NUM_THREADS);
+    start    = new CountDownLatch(1);
+    futures  = new ArrayList<>();
+    try {
+      for (i = 0; i < NUM_THREADS; i++) {
+	futures.add(executor.submit((Callable<Integer>) () -> {
+	  start.await();
+	  return raw ? m_Action.ping() : m_Action.get();
+	}));
+      }
+      start.countDown();
+      for (Future<Integer> future: futures)
+	result.add(future.get(60, TimeUnit.SECONDS));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks that all requests succeeded.
+   *
+   * @param codes	the status codes of the requests
+   */
+  protected void assertAllOk(List<Integer> codes) {
+    assertEquals(NUM_THREADS, codes.size());
+    for (int code: codes)
+      assertEquals(200, code);
+  }
+
+  /**
+   * Expires the access token twice, expecting one refresh per expiry.
+   *
+   * @param raw		whether to use the pooled HTTP client rather than requests4j
+   * @throws Exception	if a request fails
+   */
+  protected void checkSingleRefreshPerExpiry(boolean raw) throws Exception {
+    assertAllOk(pingAll(raw));
+    assertEquals("refreshes after first expiry", 1, m_Refreshes.get());
+    assertEquals("obtains after first expiry", 0, m_Obtains.get());
+
+    m_Valid = null;
+    assertAllOk(pingAll(raw));
+    assertEquals("refreshes after second expiry", 2, m_Refreshes.get());
+    assertEquals("obtains after second expiry", 0, m_Obtains.get());
+  }
+
+  /**
+   * Rejects the refresh token, expecting a single refresh and a single obtain.
+   *
+   * @param raw		whether to use the pooled HTTP client rather than requests4j
+   * @throws Exception	if a request fails
+   */
+  protected void checkSingleObtainAfterFailedRefresh(boolean raw) throws Exception {
+    m_RefreshFails = true;
+    assertAllOk(pingAll(raw));
+    assertEquals("refreshes", 1, m_Refreshes.get());
+    assertEquals("obtains", 1, m_Obtains.get());
+  }
+
+  /**
+   * Checks the refresh for requests executed via the pooled HTTP client.
+   *
+   * @throws Exception	if a request fails
+   */
+  @Test
+  public void testSingleRefreshPerExpiry() throws Exception {
+    checkSingleRefreshPerExpiry(true);
+  }
+
+  /**
+   * Checks the obtain for requests executed via the pooled HTTP client.
+   *
+   * @throws Exception	if a request fails
+   */
+  @Test
+  public void testSingleObtainAfterFailedRefresh() throws Exception {
+    checkSingleObtainAfterFailedRefresh(true);
+  }
+
+  /**
+   * Checks the refresh for requests executed via requests4j.
+   *
+   * @throws Exception	if a request fails
+   */
+  @Test
+  public void testSingleRefreshPerExpiryExecute() throws Exception {
+    checkSingleRefreshPerExpiry(false);
+  }
+
+  /**
+   * Checks the obtain for requests executed via requests4j.
+   *
+   * @throws Exception	if a request fails
+   */
+  @Test
+  public void testSingleObtainAfterFailedRefreshExecute() throws Exception {
+    checkSingleObtainAfterFailedRefresh(false);
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * ChunkedUploadTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, NZ
+ */
+
+package com.github.waikatoufdl.ufdl4j.transfer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks interrupting and resuming chunked uploads against a
+ * {@link LocalChunkedUploadTarget}.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class ChunkedUploadTest {
+
+  /** the chunk size to use. */
+  public static final int CHUNK_SIZE = 1000;
+
+  /** the size of the file to upload (ten chunks, last one partial). */
+  public static final int FILE_SIZE = 9500;
+
+  /** the name to upload the file as. */
+  public static final String NAME = "data.bin";
+
+  /**
+   * Target that can fail chunks and records the uploaded chunks.
+   */
+  public static class FlakyTarget
+    implements ChunkedUploadTarget {
+
+    /** the actual target. */
+    protected ChunkedUploadTarget m_Target;
+
+    /** the chunk index to fail, -1 for none. */
+    protected int m_FailIndex;
+
+    /** how often to fail the chunk. */
+    protected int m_FailCount;
+
+    /** the indices of the chunk upload attempts. */
+    protected List<Integer> m_Attempts;
+
+    /** the number of sessions started. */
+    protected int m_Sessions;
+
+    /**
+     * Initializes the target.
+     *
+     * @param target	the actual target
+     */
+    public FlakyTarget(ChunkedUploadTarget target) {
+      m_Target    = target;
+      m_FailIndex = -1;
+      m_Attempts  = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * Fails the chunk the given number of times.
+     *
+     * @param index	the index of the chunk, -1 for none
+     * @param count	the number of times to fail
+     */
+    public void fail(int index, int count) {
+      m_FailIndex = index;
+      m_FailCount = count;
+    }
+
+    /**
+     * Returns the indices of the chunk upload attempts.
+     *
+     * @return		the indices
+     */
+    public List<Integer> getAttempts() {
+      return m_Attempts;
+    }
+
+    /**
+     * Returns the number of sessions started.
+     *
+     * @return		the number of sessions
+     */
+    public int getSessions() {
+      return m_Sessions;
+    }
+
+    /**
+     * Starts a new upload session.
+     *
+     * @param name	the name of the file to upload
+     * @param size	the total size in bytes
+     * @param chunkSize	the size of the chunks
+     * @return		the ID of the session
+     * @throws Exception	if starting the session fails
+     */
+    @Override
+    public String begin(String name, long size, int chunkSize) throws Exception {
+      m_Sessions++;
+      return m_Target.begin(name, size, chunkSize);
+    }
+
+    /**
+     * Returns the chunks of the session that have been received already.
+     *
+     * @param session	the ID of the session
+     * @return		the indices of the chunks, null if the session is unknown
+     * @throws Exception	if querying fails
+     */
+    @Override
+    public Set<Integer> completed(String session) throws Exception {
+      return m_Target.completed(session);
+    }
+
+    /**
+     * Uploads a single chunk, unless it is supposed to fail.
+     *
+     * @param session	the ID of the session
+     * @param index	the index of the chunk
+     * @param data	the content of the chunk
+     * @throws Exception	if the upload fails
+     */
+    @Override
+    public void upload(String session, int index, ByteBuffer data) throws Exception {
+      m_Attempts.add(index);
+      if ((index == m_FailIndex) && (m_FailCount > 0)) {
+	m_FailCount--;
+	throw new IOException("Connection reset while uploading chunk " + index);
+      }
+      m_Target.upload(session, index, data);
+    }
+
+    /**
+     * Finishes the session.
+     *
+     * @param session	the ID of the session
+     * @throws Exception	if chunks are missing or assembling fails
+     */
+    @Override
+    public void complete(String session) throws Exception {
+      m_Target.complete(session);
+    }
+  }
+
+  /** for temporary files. */
+  @Rule
+  public TemporaryFolder m_Temp = new TemporaryFolder();
+
+  /** the file to upload. */
+  protected Path m_File;
+
+  /** the directory of the target. */
+  protected Path m_TargetDir;
+
+  /** the target to upload to. */
+  protected FlakyTarget m_Target;
+
+  /**
+   * Generates random content.
+   *
+   * @param size	the number of bytes
+   * @param seed	the seed for the random numbers
+   * @return		the content
+   */
+  protected byte[] content(int size, long seed) {
+    byte[]	result;
+
+    result = new byte[size];
+    new Random(seed).nextBytes(result);
+    return result;
+  }
+
+  /**
+   * Creates the file to upload and the target.
+   *
+   * @throws Exception	if setup fails
+   */
+  @Before
+  public void setUp() throws Exception {
+    m_File      = m_Temp.newFolder("source").toPath().resolve(NAME);
+    m_TargetDir = m_Temp.newFolder("target").toPath();
+    m_Target    = new FlakyTarget(new LocalChunkedUploadTarget(m_TargetDir));
+    Files.write(m_File, content(FILE_SIZE, 1));
+  }
+
+  /**
+   * Returns a new upload with a single attempt per chunk.
+   *
+   * @return		the upload
+   */
+  protected ChunkedUpload newUpload() {
+    return new ChunkedUpload(m_Target).chunkSize(CHUNK_SIZE).maxAttempts(1);
+  }
+
+  /**
+   * Uploads the file, expecting the upload to fail.
+   *
+   * @param upload	the upload to use
+   */
+  protected void uploadFailing(ChunkedUpload upload) {
+    try {
+      upload.upload(m_File, NAME);
+      fail("Upload should have failed");
+    }
+    catch (Exception e) {
+      // expected
+    }
+  }
+
+  /**
+   * Checks that the assembled file matches the uploaded one.
+   *
+   * @throws Exception	if reading fails
+   */
+  protected void assertAssembled() throws Exception {
+    assertArrayEquals(Files.readAllBytes(m_File), Files.readAllBytes(m_TargetDir.resolve(NAME)));
+  }
+
+  /**
+   * Interrupts an upload and resumes it with a new upload object (as after a
+   * restart), expecting only the missing chunks to be sent.
+   *
+   * @throws Exception	if the upload fails
+   */
+  @Test
+  public void testResume() throws Exception {
+    ChunkedUpload	upload;
+
+    upload = newUpload();
+    m_Target.fail(5, 1);
+    uploadFailing(upload);
+    assertTrue("state file", Files.exists(upload.stateFile(m_File)));
+    assertFalse("assembled file", Files.exists(m_TargetDir.resolve(NAME)));
+
+    // chunk size of resumed uploads must not change
+    m_Target.getAttempts().clear();
+    upload = newUpload().chunkSize(CHUNK_SIZE / 2);
+    upload.upload(m_File, NAME);
+    assertEquals("sessions", 1, m_Target.getSessions());
+    assertEquals("chunks resent", List.of(5, 6, 7, 8, 9), m_Target.getAttempts());
+    assertFalse("state file", Files.exists(upload.stateFile(m_File)));
+    assertAssembled();
+  }
+
+  /**
+   * Fails a chunk twice, expecting it to succeed with the third attempt.
+   *
+   * @throws Exception	if the upload fails
+   */
+  @Test
+  public void testChunkRetry() throws Exception {
+    m_Target.fail(3, 2);
+    newUpload().maxAttempts(3).upload(m_File, NAME);
+    assertEquals("attempts for failing chunk", 3, Collections.frequency(m_Target.getAttempts(), 3));
+    assertEquals("attempts for other chunks", 1, Collections.frequency(m_Target.getAttempts(), 4));
+    assertAssembled();
+  }
+
+  /**
+   * Changes the file after an interrupted upload, expecting a new session
+   * that sends all chunks.
+   *
+   * @throws Exception	if the upload fails
+   */
+  @Test
+  public void testChangedFile() throws Exception {
+    m_Target.fail(5, 1);
+    uploadFailing(newUpload());
+
+    Files.write(m_File, content(FILE_SIZE + 1, 2));
+    m_Target.getAttempts().clear();
+    newUpload().upload(m_File, NAME);
+    assertEquals("sessions", 2, m_Target.getSessions());
+    assertEquals("chunks sent", List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), m_Target.getAttempts());
+    assertAssembled();
+  }
+}
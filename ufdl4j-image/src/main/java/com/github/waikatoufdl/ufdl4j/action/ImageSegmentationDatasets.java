@@ -1,6 +1,6 @@
 /*
  * ImageSegmentationDatasets.java
- * Copyright (C) 2021-2023 University of Waikato, Hamilton, NZ
+ * Copyright (C) 2021-2026 University of Waikato, Hamilton, NZ
  */
 
 package com.github.waikatoufdl.ufdl4j.action;
@@ -12,10 +12,12 @@ import com.github.fracpete.requests4j.response.JsonResponse;
 import com.github.fracpete.requests4j.response.Response;
 import com.github.waikatoufdl.ufdl4j.core.FailedRequestException;
 import com.github.waikatoufdl.ufdl4j.core.JsonUtils;
+import com.github.waikatoufdl.ufdl4j.transfer.UploadSource;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import java.io.File;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -182,6 +184,27 @@ public class ImageSegmentationDatasets
       throw new FailedRequestException("Failed to add file '" + name + "' as label '" + label + "' to dataset " + pk + ": " + file, response);
   }
 
+  /**
+   * Sets the layer for the specified file in the dataset, streaming it from
+   * the source rather than a file.
+   *
+   * @param pk		the dataset ID
+   * @param name	the name of the file in the dataset
+   * @param label 	the layer to set
+   * @param source	the layer content to upload, eg from a stream, channel or buffer
+   * @return		true if successfully added/uploaded
+   * @throws Exception	if request fails, eg invalid dataset PK
+   */
+  public boolean setLayer(int pk, String name, String label, UploadSource source) throws Exception {
+    getLogger().info("adding stream as label '" + label + "' of file '" + name + "' to: " + pk);
+
+    try (okhttp3.Response response = uploadRaw(getPath() + pk + "/layers/" + name + "/" + label, "file", name, source)) {
+      if (!response.isSuccessful())
+	throw newFailedRequest("Failed to add stream as label '" + label + "' of file '" + name + "' to dataset " + pk, response);
+      return true;
+    }
+  }
+
   /**
    * Retrieves the layer for the specified file from the dataset (downloads it from the server).
    *
@@ -207,16 +230,30 @@ public class ImageSegmentationDatasets
    * @throws Exception	if request fails, eg invalid dataset PK
    */
   public boolean getLayer(int pk, String name, String label, File output) throws Exception {
-    Request 	request;
-    Response 	response;
+    getLogger().info("getting layer '" + label + "' of file '" + name + "' from: " + pk);
+
+    downloadRaw(
+      newRawRequest(getPath() + pk + "/layers/" + name + "/" + label).get(), output, false,
+      "Failed to get label '" + label + "' of file from dataset " + pk + ": " + name);
+    return output.exists();
+  }
 
+  /**
+   * Retrieves the layer for the specified file from the dataset (downloads it from the server),
+   * streaming it into the channel.
+   *
+   * @param pk		the dataset ID
+   * @param name	the name used in the dataset
+   * @param label 	the layer to retrieve
+   * @param channel	the channel to write the layer to (caller needs to close it)
+   * @return		the number of bytes downloaded, 0 if layer not available
+   * @throws Exception	if request fails, eg invalid dataset PK
+   */
+  public long getLayer(int pk, String name, String label, WritableByteChannel channel) throws Exception {
     getLogger().info("getting layer '" + label + "' of file '" + name + "' from: " + pk);
 
-    request = newGet(getPath() + pk + "/layers/" + name + "/" + label);
-    response = download(request, output, false);
-    if (response.ok())
-      return output.exists();
-    else
-      throw new FailedRequestException("Failed to get label '" + label + "' of file from dataset " + pk + ": " + name, response);
+    return downloadRaw(
+      newRawRequest(getPath() + pk + "/layers/" + name + "/" + label).get(), channel,
+      "Failed to get label '" + label + "' of file from dataset " + pk + ": " + name);
   }
 }